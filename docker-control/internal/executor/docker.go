@@ -7,6 +7,7 @@ import (
 	"fmt"
 	"os"
 	"os/exec"
+	"sort"
 	"strings"
 
 	pb "github.com/shipkit/docker-control/proto"
@@ -37,6 +38,25 @@ func (e *DockerComposeExecutor) ComposeUp(ctx context.Context, project string, y
 	return nil
 }
 
+// ComposeUpdate applies yaml to a running project. Containers of the given services are recreated in place,
+// or every changed service when services is empty; services that were removed from the file are cleaned up.
+func (e *DockerComposeExecutor) ComposeUpdate(ctx context.Context, project string, yaml string, services []string) error {
+	cmd := exec.CommandContext(ctx, "docker", composeUpdateArgs(project, services)...)
+	cmd.Env = buildDockerEnv()
+	cmd.Stdin = bytes.NewBufferString(yaml)
+	output, err := cmd.CombinedOutput()
+	if err != nil {
+		return fmt.Errorf("docker compose up failed: %w - output: %s", err, string(output))
+	}
+	return nil
+}
+
+// composeUpdateArgs selects the services compose up recreates; without any it compares the whole project.
+func composeUpdateArgs(project string, services []string) []string {
+	args := []string{"compose", "-p", project, "-f", "-", "up", "-d", "--remove-orphans"}
+	return append(args, services...)
+}
+
 func (e *DockerComposeExecutor) ComposeDown(ctx context.Context, project string) error {
 	cmd := exec.CommandContext(ctx, "docker", "compose", "-p", project, "down", "--remove-orphans")
 	cmd.Env = buildDockerEnv()
@@ -47,6 +67,54 @@ func (e *DockerComposeExecutor) ComposeDown(ctx context.Context, project string)
 	return nil
 }
 
+// ComposeImages lists the distinct images the compose file runs. Services that are built locally are skipped
+// since there is nothing to pull for them.
+func (e *DockerComposeExecutor) ComposeImages(ctx context.Context, project string, yaml string) ([]string, error) {
+	cmd := exec.CommandContext(ctx, "docker", "compose", "-p", project, "-f", "-", "config", "--format", "json")
+	cmd.Env = buildDockerEnv()
+	cmd.Stdin = bytes.NewBufferString(yaml)
+	output, err := cmd.Output()
+	if err != nil {
+		return nil, fmt.Errorf("docker compose config failed: %w", err)
+	}
+	return composeImages(output)
+}
+
+// composeImages picks the images to pull from the JSON output of docker compose config.
+func composeImages(output []byte) ([]string, error) {
+	var config struct {
+		Services map[string]struct {
+			Image string         `json:"image"`
+			Build map[string]any `json:"build"`
+		} `json:"services"`
+	}
+	if err := json.Unmarshal(output, &config); err != nil {
+		return nil, fmt.Errorf("failed to parse compose config: %w", err)
+	}
+
+	seen := make(map[string]bool)
+	var images []string
+	for _, service := range config.Services {
+		if service.Image == "" || service.Build != nil || seen[service.Image] {
+			continue
+		}
+		seen[service.Image] = true
+		images = append(images, service.Image)
+	}
+	sort.Strings(images)
+	return images, nil
+}
+
+func (e *DockerComposeExecutor) PullImage(ctx context.Context, image string) error {
+	cmd := exec.CommandContext(ctx, "docker", "pull", "--quiet", image)
+	cmd.Env = buildDockerEnv()
+	output, err := cmd.CombinedOutput()
+	if err != nil {
+		return fmt.Errorf("docker pull failed: %w - output: %s", err, string(output))
+	}
+	return nil
+}
+
 func (e *DockerComposeExecutor) ComposeStatus(ctx context.Context, project string) (*ComposeStatus, error) {
 	cmd := exec.CommandContext(ctx, "docker", "compose", "-p", project, "ps", "--format", "json")
 	cmd.Env = buildDockerEnv()
@@ -118,3 +118,81 @@ func TestMockDockerExecutor_ComposeStatus(t *testing.T) {
 		})
 	}
 }
+
+func TestComposeUpdateArgs(t *testing.T) {
+	tests := []struct {
+		name     string
+		project  string
+		services []string
+		expected []string
+	}{
+		{
+			name:     "whole project",
+			project:  "test-project",
+			services: nil,
+			expected: []string{"compose", "-p", "test-project", "-f", "-", "up", "-d", "--remove-orphans"},
+		},
+		{
+			name:     "selected services",
+			project:  "test-project",
+			services: []string{"web", "worker"},
+			expected: []string{"compose", "-p", "test-project", "-f", "-", "up", "-d", "--remove-orphans", "web", "worker"},
+		},
+		{
+			name:     "blue/green slot",
+			project:  "test-project-green",
+			services: []string{"web"},
+			expected: []string{"compose", "-p", "test-project-green", "-f", "-", "up", "-d", "--remove-orphans", "web"},
+		},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			assert.Equal(t, tt.expected, composeUpdateArgs(tt.project, tt.services))
+		})
+	}
+}
+
+func TestComposeImages(t *testing.T) {
+	tests := []struct {
+		name        string
+		config      string
+		expected    []string
+		expectError bool
+	}{
+		{
+			name:     "distinct images sorted",
+			config:   `{"services":{"web":{"image":"nginx:1.27"},"worker":{"image":"redis:7"},"cache":{"image":"redis:7"}}}`,
+			expected: []string{"nginx:1.27", "redis:7"},
+		},
+		{
+			name:     "built services skipped",
+			config:   `{"services":{"app":{"image":"shipkit/app:dev","build":{"context":"."}},"db":{"image":"postgres:16"}}}`,
+			expected: []string{"postgres:16"},
+		},
+		{
+			name:     "services without image skipped",
+			config:   `{"services":{"app":{"build":{"context":"."}}}}`,
+			expected: nil,
+		},
+		{
+			name:        "invalid config",
+			config:      `services: {}`,
+			expectError: true,
+		},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			images, err := composeImages([]byte(tt.config))
+
+			if tt.expectError {
+				assert.Error(t, err)
+				assert.Contains(t, err.Error(), "failed to parse compose config")
+			} else {
+				assert.NoError(t, err)
+				assert.Equal(t, tt.expected, images)
+			}
+		})
+	}
+}
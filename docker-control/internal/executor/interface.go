@@ -8,7 +8,10 @@ import (
 
 type DockerExecutor interface {
 	ComposeUp(ctx context.Context, projectName string, composeYAML string) error
+	ComposeUpdate(ctx context.Context, projectName string, composeYAML string, services []string) error
 	ComposeDown(ctx context.Context, projectName string) error
+	ComposeImages(ctx context.Context, projectName string, composeYAML string) ([]string, error)
+	PullImage(ctx context.Context, image string) error
 	ComposeStatus(ctx context.Context, project string) (*ComposeStatus, error)
 	GetStatus(ctx context.Context, projectName string) (*pb.AppStatus, error)
 	ReloadNginx(ctx context.Context, containerName string) error
@@ -3,13 +3,28 @@ package executor
 import (
 	"context"
 	"errors"
+	"sync"
+
+	pb "github.com/shipkit/docker-control/proto"
 )
 
+var _ DockerExecutor = (*MockDockerExecutor)(nil)
+
+// MockDockerExecutor answers from its fields instead of running docker. The projects, services and images it
+// was called with are recorded, so tests can check what a call would have changed.
 type MockDockerExecutor struct {
 	ShouldFailUp     bool
 	ShouldFailDown   bool
 	ShouldFailStatus bool
+	ShouldFailPull   bool
 	StatusResponse   *ComposeStatus
+	Images           []string
+
+	mu              sync.Mutex
+	UpProjects      []string
+	DownProjects    []string
+	UpdatedServices []string
+	PulledImages    []string
 }
 
 func NewMockDockerExecutor() *MockDockerExecutor {
@@ -28,22 +43,71 @@ func NewMockDockerExecutor() *MockDockerExecutor {
 }
 
 func (m *MockDockerExecutor) ComposeUp(ctx context.Context, project string, yaml string) error {
+	m.record(&m.UpProjects, project)
 	if m.ShouldFailUp {
 		return errors.New("mock compose up failed")
 	}
 	return nil
 }
 
+func (m *MockDockerExecutor) ComposeUpdate(ctx context.Context, project string, yaml string, services []string) error {
+	m.record(&m.UpdatedServices, services...)
+	if m.ShouldFailUp {
+		return errors.New("mock compose update failed")
+	}
+	return nil
+}
+
 func (m *MockDockerExecutor) ComposeDown(ctx context.Context, project string) error {
+	m.record(&m.DownProjects, project)
 	if m.ShouldFailDown {
 		return errors.New("mock compose down failed")
 	}
 	return nil
 }
 
+func (m *MockDockerExecutor) ComposeImages(ctx context.Context, project string, yaml string) ([]string, error) {
+	return m.Images, nil
+}
+
+func (m *MockDockerExecutor) PullImage(ctx context.Context, image string) error {
+	m.record(&m.PulledImages, image)
+	if m.ShouldFailPull {
+		return errors.New("mock pull failed")
+	}
+	return nil
+}
+
 func (m *MockDockerExecutor) ComposeStatus(ctx context.Context, project string) (*ComposeStatus, error) {
 	if m.ShouldFailStatus {
 		return nil, errors.New("mock compose status failed")
 	}
 	return m.StatusResponse, nil
 }
+
+func (m *MockDockerExecutor) GetStatus(ctx context.Context, projectName string) (*pb.AppStatus, error) {
+	status, err := m.ComposeStatus(ctx, projectName)
+	if err != nil {
+		return nil, err
+	}
+	var containers []*pb.ContainerStatus
+	for _, s := range status.Services {
+		containers = append(containers, &pb.ContainerStatus{Name: s.Name, State: s.State, Health: s.Health, Ports: s.Ports})
+	}
+	return &pb.AppStatus{Uuid: projectName, Containers: containers}, nil
+}
+
+func (m *MockDockerExecutor) ReloadNginx(ctx context.Context, containerName string) error {
+	return nil
+}
+
+func (m *MockDockerExecutor) IssueCertificate(ctx context.Context, domain string) error {
+	return nil
+}
+
+// record appends under the lock because calls such as PullImage run concurrently.
+func (m *MockDockerExecutor) record(calls *[]string, values ...string) {
+	m.mu.Lock()
+	defer m.mu.Unlock()
+	*calls = append(*calls, values...)
+}
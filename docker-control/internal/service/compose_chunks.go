@@ -0,0 +1,48 @@
+package service
+
+import (
+	"errors"
+	"fmt"
+	"io"
+	"strings"
+
+	pb "github.com/shipkit/docker-control/proto"
+)
+
+// maxComposeSize bounds the compose file a streaming call accepts. It matches the upload limit of the gateway,
+// so a file only exceeds it when the client is misbehaving.
+const maxComposeSize = 16 << 20
+
+var errComposeTooLarge = fmt.Errorf("compose file exceeds %d bytes", maxComposeSize)
+
+// receiveCompose reads a compose file sent in chunks until the client closes its side of the stream. The first
+// message is returned as well because it carries the remaining request fields; it is nil for an empty stream.
+func receiveCompose[T any](recv func() (T, error), chunk func(T) []byte) (first T, yaml string, err error) {
+	var b strings.Builder
+	received := false
+	for {
+		msg, err := recv()
+		if errors.Is(err, io.EOF) {
+			return first, b.String(), nil
+		}
+		if err != nil {
+			return first, "", err
+		}
+		if !received {
+			first, received = msg, true
+		}
+		data := chunk(msg)
+		if b.Len()+len(data) > maxComposeSize {
+			return first, "", errComposeTooLarge
+		}
+		b.Write(data)
+	}
+}
+
+func composeTooLarge() *pb.ActionResult {
+	return &pb.ActionResult{
+		Status:  1,
+		Message: "Compose file is too large",
+		Details: errComposeTooLarge.Error(),
+	}
+}
@@ -0,0 +1,101 @@
+package service
+
+import (
+	"errors"
+	"io"
+	"strings"
+	"testing"
+
+	pb "github.com/shipkit/docker-control/proto"
+	"github.com/stretchr/testify/assert"
+)
+
+// chunks returns a recv function that yields the messages in order and then err, io.EOF when err is nil.
+func chunks(messages []*pb.ComposeChunk, err error) func() (*pb.ComposeChunk, error) {
+	return func() (*pb.ComposeChunk, error) {
+		if len(messages) == 0 {
+			if err != nil {
+				return nil, err
+			}
+			return nil, io.EOF
+		}
+		msg := messages[0]
+		messages = messages[1:]
+		return msg, nil
+	}
+}
+
+func TestReceiveCompose(t *testing.T) {
+	errBroken := errors.New("stream broken")
+
+	tests := []struct {
+		name         string
+		messages     []*pb.ComposeChunk
+		recvErr      error
+		expectedUUID string
+		expectedYAML string
+		expectedErr  error
+	}{
+		{
+			name:         "single chunk",
+			messages:     []*pb.ComposeChunk{{Uuid: "test-project", Data: []byte("services: {}\n")}},
+			expectedUUID: "test-project",
+			expectedYAML: "services: {}\n",
+		},
+		{
+			name: "chunks reassembled in order",
+			messages: []*pb.ComposeChunk{
+				{Uuid: "test-project-blue", Data: []byte("services:\n")},
+				{Data: []byte("  web:\n    image: ngi")},
+				{Data: []byte("nx:1.27\n")},
+			},
+			expectedUUID: "test-project-blue",
+			expectedYAML: "services:\n  web:\n    image: nginx:1.27\n",
+		},
+		{
+			name: "request fields only in the first chunk",
+			messages: []*pb.ComposeChunk{
+				{Uuid: "test-project", Data: []byte("a")},
+				{Uuid: "other-project", Data: []byte("b")},
+			},
+			expectedUUID: "test-project",
+			expectedYAML: "ab",
+		},
+		{
+			name:         "empty stream",
+			messages:     nil,
+			expectedUUID: "",
+			expectedYAML: "",
+		},
+		{
+			name:         "broken stream",
+			messages:     []*pb.ComposeChunk{{Uuid: "test-project", Data: []byte("services:\n")}},
+			recvErr:      errBroken,
+			expectedUUID: "test-project",
+			expectedErr:  errBroken,
+		},
+		{
+			name: "too large",
+			messages: []*pb.ComposeChunk{
+				{Uuid: "test-project", Data: []byte(strings.Repeat("x", maxComposeSize))},
+				{Data: []byte("x")},
+			},
+			expectedUUID: "test-project",
+			expectedErr:  errComposeTooLarge,
+		},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			first, yaml, err := receiveCompose(chunks(tt.messages, tt.recvErr), (*pb.ComposeChunk).GetData)
+
+			if tt.expectedErr != nil {
+				assert.ErrorIs(t, err, tt.expectedErr)
+			} else {
+				assert.NoError(t, err)
+			}
+			assert.Equal(t, tt.expectedUUID, first.GetUuid())
+			assert.Equal(t, tt.expectedYAML, yaml)
+		})
+	}
+}
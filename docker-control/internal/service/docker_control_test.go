@@ -0,0 +1,69 @@
+package service
+
+import (
+	"testing"
+
+	"github.com/shipkit/docker-control/internal/executor"
+	"github.com/stretchr/testify/assert"
+	"go.uber.org/zap"
+)
+
+func newTestService(mock *executor.MockDockerExecutor) *DockerControlService {
+	return NewDockerControlService(mock, zap.NewNop())
+}
+
+func TestDeploymentPath(t *testing.T) {
+	tests := []struct {
+		name        string
+		uuid        string
+		expectedErr error
+	}{
+		{
+			name:        "deployment id",
+			uuid:        "3f2b9c1e-7a4d-4e8f-9b6a-1c2d3e4f5a6b",
+			expectedErr: nil,
+		},
+		{
+			name:        "blue slot",
+			uuid:        "3f2b9c1e-7a4d-4e8f-9b6a-1c2d3e4f5a6b-blue",
+			expectedErr: nil,
+		},
+		{
+			name:        "green slot",
+			uuid:        "3f2b9c1e-7a4d-4e8f-9b6a-1c2d3e4f5a6b-green",
+			expectedErr: nil,
+		},
+		{
+			name:        "empty",
+			uuid:        "",
+			expectedErr: ErrUUIDRequired,
+		},
+		{
+			name:        "path separator",
+			uuid:        "../etc",
+			expectedErr: ErrUUIDPathSeparators,
+		},
+		{
+			name:        "invalid characters",
+			uuid:        "project name",
+			expectedErr: ErrUUIDInvalidChars,
+		},
+		{
+			name:        "dot",
+			uuid:        "project.blue",
+			expectedErr: ErrUUIDInvalidChars,
+		},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			_, err := newTestService(executor.NewMockDockerExecutor()).deploymentPath(tt.uuid)
+
+			if tt.expectedErr != nil {
+				assert.ErrorIs(t, err, tt.expectedErr)
+			} else {
+				assert.NoError(t, err)
+			}
+		})
+	}
+}
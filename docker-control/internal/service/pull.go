@@ -0,0 +1,78 @@
+package service
+
+import (
+	"errors"
+	"sync"
+
+	pb "github.com/shipkit/docker-control/proto"
+	"go.uber.org/zap"
+)
+
+// maxParallelPulls bounds how many images a single PullImages call downloads at once.
+const maxParallelPulls = 4
+
+// PullImages downloads every image of the compose file so that a following StartCompose or UpdateCompose
+// only has to create containers. Progress is streamed as each image finishes; a failed pull is reported in
+// its progress message and does not stop the remaining pulls.
+func (s *DockerControlService) PullImages(stream pb.DockerControlService_PullImagesServer) error {
+	ctx := stream.Context()
+
+	first, yaml, err := receiveCompose(stream.Recv, (*pb.PullImagesRequest).GetComposeChunk)
+	if errors.Is(err, errComposeTooLarge) {
+		return stream.Send(&pb.PullImagesProgress{Error: err.Error()})
+	}
+	if err != nil {
+		return err
+	}
+	uuid := first.GetUuid()
+
+	if _, err := s.deploymentPath(uuid); err != nil {
+		return stream.Send(&pb.PullImagesProgress{Error: err.Error()})
+	}
+
+	images, err := s.executor.ComposeImages(ctx, uuid, yaml)
+	if err != nil {
+		s.logger.Error("Failed to list images", zap.String("uuid", uuid), zap.Error(err))
+		return stream.Send(&pb.PullImagesProgress{Error: err.Error()})
+	}
+
+	total := int32(len(images))
+	s.logger.Info("Pulling images", zap.String("uuid", uuid), zap.Int32("count", total))
+	if err := stream.Send(&pb.PullImagesProgress{Total: total}); err != nil {
+		return err
+	}
+
+	var (
+		mu      sync.Mutex
+		pulled  int32
+		sendErr error
+		wg      sync.WaitGroup
+	)
+	sem := make(chan struct{}, maxParallelPulls)
+	for _, image := range images {
+		wg.Add(1)
+		sem <- struct{}{}
+		go func(image string) {
+			defer wg.Done()
+			defer func() { <-sem }()
+
+			progress := &pb.PullImagesProgress{Image: image, Total: total}
+			if err := s.executor.PullImage(ctx, image); err != nil {
+				s.logger.Error("Failed to pull image", zap.String("image", image), zap.Error(err))
+				progress.Error = err.Error()
+			}
+
+			// grpc streams must not be written concurrently
+			mu.Lock()
+			defer mu.Unlock()
+			pulled++
+			progress.Pulled = pulled
+			if sendErr == nil {
+				sendErr = stream.Send(progress)
+			}
+		}(image)
+	}
+	wg.Wait()
+
+	return sendErr
+}
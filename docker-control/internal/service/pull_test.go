@@ -0,0 +1,111 @@
+package service
+
+import (
+	"context"
+	"io"
+	"sort"
+	"testing"
+
+	"github.com/shipkit/docker-control/internal/executor"
+	pb "github.com/shipkit/docker-control/proto"
+	"github.com/stretchr/testify/assert"
+	"google.golang.org/grpc"
+)
+
+// pullStream replays requests to PullImages and records the progress it sends.
+type pullStream struct {
+	grpc.ServerStream
+	requests []*pb.PullImagesRequest
+	sent     []*pb.PullImagesProgress
+}
+
+func (p *pullStream) Context() context.Context {
+	return context.Background()
+}
+
+func (p *pullStream) Recv() (*pb.PullImagesRequest, error) {
+	if len(p.requests) == 0 {
+		return nil, io.EOF
+	}
+	request := p.requests[0]
+	p.requests = p.requests[1:]
+	return request, nil
+}
+
+func (p *pullStream) Send(progress *pb.PullImagesProgress) error {
+	p.sent = append(p.sent, progress)
+	return nil
+}
+
+func TestPullImages(t *testing.T) {
+	tests := []struct {
+		name          string
+		uuid          string
+		images        []string
+		failPull      bool
+		expectedPulls []string
+		expectedError string
+	}{
+		{
+			name:          "every image pulled",
+			uuid:          "test-project",
+			images:        []string{"nginx:1.27", "postgres:16", "redis:7"},
+			expectedPulls: []string{"nginx:1.27", "postgres:16", "redis:7"},
+		},
+		{
+			name:          "nothing to pull",
+			uuid:          "test-project",
+			images:        nil,
+			expectedPulls: nil,
+		},
+		{
+			name:          "failed pulls reported per image",
+			uuid:          "test-project",
+			images:        []string{"nginx:1.27", "redis:7"},
+			failPull:      true,
+			expectedPulls: []string{"nginx:1.27", "redis:7"},
+			expectedError: "mock pull failed",
+		},
+		{
+			name:          "invalid project",
+			uuid:          "test/project",
+			images:        []string{"nginx:1.27"},
+			expectedPulls: nil,
+			expectedError: ErrUUIDPathSeparators.Error(),
+		},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			mock := executor.NewMockDockerExecutor()
+			mock.Images = tt.images
+			mock.ShouldFailPull = tt.failPull
+			stream := &pullStream{requests: []*pb.PullImagesRequest{
+				{Uuid: tt.uuid, ComposeChunk: []byte("services:\n")},
+				{ComposeChunk: []byte("  web: {}\n")},
+			}}
+
+			err := newTestService(mock).PullImages(stream)
+
+			assert.NoError(t, err)
+			sort.Strings(mock.PulledImages)
+			assert.Equal(t, tt.expectedPulls, mock.PulledImages)
+			for _, progress := range stream.sent {
+				if progress.Image != "" {
+					assert.Equal(t, tt.expectedError, progress.Error)
+				}
+			}
+			if tt.expectedPulls == nil && tt.expectedError != "" {
+				assert.Len(t, stream.sent, 1)
+				assert.Equal(t, tt.expectedError, stream.sent[0].Error)
+				return
+			}
+			// The total comes first, then one progress message per image with a running count
+			assert.Len(t, stream.sent, len(tt.images)+1)
+			assert.Equal(t, int32(len(tt.images)), stream.sent[0].Total)
+			for i, progress := range stream.sent[1:] {
+				assert.Equal(t, int32(i+1), progress.Pulled)
+			}
+		})
+	}
+}
@@ -38,3 +38,33 @@ func (s *DockerControlService) ReloadNginx(ctx context.Context, req *pb.ReloadNg
 		Details: string(output),
 	}, nil
 }
+
+// TestNginxConfig runs nginx -t in the specified container, so a broken configuration is rejected before it
+// is reloaded. The nginx output is returned in Details either way.
+func (s *DockerControlService) TestNginxConfig(ctx context.Context, req *pb.TestNginxConfigRequest) (*pb.ActionResult, error) {
+	container := req.GetContainerName()
+	if container == "" {
+		return &pb.ActionResult{
+			Status:  1,
+			Message: "container_name is required",
+			Details: "",
+		}, nil
+	}
+
+	cmd := exec.CommandContext(ctx, "docker", "exec", container, "nginx", "-t")
+	output, err := cmd.CombinedOutput()
+	if err != nil {
+		s.logger.Warn("NGINX configuration test failed", zap.String("container", container), zap.String("output", string(output)))
+		return &pb.ActionResult{
+			Status:  1,
+			Message: "NGINX configuration test failed",
+			Details: string(output),
+		}, nil
+	}
+
+	return &pb.ActionResult{
+		Status:  0,
+		Message: "NGINX configuration is valid",
+		Details: string(output),
+	}, nil
+}
@@ -0,0 +1,40 @@
+package service
+
+import (
+	"context"
+	"testing"
+
+	"github.com/shipkit/docker-control/internal/executor"
+	pb "github.com/shipkit/docker-control/proto"
+	"github.com/stretchr/testify/assert"
+)
+
+func TestNginxRequestsRequireContainer(t *testing.T) {
+	tests := []struct {
+		name string
+		call func(s *DockerControlService) (*pb.ActionResult, error)
+	}{
+		{
+			name: "test config",
+			call: func(s *DockerControlService) (*pb.ActionResult, error) {
+				return s.TestNginxConfig(context.Background(), &pb.TestNginxConfigRequest{})
+			},
+		},
+		{
+			name: "reload",
+			call: func(s *DockerControlService) (*pb.ActionResult, error) {
+				return s.ReloadNginx(context.Background(), &pb.ReloadNginxRequest{})
+			},
+		},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			result, err := tt.call(newTestService(executor.NewMockDockerExecutor()))
+
+			assert.NoError(t, err)
+			assert.Equal(t, int32(1), result.Status)
+			assert.Equal(t, "container_name is required", result.Message)
+		})
+	}
+}
@@ -2,6 +2,7 @@ package service
 
 import (
 	"context"
+	"errors"
 	"fmt"
 
 	pb "github.com/shipkit/docker-control/proto"
@@ -57,3 +58,24 @@ func (s *DockerControlService) StartCompose(ctx context.Context, req *pb.StartCo
 		Details: fmt.Sprintf("Project %s is now running", req.Uuid),
 	}, nil
 }
+
+// StartComposeStream is StartCompose for compose files sent in chunks, so large files never have to fit into
+// a single gRPC message.
+func (s *DockerControlService) StartComposeStream(stream pb.DockerControlService_StartComposeStreamServer) error {
+	first, yaml, err := receiveCompose(stream.Recv, (*pb.ComposeChunk).GetData)
+	if errors.Is(err, errComposeTooLarge) {
+		return stream.SendAndClose(composeTooLarge())
+	}
+	if err != nil {
+		return err
+	}
+
+	result, err := s.StartCompose(stream.Context(), &pb.StartComposeRequest{
+		Uuid:        first.GetUuid(),
+		ComposeYaml: yaml,
+	})
+	if err != nil {
+		return err
+	}
+	return stream.SendAndClose(result)
+}
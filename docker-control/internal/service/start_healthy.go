@@ -0,0 +1,128 @@
+package service
+
+import (
+	"context"
+	"errors"
+	"fmt"
+	"strings"
+	"time"
+
+	pb "github.com/shipkit/docker-control/proto"
+	"go.uber.org/zap"
+)
+
+const (
+	defaultHealthTimeout = 5 * time.Minute
+	healthPollInterval   = 2 * time.Second
+)
+
+var errUnhealthy = errors.New("container reported unhealthy")
+
+// StartHealthy starts the compose file as project uuid and waits until every container of it is running and
+// healthy. The gateway uses it to bring up the idle slot of a blue/green deployment next to the live one and
+// only switches traffic once this call succeeded. A project that fails to start or never becomes healthy is
+// removed again, so the live slot is never affected.
+func (s *DockerControlService) StartHealthy(stream pb.DockerControlService_StartHealthyServer) error {
+	first, yaml, err := receiveCompose(stream.Recv, (*pb.StartHealthyRequest).GetComposeChunk)
+	if errors.Is(err, errComposeTooLarge) {
+		return stream.SendAndClose(composeTooLarge())
+	}
+	if err != nil {
+		return err
+	}
+
+	result := s.startHealthy(stream.Context(), first.GetUuid(), yaml, first.GetHealthTimeoutSeconds())
+	return stream.SendAndClose(result)
+}
+
+func (s *DockerControlService) startHealthy(ctx context.Context, uuid string, yaml string, healthTimeoutSeconds int32) *pb.ActionResult {
+	_, err := s.deploymentPath(uuid)
+	if err != nil {
+		return &pb.ActionResult{
+			Status:  1,
+			Message: err.Error(),
+			Details: "UUID validation failed",
+		}
+	}
+
+	if yaml == "" {
+		return &pb.ActionResult{
+			Status:  1,
+			Message: "Compose YAML is required",
+			Details: "Empty compose file",
+		}
+	}
+
+	timeout := defaultHealthTimeout
+	if healthTimeoutSeconds > 0 {
+		timeout = time.Duration(healthTimeoutSeconds) * time.Second
+	}
+
+	s.logger.Info("Starting project and waiting for health", zap.String("uuid", uuid), zap.Duration("timeout", timeout))
+
+	if err := s.executor.ComposeUp(ctx, uuid, yaml); err != nil {
+		s.removeUnhealthy(ctx, uuid)
+		return s.startHealthyFailure(uuid, "Failed to start project", err)
+	}
+	if err := s.waitHealthy(ctx, uuid, timeout); err != nil {
+		s.removeUnhealthy(ctx, uuid)
+		return s.startHealthyFailure(uuid, "Project did not become healthy", err)
+	}
+
+	s.logger.Info("Project is healthy", zap.String("uuid", uuid))
+	return &pb.ActionResult{
+		Status:  0,
+		Message: "Project started and healthy",
+		Details: fmt.Sprintf("All containers of project %s are running and healthy", uuid),
+	}
+}
+
+// waitHealthy polls the project until all of its containers run and none reports a failing health check.
+// Containers without a health check count as healthy once they run.
+func (s *DockerControlService) waitHealthy(ctx context.Context, project string, timeout time.Duration) error {
+	ctx, cancel := context.WithTimeout(ctx, timeout)
+	defer cancel()
+
+	ticker := time.NewTicker(healthPollInterval)
+	defer ticker.Stop()
+	for {
+		status, err := s.executor.ComposeStatus(ctx, project)
+		if err == nil && len(status.Services) > 0 {
+			healthy := true
+			for _, service := range status.Services {
+				health := strings.ToLower(service.Health)
+				if health == "unhealthy" {
+					return fmt.Errorf("%w: %s", errUnhealthy, service.Name)
+				}
+				if !strings.Contains(strings.ToLower(service.State), "running") || (health != "" && health != "healthy") {
+					healthy = false
+				}
+			}
+			if healthy {
+				return nil
+			}
+		}
+
+		select {
+		case <-ctx.Done():
+			return fmt.Errorf("timed out after %s waiting for %s: %w", timeout, project, ctx.Err())
+		case <-ticker.C:
+		}
+	}
+}
+
+// removeUnhealthy takes down a project that did not come up, also when the call itself was cancelled.
+func (s *DockerControlService) removeUnhealthy(ctx context.Context, uuid string) {
+	if err := s.executor.ComposeDown(context.WithoutCancel(ctx), uuid); err != nil {
+		s.logger.Warn("Failed to remove unhealthy project", zap.String("uuid", uuid), zap.Error(err))
+	}
+}
+
+func (s *DockerControlService) startHealthyFailure(uuid string, message string, err error) *pb.ActionResult {
+	s.logger.Error(message, zap.String("uuid", uuid), zap.Error(err))
+	return &pb.ActionResult{
+		Status:  1,
+		Message: message,
+		Details: err.Error(),
+	}
+}
@@ -0,0 +1,163 @@
+package service
+
+import (
+	"context"
+	"testing"
+	"time"
+
+	"github.com/shipkit/docker-control/internal/executor"
+	"github.com/stretchr/testify/assert"
+)
+
+func statusOf(states ...executor.ServiceStatus) *executor.ComposeStatus {
+	return &executor.ComposeStatus{Services: states}
+}
+
+func TestWaitHealthy(t *testing.T) {
+	tests := []struct {
+		name          string
+		status        *executor.ComposeStatus
+		failStatus    bool
+		expectedErr   error
+		expectTimeout bool
+	}{
+		{
+			name:   "healthy",
+			status: statusOf(executor.ServiceStatus{Name: "web", State: "running", Health: "healthy"}),
+		},
+		{
+			name:   "running without health check",
+			status: statusOf(executor.ServiceStatus{Name: "web", State: "running"}),
+		},
+		{
+			name:   "unhealthy",
+			status: statusOf(
+				executor.ServiceStatus{Name: "web", State: "running", Health: "healthy"},
+				executor.ServiceStatus{Name: "worker", State: "running", Health: "unhealthy"},
+			),
+			expectedErr: errUnhealthy,
+		},
+		{
+			name:          "still starting",
+			status:        statusOf(executor.ServiceStatus{Name: "web", State: "running", Health: "starting"}),
+			expectTimeout: true,
+		},
+		{
+			name:          "not running",
+			status:        statusOf(executor.ServiceStatus{Name: "web", State: "exited"}),
+			expectTimeout: true,
+		},
+		{
+			name:          "no containers yet",
+			status:        statusOf(),
+			expectTimeout: true,
+		},
+		{
+			name:          "status unavailable",
+			failStatus:    true,
+			expectTimeout: true,
+		},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			mock := executor.NewMockDockerExecutor()
+			mock.StatusResponse = tt.status
+			mock.ShouldFailStatus = tt.failStatus
+
+			err := newTestService(mock).waitHealthy(context.Background(), "test-project-blue", 20*time.Millisecond)
+
+			switch {
+			case tt.expectedErr != nil:
+				assert.ErrorIs(t, err, tt.expectedErr)
+			case tt.expectTimeout:
+				assert.ErrorIs(t, err, context.DeadlineExceeded)
+			default:
+				assert.NoError(t, err)
+			}
+		})
+	}
+}
+
+func TestStartHealthy(t *testing.T) {
+	tests := []struct {
+		name            string
+		uuid            string
+		yaml            string
+		failUp          bool
+		status          *executor.ComposeStatus
+		expectedStatus  int32
+		expectedMessage string
+		expectUp        bool
+		expectRemoved   bool
+	}{
+		{
+			name:            "healthy slot",
+			uuid:            "test-project-green",
+			yaml:            "services: {}",
+			status:          statusOf(executor.ServiceStatus{Name: "web", State: "running", Health: "healthy"}),
+			expectedStatus:  0,
+			expectedMessage: "Project started and healthy",
+			expectUp:        true,
+		},
+		{
+			name:            "failed start",
+			uuid:            "test-project-green",
+			yaml:            "services: {}",
+			failUp:          true,
+			expectedStatus:  1,
+			expectedMessage: "Failed to start project",
+			expectUp:        true,
+			expectRemoved:   true,
+		},
+		{
+			name:            "unhealthy slot",
+			uuid:            "test-project-green",
+			yaml:            "services: {}",
+			status:          statusOf(executor.ServiceStatus{Name: "web", State: "running", Health: "unhealthy"}),
+			expectedStatus:  1,
+			expectedMessage: "Project did not become healthy",
+			expectUp:        true,
+			expectRemoved:   true,
+		},
+		{
+			name:            "invalid project",
+			uuid:            "test/project",
+			yaml:            "services: {}",
+			expectedStatus:  1,
+			expectedMessage: ErrUUIDPathSeparators.Error(),
+		},
+		{
+			name:            "empty compose file",
+			uuid:            "test-project-green",
+			yaml:            "",
+			expectedStatus:  1,
+			expectedMessage: "Compose YAML is required",
+		},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			mock := executor.NewMockDockerExecutor()
+			mock.ShouldFailUp = tt.failUp
+			if tt.status != nil {
+				mock.StatusResponse = tt.status
+			}
+
+			result := newTestService(mock).startHealthy(context.Background(), tt.uuid, tt.yaml, 1)
+
+			assert.Equal(t, tt.expectedStatus, result.Status)
+			assert.Equal(t, tt.expectedMessage, result.Message)
+			if tt.expectUp {
+				assert.Equal(t, []string{tt.uuid}, mock.UpProjects)
+			} else {
+				assert.Empty(t, mock.UpProjects)
+			}
+			if tt.expectRemoved {
+				assert.Equal(t, []string{tt.uuid}, mock.DownProjects)
+			} else {
+				assert.Empty(t, mock.DownProjects)
+			}
+		})
+	}
+}
@@ -4,35 +4,64 @@ import (
 	"context"
 	"fmt"
 	"strings"
+	"sync"
 
 	pb "github.com/shipkit/docker-control/proto"
 	"go.uber.org/zap"
 )
 
+// maxParallelStatusLookups bounds how many compose status lookups a single GetStatuses call runs at once.
+const maxParallelStatusLookups = 8
+
 func (s *DockerControlService) GetStatus(ctx context.Context, req *pb.GetStatusRequest) (*pb.AppStatus, error) {
-	_, err := s.deploymentPath(req.Uuid)
+	s.logger.Info("Getting status", zap.String("uuid", req.Uuid))
+	return s.appStatus(ctx, req.Uuid), nil
+}
+
+// GetStatuses answers GetStatus for many apps in one call. Statuses are returned in request order;
+// per-app failures are reported inside the corresponding AppStatus like GetStatus does.
+func (s *DockerControlService) GetStatuses(ctx context.Context, req *pb.GetStatusesRequest) (*pb.GetStatusesResponse, error) {
+	s.logger.Info("Getting statuses", zap.Int("count", len(req.Uuids)))
+
+	statuses := make([]*pb.AppStatus, len(req.Uuids))
+	sem := make(chan struct{}, maxParallelStatusLookups)
+	var wg sync.WaitGroup
+	for i, uuid := range req.Uuids {
+		wg.Add(1)
+		sem <- struct{}{}
+		go func(i int, uuid string) {
+			defer wg.Done()
+			defer func() { <-sem }()
+			statuses[i] = s.appStatus(ctx, uuid)
+		}(i, uuid)
+	}
+	wg.Wait()
+
+	return &pb.GetStatusesResponse{Statuses: statuses}, nil
+}
+
+func (s *DockerControlService) appStatus(ctx context.Context, uuid string) *pb.AppStatus {
+	_, err := s.deploymentPath(uuid)
 	if err != nil {
 		return &pb.AppStatus{
-			Uuid:    req.Uuid,
+			Uuid:    uuid,
 			State:   pb.AppState_ERROR,
 			Message: err.Error(),
 			Status:  1,
-		}, nil
+		}
 	}
 
-	s.logger.Info("Getting status", zap.String("uuid", req.Uuid))
-
-	status, err := s.executor.ComposeStatus(ctx, req.Uuid)
+	status, err := s.executor.ComposeStatus(ctx, uuid)
 	if err != nil {
 		s.logger.Error("Failed to get status",
-			zap.String("uuid", req.Uuid),
+			zap.String("uuid", uuid),
 			zap.Error(err))
 		return &pb.AppStatus{
-			Uuid:    req.Uuid,
+			Uuid:    uuid,
 			State:   pb.AppState_ERROR,
 			Message: fmt.Sprintf("Failed to get status: %v", err),
 			Status:  1,
-		}, nil
+		}
 	}
 
 	var containers []*pb.ContainerStatus
@@ -57,10 +86,10 @@ func (s *DockerControlService) GetStatus(ctx context.Context, req *pb.GetStatusR
 	}
 
 	return &pb.AppStatus{
-		Uuid:       req.Uuid,
+		Uuid:       uuid,
 		State:      appState,
 		Containers: containers,
 		Message:    "Status retrieved successfully",
 		Status:     0,
-	}, nil
+	}
 }
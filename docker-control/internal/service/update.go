@@ -0,0 +1,71 @@
+package service
+
+import (
+	"context"
+	"errors"
+	"fmt"
+
+	pb "github.com/shipkit/docker-control/proto"
+	"go.uber.org/zap"
+)
+
+// UpdateCompose applies a changed compose file to a running project. Unlike StopApp followed by StartCompose
+// the project keeps running: only the requested services are recreated, and a failed update leaves the
+// previous containers in place instead of tearing the project down.
+func (s *DockerControlService) UpdateCompose(stream pb.DockerControlService_UpdateComposeServer) error {
+	first, yaml, err := receiveCompose(stream.Recv, (*pb.UpdateComposeRequest).GetComposeChunk)
+	if errors.Is(err, errComposeTooLarge) {
+		return stream.SendAndClose(composeTooLarge())
+	}
+	if err != nil {
+		return err
+	}
+
+	result := s.updateCompose(stream.Context(), first.GetUuid(), yaml, first.GetServices())
+	return stream.SendAndClose(result)
+}
+
+func (s *DockerControlService) updateCompose(ctx context.Context, uuid string, yaml string, services []string) *pb.ActionResult {
+	_, err := s.deploymentPath(uuid)
+	if err != nil {
+		return &pb.ActionResult{
+			Status:  1,
+			Message: err.Error(),
+			Details: "UUID validation failed",
+		}
+	}
+
+	if yaml == "" {
+		return &pb.ActionResult{
+			Status:  1,
+			Message: "Compose YAML is required",
+			Details: "Empty compose file",
+		}
+	}
+
+	s.logger.Info("Updating compose", zap.String("uuid", uuid), zap.Strings("services", services))
+
+	if err := s.executor.ComposeUpdate(ctx, uuid, yaml, services); err != nil {
+		s.logger.Error("Failed to update compose",
+			zap.String("uuid", uuid),
+			zap.Error(err))
+
+		return &pb.ActionResult{
+			Status:  1,
+			Message: "Failed to update compose",
+			Details: err.Error(),
+		}
+	}
+
+	details := fmt.Sprintf("Project %s is up to date", uuid)
+	if len(services) > 0 {
+		details = fmt.Sprintf("Recreated %d service(s) of project %s", len(services), uuid)
+	}
+
+	s.logger.Info("Successfully updated compose", zap.String("uuid", uuid))
+	return &pb.ActionResult{
+		Status:  0,
+		Message: "Compose updated successfully",
+		Details: details,
+	}
+}
@@ -0,0 +1,53 @@
+package service
+
+import (
+	"context"
+	"testing"
+
+	"github.com/shipkit/docker-control/internal/executor"
+	"github.com/stretchr/testify/assert"
+)
+
+func TestUpdateCompose(t *testing.T) {
+	tests := []struct {
+		name            string
+		services        []string
+		failUpdate      bool
+		expectedStatus  int32
+		expectedDetails string
+	}{
+		{
+			name:            "selected services",
+			services:        []string{"web", "worker"},
+			expectedStatus:  0,
+			expectedDetails: "Recreated 2 service(s) of project test-project",
+		},
+		{
+			name:            "whole project",
+			services:        nil,
+			expectedStatus:  0,
+			expectedDetails: "Project test-project is up to date",
+		},
+		{
+			name:            "failed update",
+			services:        []string{"web"},
+			failUpdate:      true,
+			expectedStatus:  1,
+			expectedDetails: "mock compose update failed",
+		},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			mock := executor.NewMockDockerExecutor()
+			mock.ShouldFailUp = tt.failUpdate
+
+			result := newTestService(mock).updateCompose(context.Background(), "test-project", "services: {}", tt.services)
+
+			assert.Equal(t, tt.expectedStatus, result.Status)
+			assert.Equal(t, tt.expectedDetails, result.Details)
+			assert.Equal(t, tt.services, mock.UpdatedServices)
+			assert.Empty(t, mock.DownProjects, "a failed update must leave the running containers in place")
+		})
+	}
+}
@@ -0,0 +1,40 @@
+package service
+
+import (
+	"time"
+
+	pb "github.com/shipkit/docker-control/proto"
+	"go.uber.org/zap"
+	"google.golang.org/protobuf/proto"
+)
+
+// watchStatusInterval is how often WatchStatus checks the compose project for changes.
+const watchStatusInterval = 2 * time.Second
+
+// WatchStatus sends the current app status immediately and afterwards only when it changes,
+// until the client cancels the stream.
+func (s *DockerControlService) WatchStatus(req *pb.WatchStatusRequest, stream pb.DockerControlService_WatchStatusServer) error {
+	ctx := stream.Context()
+	s.logger.Info("Watching status", zap.String("uuid", req.Uuid))
+
+	ticker := time.NewTicker(watchStatusInterval)
+	defer ticker.Stop()
+
+	var last *pb.AppStatus
+	for {
+		current := s.appStatus(ctx, req.Uuid)
+		if last == nil || !proto.Equal(last, current) {
+			if err := stream.Send(current); err != nil {
+				return err
+			}
+			last = current
+		}
+
+		select {
+		case <-ctx.Done():
+			s.logger.Info("Stopped watching status", zap.String("uuid", req.Uuid))
+			return nil
+		case <-ticker.C:
+		}
+	}
+}
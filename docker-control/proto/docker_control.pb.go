@@ -131,6 +131,298 @@ func (x *StartComposeRequest) GetComposeYaml() string {
 	return ""
 }
 
+type ComposeChunk struct {
+	state         protoimpl.MessageState `protogen:"open.v1"`
+	Uuid          string                 `protobuf:"bytes,1,opt,name=uuid,proto3" json:"uuid,omitempty"`
+	Data          []byte                 `protobuf:"bytes,2,opt,name=data,proto3" json:"data,omitempty"`
+	unknownFields protoimpl.UnknownFields
+	sizeCache     protoimpl.SizeCache
+}
+
+func (x *ComposeChunk) Reset() {
+	*x = ComposeChunk{}
+	mi := &file_proto_docker_control_proto_msgTypes[1]
+	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+	ms.StoreMessageInfo(mi)
+}
+
+func (x *ComposeChunk) String() string {
+	return protoimpl.X.MessageStringOf(x)
+}
+
+func (*ComposeChunk) ProtoMessage() {}
+
+func (x *ComposeChunk) ProtoReflect() protoreflect.Message {
+	mi := &file_proto_docker_control_proto_msgTypes[1]
+	if x != nil {
+		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+		if ms.LoadMessageInfo() == nil {
+			ms.StoreMessageInfo(mi)
+		}
+		return ms
+	}
+	return mi.MessageOf(x)
+}
+
+// Deprecated: Use ComposeChunk.ProtoReflect.Descriptor instead.
+func (*ComposeChunk) Descriptor() ([]byte, []int) {
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{1}
+}
+
+func (x *ComposeChunk) GetUuid() string {
+	if x != nil {
+		return x.Uuid
+	}
+	return ""
+}
+
+func (x *ComposeChunk) GetData() []byte {
+	if x != nil {
+		return x.Data
+	}
+	return nil
+}
+
+type UpdateComposeRequest struct {
+	state         protoimpl.MessageState `protogen:"open.v1"`
+	Uuid          string                 `protobuf:"bytes,1,opt,name=uuid,proto3" json:"uuid,omitempty"`
+	ComposeChunk  []byte                 `protobuf:"bytes,2,opt,name=compose_chunk,json=composeChunk,proto3" json:"compose_chunk,omitempty"`
+	Services      []string               `protobuf:"bytes,3,rep,name=services,proto3" json:"services,omitempty"`
+	unknownFields protoimpl.UnknownFields
+	sizeCache     protoimpl.SizeCache
+}
+
+func (x *UpdateComposeRequest) Reset() {
+	*x = UpdateComposeRequest{}
+	mi := &file_proto_docker_control_proto_msgTypes[2]
+	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+	ms.StoreMessageInfo(mi)
+}
+
+func (x *UpdateComposeRequest) String() string {
+	return protoimpl.X.MessageStringOf(x)
+}
+
+func (*UpdateComposeRequest) ProtoMessage() {}
+
+func (x *UpdateComposeRequest) ProtoReflect() protoreflect.Message {
+	mi := &file_proto_docker_control_proto_msgTypes[2]
+	if x != nil {
+		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+		if ms.LoadMessageInfo() == nil {
+			ms.StoreMessageInfo(mi)
+		}
+		return ms
+	}
+	return mi.MessageOf(x)
+}
+
+// Deprecated: Use UpdateComposeRequest.ProtoReflect.Descriptor instead.
+func (*UpdateComposeRequest) Descriptor() ([]byte, []int) {
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{2}
+}
+
+func (x *UpdateComposeRequest) GetUuid() string {
+	if x != nil {
+		return x.Uuid
+	}
+	return ""
+}
+
+func (x *UpdateComposeRequest) GetComposeChunk() []byte {
+	if x != nil {
+		return x.ComposeChunk
+	}
+	return nil
+}
+
+func (x *UpdateComposeRequest) GetServices() []string {
+	if x != nil {
+		return x.Services
+	}
+	return nil
+}
+
+type StartHealthyRequest struct {
+	state                protoimpl.MessageState `protogen:"open.v1"`
+	Uuid                 string                 `protobuf:"bytes,1,opt,name=uuid,proto3" json:"uuid,omitempty"`
+	ComposeChunk         []byte                 `protobuf:"bytes,2,opt,name=compose_chunk,json=composeChunk,proto3" json:"compose_chunk,omitempty"`
+	HealthTimeoutSeconds int32                  `protobuf:"varint,3,opt,name=health_timeout_seconds,json=healthTimeoutSeconds,proto3" json:"health_timeout_seconds,omitempty"`
+	unknownFields        protoimpl.UnknownFields
+	sizeCache            protoimpl.SizeCache
+}
+
+func (x *StartHealthyRequest) Reset() {
+	*x = StartHealthyRequest{}
+	mi := &file_proto_docker_control_proto_msgTypes[3]
+	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+	ms.StoreMessageInfo(mi)
+}
+
+func (x *StartHealthyRequest) String() string {
+	return protoimpl.X.MessageStringOf(x)
+}
+
+func (*StartHealthyRequest) ProtoMessage() {}
+
+func (x *StartHealthyRequest) ProtoReflect() protoreflect.Message {
+	mi := &file_proto_docker_control_proto_msgTypes[3]
+	if x != nil {
+		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+		if ms.LoadMessageInfo() == nil {
+			ms.StoreMessageInfo(mi)
+		}
+		return ms
+	}
+	return mi.MessageOf(x)
+}
+
+// Deprecated: Use StartHealthyRequest.ProtoReflect.Descriptor instead.
+func (*StartHealthyRequest) Descriptor() ([]byte, []int) {
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{3}
+}
+
+func (x *StartHealthyRequest) GetUuid() string {
+	if x != nil {
+		return x.Uuid
+	}
+	return ""
+}
+
+func (x *StartHealthyRequest) GetComposeChunk() []byte {
+	if x != nil {
+		return x.ComposeChunk
+	}
+	return nil
+}
+
+func (x *StartHealthyRequest) GetHealthTimeoutSeconds() int32 {
+	if x != nil {
+		return x.HealthTimeoutSeconds
+	}
+	return 0
+}
+
+type PullImagesRequest struct {
+	state         protoimpl.MessageState `protogen:"open.v1"`
+	Uuid          string                 `protobuf:"bytes,1,opt,name=uuid,proto3" json:"uuid,omitempty"`
+	ComposeChunk  []byte                 `protobuf:"bytes,2,opt,name=compose_chunk,json=composeChunk,proto3" json:"compose_chunk,omitempty"`
+	unknownFields protoimpl.UnknownFields
+	sizeCache     protoimpl.SizeCache
+}
+
+func (x *PullImagesRequest) Reset() {
+	*x = PullImagesRequest{}
+	mi := &file_proto_docker_control_proto_msgTypes[4]
+	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+	ms.StoreMessageInfo(mi)
+}
+
+func (x *PullImagesRequest) String() string {
+	return protoimpl.X.MessageStringOf(x)
+}
+
+func (*PullImagesRequest) ProtoMessage() {}
+
+func (x *PullImagesRequest) ProtoReflect() protoreflect.Message {
+	mi := &file_proto_docker_control_proto_msgTypes[4]
+	if x != nil {
+		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+		if ms.LoadMessageInfo() == nil {
+			ms.StoreMessageInfo(mi)
+		}
+		return ms
+	}
+	return mi.MessageOf(x)
+}
+
+// Deprecated: Use PullImagesRequest.ProtoReflect.Descriptor instead.
+func (*PullImagesRequest) Descriptor() ([]byte, []int) {
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{4}
+}
+
+func (x *PullImagesRequest) GetUuid() string {
+	if x != nil {
+		return x.Uuid
+	}
+	return ""
+}
+
+func (x *PullImagesRequest) GetComposeChunk() []byte {
+	if x != nil {
+		return x.ComposeChunk
+	}
+	return nil
+}
+
+type PullImagesProgress struct {
+	state         protoimpl.MessageState `protogen:"open.v1"`
+	Image         string                 `protobuf:"bytes,1,opt,name=image,proto3" json:"image,omitempty"`
+	Pulled        int32                  `protobuf:"varint,2,opt,name=pulled,proto3" json:"pulled,omitempty"`
+	Total         int32                  `protobuf:"varint,3,opt,name=total,proto3" json:"total,omitempty"`
+	Error         string                 `protobuf:"bytes,4,opt,name=error,proto3" json:"error,omitempty"`
+	unknownFields protoimpl.UnknownFields
+	sizeCache     protoimpl.SizeCache
+}
+
+func (x *PullImagesProgress) Reset() {
+	*x = PullImagesProgress{}
+	mi := &file_proto_docker_control_proto_msgTypes[5]
+	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+	ms.StoreMessageInfo(mi)
+}
+
+func (x *PullImagesProgress) String() string {
+	return protoimpl.X.MessageStringOf(x)
+}
+
+func (*PullImagesProgress) ProtoMessage() {}
+
+func (x *PullImagesProgress) ProtoReflect() protoreflect.Message {
+	mi := &file_proto_docker_control_proto_msgTypes[5]
+	if x != nil {
+		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+		if ms.LoadMessageInfo() == nil {
+			ms.StoreMessageInfo(mi)
+		}
+		return ms
+	}
+	return mi.MessageOf(x)
+}
+
+// Deprecated: Use PullImagesProgress.ProtoReflect.Descriptor instead.
+func (*PullImagesProgress) Descriptor() ([]byte, []int) {
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{5}
+}
+
+func (x *PullImagesProgress) GetImage() string {
+	if x != nil {
+		return x.Image
+	}
+	return ""
+}
+
+func (x *PullImagesProgress) GetPulled() int32 {
+	if x != nil {
+		return x.Pulled
+	}
+	return 0
+}
+
+func (x *PullImagesProgress) GetTotal() int32 {
+	if x != nil {
+		return x.Total
+	}
+	return 0
+}
+
+func (x *PullImagesProgress) GetError() string {
+	if x != nil {
+		return x.Error
+	}
+	return ""
+}
+
 type StopAppRequest struct {
 	state         protoimpl.MessageState `protogen:"open.v1"`
 	Uuid          string                 `protobuf:"bytes,1,opt,name=uuid,proto3" json:"uuid,omitempty"`
@@ -140,7 +432,7 @@ type StopAppRequest struct {
 
 func (x *StopAppRequest) Reset() {
 	*x = StopAppRequest{}
-	mi := &file_proto_docker_control_proto_msgTypes[1]
+	mi := &file_proto_docker_control_proto_msgTypes[6]
 	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 	ms.StoreMessageInfo(mi)
 }
@@ -152,7 +444,7 @@ func (x *StopAppRequest) String() string {
 func (*StopAppRequest) ProtoMessage() {}
 
 func (x *StopAppRequest) ProtoReflect() protoreflect.Message {
-	mi := &file_proto_docker_control_proto_msgTypes[1]
+	mi := &file_proto_docker_control_proto_msgTypes[6]
 	if x != nil {
 		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 		if ms.LoadMessageInfo() == nil {
@@ -165,7 +457,7 @@ func (x *StopAppRequest) ProtoReflect() protoreflect.Message {
 
 // Deprecated: Use StopAppRequest.ProtoReflect.Descriptor instead.
 func (*StopAppRequest) Descriptor() ([]byte, []int) {
-	return file_proto_docker_control_proto_rawDescGZIP(), []int{1}
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{6}
 }
 
 func (x *StopAppRequest) GetUuid() string {
@@ -184,7 +476,7 @@ type GetStatusRequest struct {
 
 func (x *GetStatusRequest) Reset() {
 	*x = GetStatusRequest{}
-	mi := &file_proto_docker_control_proto_msgTypes[2]
+	mi := &file_proto_docker_control_proto_msgTypes[7]
 	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 	ms.StoreMessageInfo(mi)
 }
@@ -196,7 +488,7 @@ func (x *GetStatusRequest) String() string {
 func (*GetStatusRequest) ProtoMessage() {}
 
 func (x *GetStatusRequest) ProtoReflect() protoreflect.Message {
-	mi := &file_proto_docker_control_proto_msgTypes[2]
+	mi := &file_proto_docker_control_proto_msgTypes[7]
 	if x != nil {
 		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 		if ms.LoadMessageInfo() == nil {
@@ -209,7 +501,7 @@ func (x *GetStatusRequest) ProtoReflect() protoreflect.Message {
 
 // Deprecated: Use GetStatusRequest.ProtoReflect.Descriptor instead.
 func (*GetStatusRequest) Descriptor() ([]byte, []int) {
-	return file_proto_docker_control_proto_rawDescGZIP(), []int{2}
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{7}
 }
 
 func (x *GetStatusRequest) GetUuid() string {
@@ -219,6 +511,138 @@ func (x *GetStatusRequest) GetUuid() string {
 	return ""
 }
 
+type GetStatusesRequest struct {
+	state         protoimpl.MessageState `protogen:"open.v1"`
+	Uuids         []string               `protobuf:"bytes,1,rep,name=uuids,proto3" json:"uuids,omitempty"`
+	unknownFields protoimpl.UnknownFields
+	sizeCache     protoimpl.SizeCache
+}
+
+func (x *GetStatusesRequest) Reset() {
+	*x = GetStatusesRequest{}
+	mi := &file_proto_docker_control_proto_msgTypes[8]
+	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+	ms.StoreMessageInfo(mi)
+}
+
+func (x *GetStatusesRequest) String() string {
+	return protoimpl.X.MessageStringOf(x)
+}
+
+func (*GetStatusesRequest) ProtoMessage() {}
+
+func (x *GetStatusesRequest) ProtoReflect() protoreflect.Message {
+	mi := &file_proto_docker_control_proto_msgTypes[8]
+	if x != nil {
+		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+		if ms.LoadMessageInfo() == nil {
+			ms.StoreMessageInfo(mi)
+		}
+		return ms
+	}
+	return mi.MessageOf(x)
+}
+
+// Deprecated: Use GetStatusesRequest.ProtoReflect.Descriptor instead.
+func (*GetStatusesRequest) Descriptor() ([]byte, []int) {
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{8}
+}
+
+func (x *GetStatusesRequest) GetUuids() []string {
+	if x != nil {
+		return x.Uuids
+	}
+	return nil
+}
+
+type GetStatusesResponse struct {
+	state         protoimpl.MessageState `protogen:"open.v1"`
+	Statuses      []*AppStatus           `protobuf:"bytes,1,rep,name=statuses,proto3" json:"statuses,omitempty"`
+	unknownFields protoimpl.UnknownFields
+	sizeCache     protoimpl.SizeCache
+}
+
+func (x *GetStatusesResponse) Reset() {
+	*x = GetStatusesResponse{}
+	mi := &file_proto_docker_control_proto_msgTypes[9]
+	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+	ms.StoreMessageInfo(mi)
+}
+
+func (x *GetStatusesResponse) String() string {
+	return protoimpl.X.MessageStringOf(x)
+}
+
+func (*GetStatusesResponse) ProtoMessage() {}
+
+func (x *GetStatusesResponse) ProtoReflect() protoreflect.Message {
+	mi := &file_proto_docker_control_proto_msgTypes[9]
+	if x != nil {
+		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+		if ms.LoadMessageInfo() == nil {
+			ms.StoreMessageInfo(mi)
+		}
+		return ms
+	}
+	return mi.MessageOf(x)
+}
+
+// Deprecated: Use GetStatusesResponse.ProtoReflect.Descriptor instead.
+func (*GetStatusesResponse) Descriptor() ([]byte, []int) {
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{9}
+}
+
+func (x *GetStatusesResponse) GetStatuses() []*AppStatus {
+	if x != nil {
+		return x.Statuses
+	}
+	return nil
+}
+
+type WatchStatusRequest struct {
+	state         protoimpl.MessageState `protogen:"open.v1"`
+	Uuid          string                 `protobuf:"bytes,1,opt,name=uuid,proto3" json:"uuid,omitempty"`
+	unknownFields protoimpl.UnknownFields
+	sizeCache     protoimpl.SizeCache
+}
+
+func (x *WatchStatusRequest) Reset() {
+	*x = WatchStatusRequest{}
+	mi := &file_proto_docker_control_proto_msgTypes[10]
+	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+	ms.StoreMessageInfo(mi)
+}
+
+func (x *WatchStatusRequest) String() string {
+	return protoimpl.X.MessageStringOf(x)
+}
+
+func (*WatchStatusRequest) ProtoMessage() {}
+
+func (x *WatchStatusRequest) ProtoReflect() protoreflect.Message {
+	mi := &file_proto_docker_control_proto_msgTypes[10]
+	if x != nil {
+		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+		if ms.LoadMessageInfo() == nil {
+			ms.StoreMessageInfo(mi)
+		}
+		return ms
+	}
+	return mi.MessageOf(x)
+}
+
+// Deprecated: Use WatchStatusRequest.ProtoReflect.Descriptor instead.
+func (*WatchStatusRequest) Descriptor() ([]byte, []int) {
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{10}
+}
+
+func (x *WatchStatusRequest) GetUuid() string {
+	if x != nil {
+		return x.Uuid
+	}
+	return ""
+}
+
 type ActionResult struct {
 	state         protoimpl.MessageState `protogen:"open.v1"`
 	Status        int32                  `protobuf:"varint,1,opt,name=status,proto3" json:"status,omitempty"`
@@ -230,7 +654,7 @@ type ActionResult struct {
 
 func (x *ActionResult) Reset() {
 	*x = ActionResult{}
-	mi := &file_proto_docker_control_proto_msgTypes[3]
+	mi := &file_proto_docker_control_proto_msgTypes[11]
 	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 	ms.StoreMessageInfo(mi)
 }
@@ -242,7 +666,7 @@ func (x *ActionResult) String() string {
 func (*ActionResult) ProtoMessage() {}
 
 func (x *ActionResult) ProtoReflect() protoreflect.Message {
-	mi := &file_proto_docker_control_proto_msgTypes[3]
+	mi := &file_proto_docker_control_proto_msgTypes[11]
 	if x != nil {
 		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 		if ms.LoadMessageInfo() == nil {
@@ -255,7 +679,7 @@ func (x *ActionResult) ProtoReflect() protoreflect.Message {
 
 // Deprecated: Use ActionResult.ProtoReflect.Descriptor instead.
 func (*ActionResult) Descriptor() ([]byte, []int) {
-	return file_proto_docker_control_proto_rawDescGZIP(), []int{3}
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{11}
 }
 
 func (x *ActionResult) GetStatus() int32 {
@@ -292,7 +716,7 @@ type AppStatus struct {
 
 func (x *AppStatus) Reset() {
 	*x = AppStatus{}
-	mi := &file_proto_docker_control_proto_msgTypes[4]
+	mi := &file_proto_docker_control_proto_msgTypes[12]
 	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 	ms.StoreMessageInfo(mi)
 }
@@ -304,7 +728,7 @@ func (x *AppStatus) String() string {
 func (*AppStatus) ProtoMessage() {}
 
 func (x *AppStatus) ProtoReflect() protoreflect.Message {
-	mi := &file_proto_docker_control_proto_msgTypes[4]
+	mi := &file_proto_docker_control_proto_msgTypes[12]
 	if x != nil {
 		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 		if ms.LoadMessageInfo() == nil {
@@ -317,7 +741,7 @@ func (x *AppStatus) ProtoReflect() protoreflect.Message {
 
 // Deprecated: Use AppStatus.ProtoReflect.Descriptor instead.
 func (*AppStatus) Descriptor() ([]byte, []int) {
-	return file_proto_docker_control_proto_rawDescGZIP(), []int{4}
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{12}
 }
 
 func (x *AppStatus) GetUuid() string {
@@ -367,7 +791,7 @@ type ContainerStatus struct {
 
 func (x *ContainerStatus) Reset() {
 	*x = ContainerStatus{}
-	mi := &file_proto_docker_control_proto_msgTypes[5]
+	mi := &file_proto_docker_control_proto_msgTypes[13]
 	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 	ms.StoreMessageInfo(mi)
 }
@@ -379,7 +803,7 @@ func (x *ContainerStatus) String() string {
 func (*ContainerStatus) ProtoMessage() {}
 
 func (x *ContainerStatus) ProtoReflect() protoreflect.Message {
-	mi := &file_proto_docker_control_proto_msgTypes[5]
+	mi := &file_proto_docker_control_proto_msgTypes[13]
 	if x != nil {
 		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 		if ms.LoadMessageInfo() == nil {
@@ -392,7 +816,7 @@ func (x *ContainerStatus) ProtoReflect() protoreflect.Message {
 
 // Deprecated: Use ContainerStatus.ProtoReflect.Descriptor instead.
 func (*ContainerStatus) Descriptor() ([]byte, []int) {
-	return file_proto_docker_control_proto_rawDescGZIP(), []int{5}
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{13}
 }
 
 func (x *ContainerStatus) GetName() string {
@@ -423,6 +847,50 @@ func (x *ContainerStatus) GetPorts() []string {
 	return nil
 }
 
+type TestNginxConfigRequest struct {
+	state         protoimpl.MessageState `protogen:"open.v1"`
+	ContainerName string                 `protobuf:"bytes,1,opt,name=container_name,json=containerName,proto3" json:"container_name,omitempty"`
+	unknownFields protoimpl.UnknownFields
+	sizeCache     protoimpl.SizeCache
+}
+
+func (x *TestNginxConfigRequest) Reset() {
+	*x = TestNginxConfigRequest{}
+	mi := &file_proto_docker_control_proto_msgTypes[14]
+	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+	ms.StoreMessageInfo(mi)
+}
+
+func (x *TestNginxConfigRequest) String() string {
+	return protoimpl.X.MessageStringOf(x)
+}
+
+func (*TestNginxConfigRequest) ProtoMessage() {}
+
+func (x *TestNginxConfigRequest) ProtoReflect() protoreflect.Message {
+	mi := &file_proto_docker_control_proto_msgTypes[14]
+	if x != nil {
+		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
+		if ms.LoadMessageInfo() == nil {
+			ms.StoreMessageInfo(mi)
+		}
+		return ms
+	}
+	return mi.MessageOf(x)
+}
+
+// Deprecated: Use TestNginxConfigRequest.ProtoReflect.Descriptor instead.
+func (*TestNginxConfigRequest) Descriptor() ([]byte, []int) {
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{14}
+}
+
+func (x *TestNginxConfigRequest) GetContainerName() string {
+	if x != nil {
+		return x.ContainerName
+	}
+	return ""
+}
+
 type ReloadNginxRequest struct {
 	state         protoimpl.MessageState `protogen:"open.v1"`
 	ContainerName string                 `protobuf:"bytes,1,opt,name=container_name,json=containerName,proto3" json:"container_name,omitempty"`
@@ -432,7 +900,7 @@ type ReloadNginxRequest struct {
 
 func (x *ReloadNginxRequest) Reset() {
 	*x = ReloadNginxRequest{}
-	mi := &file_proto_docker_control_proto_msgTypes[6]
+	mi := &file_proto_docker_control_proto_msgTypes[15]
 	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 	ms.StoreMessageInfo(mi)
 }
@@ -444,7 +912,7 @@ func (x *ReloadNginxRequest) String() string {
 func (*ReloadNginxRequest) ProtoMessage() {}
 
 func (x *ReloadNginxRequest) ProtoReflect() protoreflect.Message {
-	mi := &file_proto_docker_control_proto_msgTypes[6]
+	mi := &file_proto_docker_control_proto_msgTypes[15]
 	if x != nil {
 		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 		if ms.LoadMessageInfo() == nil {
@@ -457,7 +925,7 @@ func (x *ReloadNginxRequest) ProtoReflect() protoreflect.Message {
 
 // Deprecated: Use ReloadNginxRequest.ProtoReflect.Descriptor instead.
 func (*ReloadNginxRequest) Descriptor() ([]byte, []int) {
-	return file_proto_docker_control_proto_rawDescGZIP(), []int{6}
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{15}
 }
 
 func (x *ReloadNginxRequest) GetContainerName() string {
@@ -476,7 +944,7 @@ type IssueCertificateRequest struct {
 
 func (x *IssueCertificateRequest) Reset() {
 	*x = IssueCertificateRequest{}
-	mi := &file_proto_docker_control_proto_msgTypes[7]
+	mi := &file_proto_docker_control_proto_msgTypes[16]
 	ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 	ms.StoreMessageInfo(mi)
 }
@@ -488,7 +956,7 @@ func (x *IssueCertificateRequest) String() string {
 func (*IssueCertificateRequest) ProtoMessage() {}
 
 func (x *IssueCertificateRequest) ProtoReflect() protoreflect.Message {
-	mi := &file_proto_docker_control_proto_msgTypes[7]
+	mi := &file_proto_docker_control_proto_msgTypes[16]
 	if x != nil {
 		ms := protoimpl.X.MessageStateOf(protoimpl.Pointer(x))
 		if ms.LoadMessageInfo() == nil {
@@ -501,7 +969,7 @@ func (x *IssueCertificateRequest) ProtoReflect() protoreflect.Message {
 
 // Deprecated: Use IssueCertificateRequest.ProtoReflect.Descriptor instead.
 func (*IssueCertificateRequest) Descriptor() ([]byte, []int) {
-	return file_proto_docker_control_proto_rawDescGZIP(), []int{7}
+	return file_proto_docker_control_proto_rawDescGZIP(), []int{16}
 }
 
 func (x *IssueCertificateRequest) GetDomain() string {
@@ -518,10 +986,35 @@ const file_proto_docker_control_proto_rawDesc = "" +
 	"\x1aproto/docker_control.proto\x12\x0edocker_control\"L\n" +
 	"\x13StartComposeRequest\x12\x12\n" +
 	"\x04uuid\x18\x01 \x01(\tR\x04uuid\x12!\n" +
-	"\fcompose_yaml\x18\x02 \x01(\tR\vcomposeYaml\"$\n" +
+	"\fcompose_yaml\x18\x02 \x01(\tR\vcomposeYaml\"6\n" +
+	"\fComposeChunk\x12\x12\n" +
+	"\x04uuid\x18\x01 \x01(\tR\x04uuid\x12\x12\n" +
+	"\x04data\x18\x02 \x01(\fR\x04data\"k\n" +
+	"\x14UpdateComposeRequest\x12\x12\n" +
+	"\x04uuid\x18\x01 \x01(\tR\x04uuid\x12#\n" +
+	"\rcompose_chunk\x18\x02 \x01(\fR\fcomposeChunk\x12\x1a\n" +
+	"\bservices\x18\x03 \x03(\tR\bservices\"\x84\x01\n" +
+	"\x13StartHealthyRequest\x12\x12\n" +
+	"\x04uuid\x18\x01 \x01(\tR\x04uuid\x12#\n" +
+	"\rcompose_chunk\x18\x02 \x01(\fR\fcomposeChunk\x124\n" +
+	"\x16health_timeout_seconds\x18\x03 \x01(\x05R\x14healthTimeoutSeconds\"L\n" +
+	"\x11PullImagesRequest\x12\x12\n" +
+	"\x04uuid\x18\x01 \x01(\tR\x04uuid\x12#\n" +
+	"\rcompose_chunk\x18\x02 \x01(\fR\fcomposeChunk\"n\n" +
+	"\x12PullImagesProgress\x12\x14\n" +
+	"\x05image\x18\x01 \x01(\tR\x05image\x12\x16\n" +
+	"\x06pulled\x18\x02 \x01(\x05R\x06pulled\x12\x14\n" +
+	"\x05total\x18\x03 \x01(\x05R\x05total\x12\x14\n" +
+	"\x05error\x18\x04 \x01(\tR\x05error\"$\n" +
 	"\x0eStopAppRequest\x12\x12\n" +
 	"\x04uuid\x18\x01 \x01(\tR\x04uuid\"&\n" +
 	"\x10GetStatusRequest\x12\x12\n" +
+	"\x04uuid\x18\x01 \x01(\tR\x04uuid\"*\n" +
+	"\x12GetStatusesRequest\x12\x14\n" +
+	"\x05uuids\x18\x01 \x03(\tR\x05uuids\"L\n" +
+	"\x13GetStatusesResponse\x125\n" +
+	"\bstatuses\x18\x01 \x03(\v2\x19.docker_control.AppStatusR\bstatuses\"(\n" +
+	"\x12WatchStatusRequest\x12\x12\n" +
 	"\x04uuid\x18\x01 \x01(\tR\x04uuid\"Z\n" +
 	"\fActionResult\x12\x16\n" +
 	"\x06status\x18\x01 \x01(\x05R\x06status\x12\x18\n" +
@@ -539,7 +1032,9 @@ const file_proto_docker_control_proto_rawDesc = "" +
 	"\x04name\x18\x01 \x01(\tR\x04name\x12\x14\n" +
 	"\x05state\x18\x02 \x01(\tR\x05state\x12\x16\n" +
 	"\x06health\x18\x03 \x01(\tR\x06health\x12\x14\n" +
-	"\x05ports\x18\x04 \x03(\tR\x05ports\";\n" +
+	"\x05ports\x18\x04 \x03(\tR\x05ports\"?\n" +
+	"\x16TestNginxConfigRequest\x12%\n" +
+	"\x0econtainer_name\x18\x01 \x01(\tR\rcontainerName\";\n" +
 	"\x12ReloadNginxRequest\x12%\n" +
 	"\x0econtainer_name\x18\x01 \x01(\tR\rcontainerName\"1\n" +
 	"\x17IssueCertificateRequest\x12\x16\n" +
@@ -550,11 +1045,19 @@ const file_proto_docker_control_proto_rawDesc = "" +
 	"\aSTOPPED\x10\x02\x12\f\n" +
 	"\bSTARTING\x10\x03\x12\f\n" +
 	"\bSTOPPING\x10\x04\x12\t\n" +
-	"\x05ERROR\x10\x052\xa8\x03\n" +
+	"\x05ERROR\x10\x052\x82\b\n" +
 	"\x14DockerControlService\x12Q\n" +
-	"\fStartCompose\x12#.docker_control.StartComposeRequest\x1a\x1c.docker_control.ActionResult\x12G\n" +
+	"\fStartCompose\x12#.docker_control.StartComposeRequest\x1a\x1c.docker_control.ActionResult\x12R\n" +
+	"\x12StartComposeStream\x12\x1c.docker_control.ComposeChunk\x1a\x1c.docker_control.ActionResult(\x01\x12U\n" +
+	"\rUpdateCompose\x12$.docker_control.UpdateComposeRequest\x1a\x1c.docker_control.ActionResult(\x01\x12S\n" +
+	"\fStartHealthy\x12#.docker_control.StartHealthyRequest\x1a\x1c.docker_control.ActionResult(\x01\x12W\n" +
+	"\n" +
+	"PullImages\x12!.docker_control.PullImagesRequest\x1a\".docker_control.PullImagesProgress(\x010\x01\x12G\n" +
 	"\aStopApp\x12\x1e.docker_control.StopAppRequest\x1a\x1c.docker_control.ActionResult\x12H\n" +
-	"\tGetStatus\x12 .docker_control.GetStatusRequest\x1a\x19.docker_control.AppStatus\x12O\n" +
+	"\tGetStatus\x12 .docker_control.GetStatusRequest\x1a\x19.docker_control.AppStatus\x12V\n" +
+	"\vGetStatuses\x12\".docker_control.GetStatusesRequest\x1a#.docker_control.GetStatusesResponse\x12N\n" +
+	"\vWatchStatus\x12\".docker_control.WatchStatusRequest\x1a\x19.docker_control.AppStatus0\x01\x12W\n" +
+	"\x0fTestNginxConfig\x12&.docker_control.TestNginxConfigRequest\x1a\x1c.docker_control.ActionResult\x12O\n" +
 	"\vReloadNginx\x12\".docker_control.ReloadNginxRequest\x1a\x1c.docker_control.ActionResult\x12Y\n" +
 	"\x10IssueCertificate\x12'.docker_control.IssueCertificateRequest\x1a\x1c.docker_control.ActionResultB)Z'github.com/shipkit/docker-control/protob\x06proto3"
 
@@ -571,36 +1074,60 @@ func file_proto_docker_control_proto_rawDescGZIP() []byte {
 }
 
 var file_proto_docker_control_proto_enumTypes = make([]protoimpl.EnumInfo, 1)
-var file_proto_docker_control_proto_msgTypes = make([]protoimpl.MessageInfo, 8)
+var file_proto_docker_control_proto_msgTypes = make([]protoimpl.MessageInfo, 17)
 var file_proto_docker_control_proto_goTypes = []any{
 	(AppState)(0),                   // 0: docker_control.AppState
 	(*StartComposeRequest)(nil),     // 1: docker_control.StartComposeRequest
-	(*StopAppRequest)(nil),          // 2: docker_control.StopAppRequest
-	(*GetStatusRequest)(nil),        // 3: docker_control.GetStatusRequest
-	(*ActionResult)(nil),            // 4: docker_control.ActionResult
-	(*AppStatus)(nil),               // 5: docker_control.AppStatus
-	(*ContainerStatus)(nil),         // 6: docker_control.ContainerStatus
-	(*ReloadNginxRequest)(nil),      // 7: docker_control.ReloadNginxRequest
-	(*IssueCertificateRequest)(nil), // 8: docker_control.IssueCertificateRequest
+	(*ComposeChunk)(nil),            // 2: docker_control.ComposeChunk
+	(*UpdateComposeRequest)(nil),    // 3: docker_control.UpdateComposeRequest
+	(*StartHealthyRequest)(nil),     // 4: docker_control.StartHealthyRequest
+	(*PullImagesRequest)(nil),       // 5: docker_control.PullImagesRequest
+	(*PullImagesProgress)(nil),      // 6: docker_control.PullImagesProgress
+	(*StopAppRequest)(nil),          // 7: docker_control.StopAppRequest
+	(*GetStatusRequest)(nil),        // 8: docker_control.GetStatusRequest
+	(*GetStatusesRequest)(nil),      // 9: docker_control.GetStatusesRequest
+	(*GetStatusesResponse)(nil),     // 10: docker_control.GetStatusesResponse
+	(*WatchStatusRequest)(nil),      // 11: docker_control.WatchStatusRequest
+	(*ActionResult)(nil),            // 12: docker_control.ActionResult
+	(*AppStatus)(nil),               // 13: docker_control.AppStatus
+	(*ContainerStatus)(nil),         // 14: docker_control.ContainerStatus
+	(*TestNginxConfigRequest)(nil),  // 15: docker_control.TestNginxConfigRequest
+	(*ReloadNginxRequest)(nil),      // 16: docker_control.ReloadNginxRequest
+	(*IssueCertificateRequest)(nil), // 17: docker_control.IssueCertificateRequest
 }
 var file_proto_docker_control_proto_depIdxs = []int32{
-	0, // 0: docker_control.AppStatus.state:type_name -> docker_control.AppState
-	6, // 1: docker_control.AppStatus.containers:type_name -> docker_control.ContainerStatus
-	1, // 2: docker_control.DockerControlService.StartCompose:input_type -> docker_control.StartComposeRequest
-	2, // 3: docker_control.DockerControlService.StopApp:input_type -> docker_control.StopAppRequest
-	3, // 4: docker_control.DockerControlService.GetStatus:input_type -> docker_control.GetStatusRequest
-	7, // 5: docker_control.DockerControlService.ReloadNginx:input_type -> docker_control.ReloadNginxRequest
-	8, // 6: docker_control.DockerControlService.IssueCertificate:input_type -> docker_control.IssueCertificateRequest
-	4, // 7: docker_control.DockerControlService.StartCompose:output_type -> docker_control.ActionResult
-	4, // 8: docker_control.DockerControlService.StopApp:output_type -> docker_control.ActionResult
-	5, // 9: docker_control.DockerControlService.GetStatus:output_type -> docker_control.AppStatus
-	4, // 10: docker_control.DockerControlService.ReloadNginx:output_type -> docker_control.ActionResult
-	4, // 11: docker_control.DockerControlService.IssueCertificate:output_type -> docker_control.ActionResult
-	7, // [7:12] is the sub-list for method output_type
-	2, // [2:7] is the sub-list for method input_type
-	2, // [2:2] is the sub-list for extension type_name
-	2, // [2:2] is the sub-list for extension extendee
-	0, // [0:2] is the sub-list for field type_name
+	13, // 0: docker_control.GetStatusesResponse.statuses:type_name -> docker_control.AppStatus
+	0,  // 1: docker_control.AppStatus.state:type_name -> docker_control.AppState
+	14, // 2: docker_control.AppStatus.containers:type_name -> docker_control.ContainerStatus
+	1,  // 3: docker_control.DockerControlService.StartCompose:input_type -> docker_control.StartComposeRequest
+	2,  // 4: docker_control.DockerControlService.StartComposeStream:input_type -> docker_control.ComposeChunk
+	3,  // 5: docker_control.DockerControlService.UpdateCompose:input_type -> docker_control.UpdateComposeRequest
+	4,  // 6: docker_control.DockerControlService.StartHealthy:input_type -> docker_control.StartHealthyRequest
+	5,  // 7: docker_control.DockerControlService.PullImages:input_type -> docker_control.PullImagesRequest
+	7,  // 8: docker_control.DockerControlService.StopApp:input_type -> docker_control.StopAppRequest
+	8,  // 9: docker_control.DockerControlService.GetStatus:input_type -> docker_control.GetStatusRequest
+	9,  // 10: docker_control.DockerControlService.GetStatuses:input_type -> docker_control.GetStatusesRequest
+	11, // 11: docker_control.DockerControlService.WatchStatus:input_type -> docker_control.WatchStatusRequest
+	15, // 12: docker_control.DockerControlService.TestNginxConfig:input_type -> docker_control.TestNginxConfigRequest
+	16, // 13: docker_control.DockerControlService.ReloadNginx:input_type -> docker_control.ReloadNginxRequest
+	17, // 14: docker_control.DockerControlService.IssueCertificate:input_type -> docker_control.IssueCertificateRequest
+	12, // 15: docker_control.DockerControlService.StartCompose:output_type -> docker_control.ActionResult
+	12, // 16: docker_control.DockerControlService.StartComposeStream:output_type -> docker_control.ActionResult
+	12, // 17: docker_control.DockerControlService.UpdateCompose:output_type -> docker_control.ActionResult
+	12, // 18: docker_control.DockerControlService.StartHealthy:output_type -> docker_control.ActionResult
+	6,  // 19: docker_control.DockerControlService.PullImages:output_type -> docker_control.PullImagesProgress
+	12, // 20: docker_control.DockerControlService.StopApp:output_type -> docker_control.ActionResult
+	13, // 21: docker_control.DockerControlService.GetStatus:output_type -> docker_control.AppStatus
+	10, // 22: docker_control.DockerControlService.GetStatuses:output_type -> docker_control.GetStatusesResponse
+	13, // 23: docker_control.DockerControlService.WatchStatus:output_type -> docker_control.AppStatus
+	12, // 24: docker_control.DockerControlService.TestNginxConfig:output_type -> docker_control.ActionResult
+	12, // 25: docker_control.DockerControlService.ReloadNginx:output_type -> docker_control.ActionResult
+	12, // 26: docker_control.DockerControlService.IssueCertificate:output_type -> docker_control.ActionResult
+	15, // [15:27] is the sub-list for method output_type
+	3,  // [3:15] is the sub-list for method input_type
+	3,  // [3:3] is the sub-list for extension type_name
+	3,  // [3:3] is the sub-list for extension extendee
+	0,  // [0:3] is the sub-list for field type_name
 }
 
 func init() { file_proto_docker_control_proto_init() }
@@ -614,7 +1141,7 @@ func file_proto_docker_control_proto_init() {
 			GoPackagePath: reflect.TypeOf(x{}).PkgPath(),
 			RawDescriptor: unsafe.Slice(unsafe.StringData(file_proto_docker_control_proto_rawDesc), len(file_proto_docker_control_proto_rawDesc)),
 			NumEnums:      1,
-			NumMessages:   8,
+			NumMessages:   17,
 			NumExtensions: 0,
 			NumServices:   1,
 		},
@@ -19,11 +19,18 @@ import (
 const _ = grpc.SupportPackageIsVersion9
 
 const (
-	DockerControlService_StartCompose_FullMethodName     = "/docker_control.DockerControlService/StartCompose"
-	DockerControlService_StopApp_FullMethodName          = "/docker_control.DockerControlService/StopApp"
-	DockerControlService_GetStatus_FullMethodName        = "/docker_control.DockerControlService/GetStatus"
-	DockerControlService_ReloadNginx_FullMethodName      = "/docker_control.DockerControlService/ReloadNginx"
-	DockerControlService_IssueCertificate_FullMethodName = "/docker_control.DockerControlService/IssueCertificate"
+	DockerControlService_StartCompose_FullMethodName       = "/docker_control.DockerControlService/StartCompose"
+	DockerControlService_StartComposeStream_FullMethodName = "/docker_control.DockerControlService/StartComposeStream"
+	DockerControlService_UpdateCompose_FullMethodName      = "/docker_control.DockerControlService/UpdateCompose"
+	DockerControlService_StartHealthy_FullMethodName       = "/docker_control.DockerControlService/StartHealthy"
+	DockerControlService_PullImages_FullMethodName         = "/docker_control.DockerControlService/PullImages"
+	DockerControlService_StopApp_FullMethodName            = "/docker_control.DockerControlService/StopApp"
+	DockerControlService_GetStatus_FullMethodName          = "/docker_control.DockerControlService/GetStatus"
+	DockerControlService_GetStatuses_FullMethodName        = "/docker_control.DockerControlService/GetStatuses"
+	DockerControlService_WatchStatus_FullMethodName        = "/docker_control.DockerControlService/WatchStatus"
+	DockerControlService_TestNginxConfig_FullMethodName    = "/docker_control.DockerControlService/TestNginxConfig"
+	DockerControlService_ReloadNginx_FullMethodName        = "/docker_control.DockerControlService/ReloadNginx"
+	DockerControlService_IssueCertificate_FullMethodName   = "/docker_control.DockerControlService/IssueCertificate"
 )
 
 // DockerControlServiceClient is the client API for DockerControlService service.
@@ -31,8 +38,15 @@ const (
 // For semantics around ctx use and closing/ending streaming RPCs, please refer to https://pkg.go.dev/google.golang.org/grpc/?tab=doc#ClientConn.NewStream.
 type DockerControlServiceClient interface {
 	StartCompose(ctx context.Context, in *StartComposeRequest, opts ...grpc.CallOption) (*ActionResult, error)
+	StartComposeStream(ctx context.Context, opts ...grpc.CallOption) (grpc.ClientStreamingClient[ComposeChunk, ActionResult], error)
+	UpdateCompose(ctx context.Context, opts ...grpc.CallOption) (grpc.ClientStreamingClient[UpdateComposeRequest, ActionResult], error)
+	StartHealthy(ctx context.Context, opts ...grpc.CallOption) (grpc.ClientStreamingClient[StartHealthyRequest, ActionResult], error)
+	PullImages(ctx context.Context, opts ...grpc.CallOption) (grpc.BidiStreamingClient[PullImagesRequest, PullImagesProgress], error)
 	StopApp(ctx context.Context, in *StopAppRequest, opts ...grpc.CallOption) (*ActionResult, error)
 	GetStatus(ctx context.Context, in *GetStatusRequest, opts ...grpc.CallOption) (*AppStatus, error)
+	GetStatuses(ctx context.Context, in *GetStatusesRequest, opts ...grpc.CallOption) (*GetStatusesResponse, error)
+	WatchStatus(ctx context.Context, in *WatchStatusRequest, opts ...grpc.CallOption) (grpc.ServerStreamingClient[AppStatus], error)
+	TestNginxConfig(ctx context.Context, in *TestNginxConfigRequest, opts ...grpc.CallOption) (*ActionResult, error)
 	ReloadNginx(ctx context.Context, in *ReloadNginxRequest, opts ...grpc.CallOption) (*ActionResult, error)
 	IssueCertificate(ctx context.Context, in *IssueCertificateRequest, opts ...grpc.CallOption) (*ActionResult, error)
 }
@@ -55,6 +69,58 @@ func (c *dockerControlServiceClient) StartCompose(ctx context.Context, in *Start
 	return out, nil
 }
 
+func (c *dockerControlServiceClient) StartComposeStream(ctx context.Context, opts ...grpc.CallOption) (grpc.ClientStreamingClient[ComposeChunk, ActionResult], error) {
+	cOpts := append([]grpc.CallOption{grpc.StaticMethod()}, opts...)
+	stream, err := c.cc.NewStream(ctx, &DockerControlService_ServiceDesc.Streams[0], DockerControlService_StartComposeStream_FullMethodName, cOpts...)
+	if err != nil {
+		return nil, err
+	}
+	x := &grpc.GenericClientStream[ComposeChunk, ActionResult]{ClientStream: stream}
+	return x, nil
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_StartComposeStreamClient = grpc.ClientStreamingClient[ComposeChunk, ActionResult]
+
+func (c *dockerControlServiceClient) UpdateCompose(ctx context.Context, opts ...grpc.CallOption) (grpc.ClientStreamingClient[UpdateComposeRequest, ActionResult], error) {
+	cOpts := append([]grpc.CallOption{grpc.StaticMethod()}, opts...)
+	stream, err := c.cc.NewStream(ctx, &DockerControlService_ServiceDesc.Streams[1], DockerControlService_UpdateCompose_FullMethodName, cOpts...)
+	if err != nil {
+		return nil, err
+	}
+	x := &grpc.GenericClientStream[UpdateComposeRequest, ActionResult]{ClientStream: stream}
+	return x, nil
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_UpdateComposeClient = grpc.ClientStreamingClient[UpdateComposeRequest, ActionResult]
+
+func (c *dockerControlServiceClient) StartHealthy(ctx context.Context, opts ...grpc.CallOption) (grpc.ClientStreamingClient[StartHealthyRequest, ActionResult], error) {
+	cOpts := append([]grpc.CallOption{grpc.StaticMethod()}, opts...)
+	stream, err := c.cc.NewStream(ctx, &DockerControlService_ServiceDesc.Streams[2], DockerControlService_StartHealthy_FullMethodName, cOpts...)
+	if err != nil {
+		return nil, err
+	}
+	x := &grpc.GenericClientStream[StartHealthyRequest, ActionResult]{ClientStream: stream}
+	return x, nil
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_StartHealthyClient = grpc.ClientStreamingClient[StartHealthyRequest, ActionResult]
+
+func (c *dockerControlServiceClient) PullImages(ctx context.Context, opts ...grpc.CallOption) (grpc.BidiStreamingClient[PullImagesRequest, PullImagesProgress], error) {
+	cOpts := append([]grpc.CallOption{grpc.StaticMethod()}, opts...)
+	stream, err := c.cc.NewStream(ctx, &DockerControlService_ServiceDesc.Streams[3], DockerControlService_PullImages_FullMethodName, cOpts...)
+	if err != nil {
+		return nil, err
+	}
+	x := &grpc.GenericClientStream[PullImagesRequest, PullImagesProgress]{ClientStream: stream}
+	return x, nil
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_PullImagesClient = grpc.BidiStreamingClient[PullImagesRequest, PullImagesProgress]
+
 func (c *dockerControlServiceClient) StopApp(ctx context.Context, in *StopAppRequest, opts ...grpc.CallOption) (*ActionResult, error) {
 	cOpts := append([]grpc.CallOption{grpc.StaticMethod()}, opts...)
 	out := new(ActionResult)
@@ -75,6 +141,45 @@ func (c *dockerControlServiceClient) GetStatus(ctx context.Context, in *GetStatu
 	return out, nil
 }
 
+func (c *dockerControlServiceClient) GetStatuses(ctx context.Context, in *GetStatusesRequest, opts ...grpc.CallOption) (*GetStatusesResponse, error) {
+	cOpts := append([]grpc.CallOption{grpc.StaticMethod()}, opts...)
+	out := new(GetStatusesResponse)
+	err := c.cc.Invoke(ctx, DockerControlService_GetStatuses_FullMethodName, in, out, cOpts...)
+	if err != nil {
+		return nil, err
+	}
+	return out, nil
+}
+
+func (c *dockerControlServiceClient) WatchStatus(ctx context.Context, in *WatchStatusRequest, opts ...grpc.CallOption) (grpc.ServerStreamingClient[AppStatus], error) {
+	cOpts := append([]grpc.CallOption{grpc.StaticMethod()}, opts...)
+	stream, err := c.cc.NewStream(ctx, &DockerControlService_ServiceDesc.Streams[4], DockerControlService_WatchStatus_FullMethodName, cOpts...)
+	if err != nil {
+		return nil, err
+	}
+	x := &grpc.GenericClientStream[WatchStatusRequest, AppStatus]{ClientStream: stream}
+	if err := x.ClientStream.SendMsg(in); err != nil {
+		return nil, err
+	}
+	if err := x.ClientStream.CloseSend(); err != nil {
+		return nil, err
+	}
+	return x, nil
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_WatchStatusClient = grpc.ServerStreamingClient[AppStatus]
+
+func (c *dockerControlServiceClient) TestNginxConfig(ctx context.Context, in *TestNginxConfigRequest, opts ...grpc.CallOption) (*ActionResult, error) {
+	cOpts := append([]grpc.CallOption{grpc.StaticMethod()}, opts...)
+	out := new(ActionResult)
+	err := c.cc.Invoke(ctx, DockerControlService_TestNginxConfig_FullMethodName, in, out, cOpts...)
+	if err != nil {
+		return nil, err
+	}
+	return out, nil
+}
+
 func (c *dockerControlServiceClient) ReloadNginx(ctx context.Context, in *ReloadNginxRequest, opts ...grpc.CallOption) (*ActionResult, error) {
 	cOpts := append([]grpc.CallOption{grpc.StaticMethod()}, opts...)
 	out := new(ActionResult)
@@ -100,8 +205,15 @@ func (c *dockerControlServiceClient) IssueCertificate(ctx context.Context, in *I
 // for forward compatibility.
 type DockerControlServiceServer interface {
 	StartCompose(context.Context, *StartComposeRequest) (*ActionResult, error)
+	StartComposeStream(grpc.ClientStreamingServer[ComposeChunk, ActionResult]) error
+	UpdateCompose(grpc.ClientStreamingServer[UpdateComposeRequest, ActionResult]) error
+	StartHealthy(grpc.ClientStreamingServer[StartHealthyRequest, ActionResult]) error
+	PullImages(grpc.BidiStreamingServer[PullImagesRequest, PullImagesProgress]) error
 	StopApp(context.Context, *StopAppRequest) (*ActionResult, error)
 	GetStatus(context.Context, *GetStatusRequest) (*AppStatus, error)
+	GetStatuses(context.Context, *GetStatusesRequest) (*GetStatusesResponse, error)
+	WatchStatus(*WatchStatusRequest, grpc.ServerStreamingServer[AppStatus]) error
+	TestNginxConfig(context.Context, *TestNginxConfigRequest) (*ActionResult, error)
 	ReloadNginx(context.Context, *ReloadNginxRequest) (*ActionResult, error)
 	IssueCertificate(context.Context, *IssueCertificateRequest) (*ActionResult, error)
 	mustEmbedUnimplementedDockerControlServiceServer()
@@ -117,12 +229,33 @@ type UnimplementedDockerControlServiceServer struct{}
 func (UnimplementedDockerControlServiceServer) StartCompose(context.Context, *StartComposeRequest) (*ActionResult, error) {
 	return nil, status.Errorf(codes.Unimplemented, "method StartCompose not implemented")
 }
+func (UnimplementedDockerControlServiceServer) StartComposeStream(grpc.ClientStreamingServer[ComposeChunk, ActionResult]) error {
+	return status.Errorf(codes.Unimplemented, "method StartComposeStream not implemented")
+}
+func (UnimplementedDockerControlServiceServer) UpdateCompose(grpc.ClientStreamingServer[UpdateComposeRequest, ActionResult]) error {
+	return status.Errorf(codes.Unimplemented, "method UpdateCompose not implemented")
+}
+func (UnimplementedDockerControlServiceServer) StartHealthy(grpc.ClientStreamingServer[StartHealthyRequest, ActionResult]) error {
+	return status.Errorf(codes.Unimplemented, "method StartHealthy not implemented")
+}
+func (UnimplementedDockerControlServiceServer) PullImages(grpc.BidiStreamingServer[PullImagesRequest, PullImagesProgress]) error {
+	return status.Errorf(codes.Unimplemented, "method PullImages not implemented")
+}
 func (UnimplementedDockerControlServiceServer) StopApp(context.Context, *StopAppRequest) (*ActionResult, error) {
 	return nil, status.Errorf(codes.Unimplemented, "method StopApp not implemented")
 }
 func (UnimplementedDockerControlServiceServer) GetStatus(context.Context, *GetStatusRequest) (*AppStatus, error) {
 	return nil, status.Errorf(codes.Unimplemented, "method GetStatus not implemented")
 }
+func (UnimplementedDockerControlServiceServer) GetStatuses(context.Context, *GetStatusesRequest) (*GetStatusesResponse, error) {
+	return nil, status.Errorf(codes.Unimplemented, "method GetStatuses not implemented")
+}
+func (UnimplementedDockerControlServiceServer) WatchStatus(*WatchStatusRequest, grpc.ServerStreamingServer[AppStatus]) error {
+	return status.Errorf(codes.Unimplemented, "method WatchStatus not implemented")
+}
+func (UnimplementedDockerControlServiceServer) TestNginxConfig(context.Context, *TestNginxConfigRequest) (*ActionResult, error) {
+	return nil, status.Errorf(codes.Unimplemented, "method TestNginxConfig not implemented")
+}
 func (UnimplementedDockerControlServiceServer) ReloadNginx(context.Context, *ReloadNginxRequest) (*ActionResult, error) {
 	return nil, status.Errorf(codes.Unimplemented, "method ReloadNginx not implemented")
 }
@@ -168,6 +301,34 @@ func _DockerControlService_StartCompose_Handler(srv interface{}, ctx context.Con
 	return interceptor(ctx, in, info, handler)
 }
 
+func _DockerControlService_StartComposeStream_Handler(srv interface{}, stream grpc.ServerStream) error {
+	return srv.(DockerControlServiceServer).StartComposeStream(&grpc.GenericServerStream[ComposeChunk, ActionResult]{ServerStream: stream})
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_StartComposeStreamServer = grpc.ClientStreamingServer[ComposeChunk, ActionResult]
+
+func _DockerControlService_UpdateCompose_Handler(srv interface{}, stream grpc.ServerStream) error {
+	return srv.(DockerControlServiceServer).UpdateCompose(&grpc.GenericServerStream[UpdateComposeRequest, ActionResult]{ServerStream: stream})
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_UpdateComposeServer = grpc.ClientStreamingServer[UpdateComposeRequest, ActionResult]
+
+func _DockerControlService_StartHealthy_Handler(srv interface{}, stream grpc.ServerStream) error {
+	return srv.(DockerControlServiceServer).StartHealthy(&grpc.GenericServerStream[StartHealthyRequest, ActionResult]{ServerStream: stream})
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_StartHealthyServer = grpc.ClientStreamingServer[StartHealthyRequest, ActionResult]
+
+func _DockerControlService_PullImages_Handler(srv interface{}, stream grpc.ServerStream) error {
+	return srv.(DockerControlServiceServer).PullImages(&grpc.GenericServerStream[PullImagesRequest, PullImagesProgress]{ServerStream: stream})
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_PullImagesServer = grpc.BidiStreamingServer[PullImagesRequest, PullImagesProgress]
+
 func _DockerControlService_StopApp_Handler(srv interface{}, ctx context.Context, dec func(interface{}) error, interceptor grpc.UnaryServerInterceptor) (interface{}, error) {
 	in := new(StopAppRequest)
 	if err := dec(in); err != nil {
@@ -204,6 +365,53 @@ func _DockerControlService_GetStatus_Handler(srv interface{}, ctx context.Contex
 	return interceptor(ctx, in, info, handler)
 }
 
+func _DockerControlService_GetStatuses_Handler(srv interface{}, ctx context.Context, dec func(interface{}) error, interceptor grpc.UnaryServerInterceptor) (interface{}, error) {
+	in := new(GetStatusesRequest)
+	if err := dec(in); err != nil {
+		return nil, err
+	}
+	if interceptor == nil {
+		return srv.(DockerControlServiceServer).GetStatuses(ctx, in)
+	}
+	info := &grpc.UnaryServerInfo{
+		Server:     srv,
+		FullMethod: DockerControlService_GetStatuses_FullMethodName,
+	}
+	handler := func(ctx context.Context, req interface{}) (interface{}, error) {
+		return srv.(DockerControlServiceServer).GetStatuses(ctx, req.(*GetStatusesRequest))
+	}
+	return interceptor(ctx, in, info, handler)
+}
+
+func _DockerControlService_WatchStatus_Handler(srv interface{}, stream grpc.ServerStream) error {
+	m := new(WatchStatusRequest)
+	if err := stream.RecvMsg(m); err != nil {
+		return err
+	}
+	return srv.(DockerControlServiceServer).WatchStatus(m, &grpc.GenericServerStream[WatchStatusRequest, AppStatus]{ServerStream: stream})
+}
+
+// This type alias is provided for backwards compatibility with existing code that references the prior non-generic stream type by name.
+type DockerControlService_WatchStatusServer = grpc.ServerStreamingServer[AppStatus]
+
+func _DockerControlService_TestNginxConfig_Handler(srv interface{}, ctx context.Context, dec func(interface{}) error, interceptor grpc.UnaryServerInterceptor) (interface{}, error) {
+	in := new(TestNginxConfigRequest)
+	if err := dec(in); err != nil {
+		return nil, err
+	}
+	if interceptor == nil {
+		return srv.(DockerControlServiceServer).TestNginxConfig(ctx, in)
+	}
+	info := &grpc.UnaryServerInfo{
+		Server:     srv,
+		FullMethod: DockerControlService_TestNginxConfig_FullMethodName,
+	}
+	handler := func(ctx context.Context, req interface{}) (interface{}, error) {
+		return srv.(DockerControlServiceServer).TestNginxConfig(ctx, req.(*TestNginxConfigRequest))
+	}
+	return interceptor(ctx, in, info, handler)
+}
+
 func _DockerControlService_ReloadNginx_Handler(srv interface{}, ctx context.Context, dec func(interface{}) error, interceptor grpc.UnaryServerInterceptor) (interface{}, error) {
 	in := new(ReloadNginxRequest)
 	if err := dec(in); err != nil {
@@ -259,6 +467,14 @@ var DockerControlService_ServiceDesc = grpc.ServiceDesc{
 			MethodName: "GetStatus",
 			Handler:    _DockerControlService_GetStatus_Handler,
 		},
+		{
+			MethodName: "GetStatuses",
+			Handler:    _DockerControlService_GetStatuses_Handler,
+		},
+		{
+			MethodName: "TestNginxConfig",
+			Handler:    _DockerControlService_TestNginxConfig_Handler,
+		},
 		{
 			MethodName: "ReloadNginx",
 			Handler:    _DockerControlService_ReloadNginx_Handler,
@@ -268,6 +484,33 @@ var DockerControlService_ServiceDesc = grpc.ServiceDesc{
 			Handler:    _DockerControlService_IssueCertificate_Handler,
 		},
 	},
-	Streams:  []grpc.StreamDesc{},
+	Streams: []grpc.StreamDesc{
+		{
+			StreamName:    "StartComposeStream",
+			Handler:       _DockerControlService_StartComposeStream_Handler,
+			ClientStreams: true,
+		},
+		{
+			StreamName:    "UpdateCompose",
+			Handler:       _DockerControlService_UpdateCompose_Handler,
+			ClientStreams: true,
+		},
+		{
+			StreamName:    "StartHealthy",
+			Handler:       _DockerControlService_StartHealthy_Handler,
+			ClientStreams: true,
+		},
+		{
+			StreamName:    "PullImages",
+			Handler:       _DockerControlService_PullImages_Handler,
+			ServerStreams: true,
+			ClientStreams: true,
+		},
+		{
+			StreamName:    "WatchStatus",
+			Handler:       _DockerControlService_WatchStatus_Handler,
+			ServerStreams: true,
+		},
+	},
 	Metadata: "proto/docker_control.proto",
 }
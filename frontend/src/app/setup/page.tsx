@@ -1,8 +1,8 @@
 'use client';
 
-import { useState } from 'react';
-import { useMutation } from '@apollo/client';
-import { SETUP_DOMAIN } from '@/lib/graphql';
+import { useEffect, useState } from 'react';
+import { useMutation, useQuery } from '@apollo/client';
+import { GET_PLATFORM_SETTINGS, SETUP_DOMAIN } from '@/lib/graphql';
 import { DashboardLayout } from '@/components/dashboard/layout';
 import { PageHeader } from '@/components/layout/PageLayout';
 import { Input } from '@/components/ui/input';
@@ -11,28 +11,63 @@ import { Checkbox } from '@/components/ui/checkbox';
 import { Label } from '@/components/ui/label';
 import { toast } from 'sonner';
 
+interface PlatformSettings {
+  fqdn: string;
+  setupStatus: string | null;
+  setupError: string | null;
+  setupSteps: { type: string; status: string; error: string | null }[];
+}
+
+const STEP_LABELS: Record<string, string> = {
+  VALIDATE_DNS: 'Checking DNS records',
+  ISSUE_CERTIFICATE: 'Issuing certificate',
+  WRITE_VHOST: 'Writing NGINX configuration',
+  RELOAD_NGINX: 'Reloading NGINX',
+};
+
 export default function SetupPage() {
   const [domain, setDomain] = useState('');
   const [sslEnabled, setSslEnabled] = useState(true);
   const [forceSsl, setForceSsl] = useState(true);
+  // The setup runs in the background once the mutation returns; follow it until it finishes.
+  const [settingUp, setSettingUp] = useState(false);
 
   const [setupDomain, { loading }] = useMutation(SETUP_DOMAIN, {
-    onCompleted: () => {
+    onCompleted: () => setSettingUp(true),
+    onError: (err) => toast.error(err.message),
+  });
+
+  const { data: settingsData } = useQuery<{ platformSettings: PlatformSettings | null }>(GET_PLATFORM_SETTINGS, {
+    skip: !settingUp,
+    pollInterval: 2000,
+    fetchPolicy: 'network-only',
+  });
+
+  useEffect(() => {
+    const setting = settingsData?.platformSettings;
+    if (!settingUp || !setting || setting.fqdn !== domain) {
+      return;
+    }
+    if (setting.setupStatus === 'SUCCEEDED') {
+      setSettingUp(false);
       const protocol = sslEnabled ? 'https://' : 'http://';
       toast.success('Domain configured, redirecting...');
       window.location.href = `${protocol}${domain}`;
-    },
-    onError: (err) => {
-      toast.error(err.message, {
+    } else if (setting.setupStatus === 'FAILED') {
+      setSettingUp(false);
+      const dnsFailed = setting.setupSteps.some((step) => step.type === 'VALIDATE_DNS' && step.status === 'FAILED');
+      toast.error(setting.setupError ?? 'Domain setup failed', dnsFailed ? {
         action: {
           label: 'Continue anyway',
           onClick: () => {
             void setupDomain({ variables: { domain, skipValidation: true, sslEnabled, forceSsl } });
           },
         },
-      });
-    },
-  });
+      } : undefined);
+    }
+  }, [settingsData, settingUp, domain, sslEnabled, forceSsl, setupDomain]);
+
+  const currentStep = settingsData?.platformSettings?.setupSteps.find((step) => step.status === 'RUNNING');
 
   const handleSubmit = (e: React.FormEvent) => {
     e.preventDefault();
@@ -73,9 +108,12 @@ export default function SetupPage() {
             />
             <Label htmlFor="forceSsl">Force HTTPS (Redirect all HTTP traffic to HTTPS)</Label>
           </div>
-          <UiButton type="submit" disabled={loading}>
-            {loading ? 'Saving...' : 'Save Domain'}
+          <UiButton type="submit" disabled={loading || settingUp}>
+            {loading || settingUp ? 'Saving...' : 'Save Domain'}
           </UiButton>
+          {settingUp && currentStep && (
+            <p className="text-sm text-muted-foreground">{STEP_LABELS[currentStep.type] ?? currentStep.type}...</p>
+          )}
         </form>
       </div>
     </DashboardLayout>
@@ -1,4 +1,4 @@
-import { useQuery } from '@apollo/client';
+import { useSubscription } from '@apollo/client';
 import { Badge } from '@/components/ui/badge';
 import { 
   Dialog, 
@@ -7,7 +7,7 @@ import {
   DialogHeader, 
   DialogTitle 
 } from '@/components/ui/dialog';
-import { GET_DEPLOYMENT_STATUS, type Deployment, type DeploymentStatus } from '@/lib/graphql';
+import { DEPLOYMENT_STATUS_CHANGED, type Deployment, type DeploymentStatus } from '@/lib/graphql';
 
 interface DeploymentDetailsDialogProps {
   deployment: Deployment | null;
@@ -22,14 +22,14 @@ export function DeploymentDetailsDialog({
   onClose,
   getStatusBadgeColor
 }: DeploymentDetailsDialogProps) {
-  const { data: detailStatusData, loading: detailStatusLoading } = useQuery<{
-    deploymentStatus: DeploymentStatus;
-  }>(GET_DEPLOYMENT_STATUS, {
+  // gateway-api pushes the current status first and then every change while the dialog is open
+  const { data: detailStatusData, loading: detailStatusLoading } = useSubscription<{
+    deploymentStatusChanged: DeploymentStatus;
+  }>(DEPLOYMENT_STATUS_CHANGED, {
     variables: { id: deployment?.id },
-    skip: !deployment?.id || !isOpen,
-    pollInterval: 5000,
-    fetchPolicy: 'cache-and-network'
+    skip: !deployment?.id || !isOpen
   });
+  const detailStatus = detailStatusData?.deploymentStatusChanged;
 
   if (!deployment) return null;
 
@@ -48,26 +48,26 @@ export function DeploymentDetailsDialog({
             <div className="flex justify-center py-4">
               <div className="animate-spin rounded-full h-6 w-6 border-b-2 border-primary"></div>
             </div>
-          ) : detailStatusData?.deploymentStatus ? (
+          ) : detailStatus ? (
             <div className="space-y-4">
               <div className="grid grid-cols-2 gap-4">
                 <div>
                   <p className="text-sm font-medium">Status</p>
-                  <Badge className={getStatusBadgeColor(detailStatusData.deploymentStatus.state)}>
-                    {detailStatusData.deploymentStatus.state}
+                  <Badge className={getStatusBadgeColor(detailStatus.state)}>
+                    {detailStatus.state}
                   </Badge>
                 </div>
                 <div>
                   <p className="text-sm font-medium">Message</p>
-                  <p className="text-sm text-muted-foreground">{detailStatusData.deploymentStatus.message}</p>
+                  <p className="text-sm text-muted-foreground">{detailStatus.message}</p>
                 </div>
               </div>
               
-              {detailStatusData.deploymentStatus.containers.length > 0 && (
+              {detailStatus.containers.length > 0 && (
                 <div>
                   <h4 className="font-medium mb-2">Containers</h4>
                   <div className="space-y-2">
-                    {detailStatusData.deploymentStatus.containers.map((container, index) => (
+                    {detailStatus.containers.map((container, index) => (
                       <div key={index} className="border rounded-lg p-3 border-border">
                         <div className="flex justify-between items-start">
                           <div>
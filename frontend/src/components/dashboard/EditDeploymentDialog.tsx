@@ -4,14 +4,14 @@ import { useState, useEffect } from 'react';
 import { useForm, Controller } from 'react-hook-form';
 import { zodResolver } from '@hookform/resolvers/zod';
 import { z } from 'zod';
-import { useMutation } from '@apollo/client';
+import { useMutation, useQuery } from '@apollo/client';
 import { toast } from 'sonner';
 import { Button } from '@/components/ui/button';
 import { Input } from '@/components/ui/input';
 import { Label } from '@/components/ui/label';
 import { Dialog, DialogContent, DialogHeader, DialogTitle } from '@/components/ui/dialog';
 import { CodeEditor } from '@/components/ui/code-editor';
-import { UPDATE_DEPLOYMENT, GET_DEPLOYMENTS, type Deployment } from '@/lib/graphql';
+import { UPDATE_DEPLOYMENT, GET_DEPLOYMENT, type Deployment, type DeploymentWithCompose } from '@/lib/graphql';
 
 const updateDeploymentSchema = z.object({
   name: z.string().min(1, 'Deployment name is required').min(3, 'Name must be at least 3 characters'),
@@ -40,7 +40,7 @@ export function EditDeploymentDialog({ deployment, isOpen, onClose }: EditDeploy
   const [isLoading, setIsLoading] = useState(false);
 
   const [updateDeployment] = useMutation<{ updateDeployment: Deployment }>(UPDATE_DEPLOYMENT, {
-    refetchQueries: [{ query: GET_DEPLOYMENTS }],
+    refetchQueries: ['GetDeployments'],
   });
 
   const {
@@ -53,15 +53,26 @@ export function EditDeploymentDialog({ deployment, isOpen, onClose }: EditDeploy
     resolver: zodResolver(updateDeploymentSchema),
   });
 
-  // Reset form when deployment changes
+  // The list only carries names; the compose file is loaded for the deployment being edited
+  const { data: deploymentData, loading: composeLoading } = useQuery<{ deployment: DeploymentWithCompose }>(
+    GET_DEPLOYMENT,
+    {
+      variables: { id: deployment?.id },
+      skip: !deployment || !isOpen,
+      fetchPolicy: 'network-only',
+    }
+  );
+  const current = deploymentData?.deployment;
+
+  // Reset form when the loaded deployment changes
   useEffect(() => {
-    if (deployment) {
+    if (current) {
       reset({
-        name: deployment.name,
-        composeYaml: deployment.composeYaml,
+        name: current.name,
+        composeYaml: current.composeYaml,
       });
     }
-  }, [deployment, reset]);
+  }, [current, reset]);
 
   const onSubmit = async (data: UpdateDeploymentFormData) => {
     if (!deployment) return;
@@ -99,7 +110,13 @@ export function EditDeploymentDialog({ deployment, isOpen, onClose }: EditDeploy
           <DialogTitle>Edit Deployment</DialogTitle>
         </DialogHeader>
         
-        {deployment && (
+        {deployment && composeLoading && (
+          <div className="flex justify-center items-center h-32">
+            <div className="animate-spin rounded-full h-8 w-8 border-b-2 border-primary"></div>
+          </div>
+        )}
+
+        {deployment && current && !composeLoading && (
           <form onSubmit={handleSubmit(onSubmit)} className="space-y-4">
             <div className="space-y-2">
               <Label htmlFor="name" className="text-foreground">Deployment Name</Label>
@@ -10,7 +10,7 @@ import { Button } from '@/components/ui/button';
 import { Input } from '@/components/ui/input';
 import { Label } from '@/components/ui/label';
 import { CodeEditor } from '@/components/ui/code-editor';
-import { CREATE_DEPLOYMENT, GET_DEPLOYMENTS, type Deployment } from '@/lib/graphql';
+import { CREATE_DEPLOYMENT, type Deployment } from '@/lib/graphql';
 
 const deploymentSchema = z.object({
   name: z.string().min(1, 'Deployment name is required').min(3, 'Name must be at least 3 characters'),
@@ -37,7 +37,7 @@ export function CreateDeploymentForm({ onSuccess }: CreateDeploymentFormProps) {
   const [isLoading, setIsLoading] = useState(false);
 
   const [createDeployment] = useMutation<{ createDeployment: Deployment }>(CREATE_DEPLOYMENT, {
-    refetchQueries: [{ query: GET_DEPLOYMENTS }],
+    refetchQueries: ['GetDeployments'],
   });
 
   const {
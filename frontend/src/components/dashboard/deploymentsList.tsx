@@ -1,8 +1,9 @@
 'use client';
 
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useMemo } from 'react';
 import { useQuery } from '@apollo/client';
-import { GET_DEPLOYMENTS, type Deployment } from '@/lib/graphql';
+import { GET_DEPLOYMENTS, type Deployment, type PageInfo } from '@/lib/graphql';
+import { Button } from '@/components/ui/button';
 import { useDeploymentStatus } from '@/lib/hooks/useDeploymentStatus';
 import { useDeploymentActions } from '@/lib/hooks/useDeploymentActions';
 import { DeploymentCard } from './DeploymentCard';
@@ -10,6 +11,8 @@ import { DeploymentDetailsDialog } from './DeploymentDetailsDialog';
 import { DeleteConfirmationDialog } from './DeleteConfirmationDialog';
 import { EditDeploymentDialog } from './EditDeploymentDialog';
 
+const PAGE_SIZE = 20;
+
 export function DeploymentsList() {
   const [selectedDeployment, setSelectedDeployment] = useState<Deployment | null>(null);
   const [editDeployment, setEditDeployment] = useState<Deployment | null>(null);
@@ -21,9 +24,18 @@ export function DeploymentsList() {
     deployment: null,
   });
   
-  const { data: deploymentsData, loading: deploymentsLoading } = useQuery<{
-    deployments: Deployment[];
-  }>(GET_DEPLOYMENTS);
+  const [loadingMore, setLoadingMore] = useState(false);
+
+  const { data: deploymentsData, loading: deploymentsLoading, fetchMore } = useQuery<{
+    deployments: { edges: { node: Deployment }[]; pageInfo: PageInfo };
+  }>(GET_DEPLOYMENTS, { variables: { first: PAGE_SIZE } });
+
+  const pageInfo = deploymentsData?.deployments?.pageInfo;
+
+  const deployments = useMemo(
+    () => deploymentsData?.deployments?.edges.map(edge => edge.node) ?? [],
+    [deploymentsData]
+  );
 
   const {
     getDeploymentStatus,
@@ -45,10 +57,10 @@ export function DeploymentsList() {
   } = useDeploymentActions();
 
   useEffect(() => {
-    if (deploymentsData?.deployments?.length) {
-      return setupPolling(deploymentsData.deployments);
+    if (deployments.length) {
+      return setupPolling(deployments);
     }
-  }, [deploymentsData?.deployments, setupPolling]);
+  }, [deployments, setupPolling]);
 
   const openDeleteConfirmation = (deployment: Deployment) => {
     setDeleteConfirmation({
@@ -102,6 +114,16 @@ export function DeploymentsList() {
     closeDeleteConfirmation();
   };
 
+  const loadMoreDeployments = async () => {
+    if (!pageInfo?.endCursor) return;
+    setLoadingMore(true);
+    try {
+      await fetchMore({ variables: { after: pageInfo.endCursor } });
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   if (deploymentsLoading) {
     return (
       <div className="flex justify-center items-center h-32">
@@ -110,8 +132,6 @@ export function DeploymentsList() {
     );
   }
 
-  const deployments = deploymentsData?.deployments ?? [];
-
   if (deployments.length === 0) {
     return (
       <div className="flex flex-col items-center justify-center py-12 text-center">
@@ -152,6 +172,18 @@ export function DeploymentsList() {
         })}
       </div>
 
+      {pageInfo?.hasNextPage && (
+        <div className="flex justify-center">
+          <Button
+            variant="outline"
+            onClick={() => void loadMoreDeployments()}
+            disabled={loadingMore}
+          >
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </Button>
+        </div>
+      )}
+
       <DeploymentDetailsDialog
         deployment={selectedDeployment}
         isOpen={!!selectedDeployment}
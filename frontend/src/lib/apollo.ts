@@ -1,7 +1,9 @@
-import { ApolloClient, InMemoryCache, createHttpLink, from } from '@apollo/client';
+import { ApolloClient, InMemoryCache, createHttpLink, from, split } from '@apollo/client';
 import { setContext } from '@apollo/client/link/context';
 import { onError } from '@apollo/client/link/error';
+import { getMainDefinition, relayStylePagination } from '@apollo/client/utilities';
 import { trpcClient } from '@/utils/trpc';
+import { createSseLink } from '@/lib/sseLink';
 
 // JWT utility function to check if token is expired
 interface JWTPayload {
@@ -70,6 +72,16 @@ const httpLink = createHttpLink({
   uri: () => `${currentApiBaseUrl}/graphql`,
 });
 
+// Subscriptions are streamed as server-sent events, everything else is a plain POST
+const transportLink = split(
+  ({ query }) => {
+    const definition = getMainDefinition(query);
+    return definition.kind === 'OperationDefinition' && definition.operation === 'subscription';
+  },
+  createSseLink(() => `${currentApiBaseUrl}/graphql`),
+  httpLink
+);
+
 const authLink = setContext((_, { headers }) => {
   const token = typeof window !== 'undefined' ? localStorage.getItem('authToken') : null;
   
@@ -137,8 +149,17 @@ if (typeof window !== 'undefined') {
 }
 
 export const apolloClient = new ApolloClient({
-  link: from([errorLink, authLink, httpLink]),
-  cache: new InMemoryCache(),
+  link: from([errorLink, authLink, transportLink]),
+  cache: new InMemoryCache({
+    typePolicies: {
+      Query: {
+        fields: {
+          // Pages fetched with `after` are appended to the cached connection
+          deployments: relayStylePagination(['nameContains', 'sort']),
+        },
+      },
+    },
+  }),
   defaultOptions: {
     watchQuery: {
       errorPolicy: 'all',
@@ -16,9 +16,47 @@ export const LOGIN_MUTATION = gql`
   }
 `;
 
+const DEPLOYMENT_STATUS_FIELDS = gql`
+  fragment DeploymentStatusFields on DeploymentStatus {
+    uuid
+    state
+    message
+    status
+    containers {
+      name
+      state
+      health
+      ports
+    }
+  }
+`;
+
 export const GET_DEPLOYMENTS = gql`
-  query GetDeployments {
-    deployments {
+  ${DEPLOYMENT_STATUS_FIELDS}
+  query GetDeployments($first: Int!, $after: String) {
+    deployments(first: $first, after: $after) {
+      edges {
+        cursor
+        node {
+          id
+          name
+          createdAt
+          status {
+            ...DeploymentStatusFields
+          }
+        }
+      }
+      pageInfo {
+        hasNextPage
+        endCursor
+      }
+    }
+  }
+`;
+
+export const GET_DEPLOYMENT = gql`
+  query GetDeployment($id: ID!) {
+    deployment(id: $id) {
       id
       name
       composeYaml
@@ -27,19 +65,20 @@ export const GET_DEPLOYMENTS = gql`
   }
 `;
 
-export const GET_DEPLOYMENT_STATUS = gql`
-  query GetDeploymentStatus($id: ID!) {
-    deploymentStatus(id: $id) {
-      uuid
-      state
-      message
-      status
-      containers {
-        name
-        state
-        health
-        ports
-      }
+export const DEPLOYMENT_STATUS_CHANGED = gql`
+  ${DEPLOYMENT_STATUS_FIELDS}
+  subscription DeploymentStatusChanged($id: ID!) {
+    deploymentStatusChanged(id: $id) {
+      ...DeploymentStatusFields
+    }
+  }
+`;
+
+export const GET_DEPLOYMENT_STATUSES = gql`
+  ${DEPLOYMENT_STATUS_FIELDS}
+  query GetDeploymentStatuses($ids: [ID!]!) {
+    deploymentStatuses(ids: $ids) {
+      ...DeploymentStatusFields
     }
   }
 `;
@@ -113,6 +152,21 @@ export const SETUP_DOMAIN = gql`
   }
 `;
 
+export const GET_PLATFORM_SETTINGS = gql`
+  query GetPlatformSettings {
+    platformSettings {
+      fqdn
+      setupStatus
+      setupError
+      setupSteps {
+        type
+        status
+        error
+      }
+    }
+  }
+`;
+
 export const CREATE_ACCOUNT = gql`
   mutation CreateAccount($input: CreateAccountInput!) {
     createAccount(input: $input) {
@@ -148,8 +202,17 @@ export interface ChangePasswordInput {
 export interface Deployment {
   id: string;
   name: string;
-  composeYaml: string;
   createdAt: string;
+  status?: DeploymentStatus | null;
+}
+
+export interface DeploymentWithCompose extends Deployment {
+  composeYaml: string;
+}
+
+export interface PageInfo {
+  hasNextPage: boolean;
+  endCursor: string | null;
 }
 
 export interface ContainerStatus {
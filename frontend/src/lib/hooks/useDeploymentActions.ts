@@ -2,7 +2,6 @@ import { useState } from 'react';
 import { useMutation } from '@apollo/client';
 import { toast } from 'sonner';
 import { 
-  GET_DEPLOYMENTS, 
   STOP_DEPLOYMENT,
   START_DEPLOYMENT,
   DELETE_DEPLOYMENT,
@@ -19,15 +18,15 @@ export function useDeploymentActions() {
   const [deleteLoading, setDeleteLoading] = useState<Record<string, boolean>>({});
 
   const [stopDeployment] = useMutation<{ stopDeployment: boolean }>(STOP_DEPLOYMENT, {
-    refetchQueries: [{ query: GET_DEPLOYMENTS }],
+    refetchQueries: ['GetDeployments'],
   });
 
   const [startDeployment] = useMutation<{ startDeployment: Deployment }>(START_DEPLOYMENT, {
-    refetchQueries: [{ query: GET_DEPLOYMENTS }],
+    refetchQueries: ['GetDeployments'],
   });
 
   const [deleteDeployment] = useMutation<{ deleteDeployment: boolean }>(DELETE_DEPLOYMENT, {
-    refetchQueries: [{ query: GET_DEPLOYMENTS }],
+    refetchQueries: ['GetDeployments'],
   });
 
   const handleStopDeployment = async (
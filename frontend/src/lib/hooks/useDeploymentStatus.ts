@@ -1,28 +1,40 @@
 import { useState, useCallback, useRef } from 'react';
 import { useLazyQuery } from '@apollo/client';
-import { GET_DEPLOYMENT_STATUS, type DeploymentStatus, type Deployment } from '@/lib/graphql';
+import { GET_DEPLOYMENT_STATUSES, type DeploymentStatus, type Deployment } from '@/lib/graphql';
 
 export function useDeploymentStatus() {
   const [deploymentStatuses, setDeploymentStatuses] = useState<Record<string, DeploymentStatus>>({});
   const pollingIntervalRef = useRef<NodeJS.Timeout | null>(null);
 
-  const [fetchStatusForList] = useLazyQuery<{ deploymentStatus: DeploymentStatus }>(GET_DEPLOYMENT_STATUS, {
+  // One batched query for all listed deployments, answered by gateway-api with a single docker-control call
+  const [fetchStatusesForList] = useLazyQuery<{ deploymentStatuses: DeploymentStatus[] }>(GET_DEPLOYMENT_STATUSES, {
     fetchPolicy: 'network-only'
   });
 
-  const fetchDeploymentStatus = useCallback(async (deploymentId: string) => {
+  const fetchDeploymentStatuses = useCallback(async (deploymentIds: string[]) => {
+    if (deploymentIds.length === 0) return;
     try {
-      const { data } = await fetchStatusForList({ variables: { id: deploymentId } });
-      if (data?.deploymentStatus) {
-        setDeploymentStatuses(prev => ({
-          ...prev,
-          [deploymentId]: data.deploymentStatus
-        }));
+      const { data } = await fetchStatusesForList({ variables: { ids: deploymentIds } });
+      if (data?.deploymentStatuses) {
+        setDeploymentStatuses(prev => {
+          const next = { ...prev };
+          data.deploymentStatuses.forEach((status, index) => {
+            const deploymentId = deploymentIds[index];
+            if (deploymentId) {
+              next[deploymentId] = status;
+            }
+          });
+          return next;
+        });
       }
     } catch (error) {
-      console.error(`Failed to fetch deployment status for ${deploymentId}:`, error);
+      console.error('Failed to fetch deployment statuses:', error);
     }
-  }, [fetchStatusForList]);
+  }, [fetchStatusesForList]);
+
+  const fetchDeploymentStatus = useCallback(async (deploymentId: string) => {
+    await fetchDeploymentStatuses([deploymentId]);
+  }, [fetchDeploymentStatuses]);
 
   const getDeploymentStatus = useCallback((deploymentId: string): string => {
     return deploymentStatuses[deploymentId]?.state ?? 'unknown';
@@ -75,14 +87,20 @@ export function useDeploymentStatus() {
       pollingIntervalRef.current = null;
     }
 
-    deployments.forEach(deployment => {
-      void fetchDeploymentStatus(deployment.id);
+    // The list query already carries each deployment's status, so only later refreshes go to the server
+    setDeploymentStatuses(prev => {
+      const next = { ...prev };
+      deployments.forEach(deployment => {
+        if (deployment.status) {
+          next[deployment.id] = deployment.status;
+        }
+      });
+      return next;
     });
 
+    const deploymentIds = deployments.map(deployment => deployment.id);
     pollingIntervalRef.current = setInterval(() => {
-      deployments.forEach(deployment => {
-        void fetchDeploymentStatus(deployment.id);
-      });
+      void fetchDeploymentStatuses(deploymentIds);
     }, 15000);
 
     return () => {
@@ -91,7 +109,7 @@ export function useDeploymentStatus() {
         pollingIntervalRef.current = null;
       }
     };
-  }, [fetchDeploymentStatus]);
+  }, [fetchDeploymentStatuses]);
 
   return {
     deploymentStatuses,
@@ -103,4 +121,4 @@ export function useDeploymentStatus() {
     removeDeploymentStatus,
     setupPolling
   };
-} 
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+import { ApolloLink, Observable, type FetchResult } from '@apollo/client';
+import { print } from 'graphql';
+
+interface ServerSentEvent {
+  event: string;
+  data: string;
+}
+
+// Splits one event block into its event name and data lines; comment lines (keep-alives) are ignored
+const parseEvent = (block: string): ServerSentEvent => {
+  let event = 'message';
+  const data: string[] = [];
+  block.split('\n').forEach((line) => {
+    if (line.startsWith('event:')) {
+      event = line.slice(6).trim();
+    } else if (line.startsWith('data:')) {
+      data.push(line.slice(5).replace(/^ /, ''));
+    }
+  });
+  return { event, data: data.join('\n') };
+};
+
+/**
+ * Runs GraphQL subscriptions over the server-sent events transport of gateway-api: the operation is posted
+ * to the GraphQL endpoint with `Accept: text/event-stream`, every `next` event is one result and `complete`
+ * ends the subscription. Unsubscribing aborts the request.
+ */
+export const createSseLink = (uri: () => string) =>
+  new ApolloLink(
+    (operation) =>
+      new Observable<FetchResult>((observer) => {
+        const controller = new AbortController();
+        const { headers } = operation.getContext() as { headers?: Record<string, string> };
+
+        const run = async () => {
+          const response = await fetch(uri(), {
+            method: 'POST',
+            headers: {
+              ...headers,
+              'Content-Type': 'application/json',
+              Accept: 'text/event-stream',
+            },
+            body: JSON.stringify({
+              query: print(operation.query),
+              variables: operation.variables,
+              operationName: operation.operationName,
+            }),
+            signal: controller.signal,
+          });
+          if (!response.ok || !response.body) {
+            throw new Error(`Subscription request failed with status ${response.status}`);
+          }
+
+          const reader = response.body.getReader();
+          const decoder = new TextDecoder();
+          let buffer = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, '\n');
+
+            let end: number;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+              const { event, data } = parseEvent(buffer.slice(0, end));
+              buffer = buffer.slice(end + 2);
+              if (event === 'next' && data) {
+                observer.next(JSON.parse(data) as FetchResult);
+              } else if (event === 'complete') {
+                observer.complete();
+                controller.abort();
+                return;
+              }
+            }
+          }
+          observer.complete();
+        };
+
+        run().catch((error: unknown) => {
+          if (!controller.signal.aborted) {
+            observer.error(error);
+          }
+        });
+
+        return () => controller.abort();
+      })
+  );
@@ -172,6 +172,40 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    @GraphQlExceptionHandler(TooManyRequestsException.class)
+    public GraphQLError handleTooManyRequests(
+            TooManyRequestsException ex,
+            DataFetchingEnvironment env,
+            GraphqlErrorBuilder<?> builder) {
+        ErrorObject error = new ErrorObject();
+        error.setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        error.setMessage(ex.getMessage());
+        error.setTimestamp(new Date());
+        return builder
+                .message(error.getMessage())
+                .errorType(ErrorType.FORBIDDEN)
+                .extensions(Map.of(ERROR_KEY, error))
+                .path(env.getExecutionStepInfo().getPath())
+                .build();
+    }
+
+    @GraphQlExceptionHandler(ServiceUnavailableException.class)
+    public GraphQLError handleServiceUnavailable(
+            ServiceUnavailableException ex,
+            DataFetchingEnvironment env,
+            GraphqlErrorBuilder<?> builder) {
+        ErrorObject error = new ErrorObject();
+        error.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.setMessage(ex.getMessage());
+        error.setTimestamp(new Date());
+        return builder
+                .message(error.getMessage())
+                .errorType(ErrorType.INTERNAL_ERROR)
+                .extensions(Map.of(ERROR_KEY, error))
+                .path(env.getExecutionStepInfo().getPath())
+                .build();
+    }
+
     @GraphQlExceptionHandler(Exception.class)
     public GraphQLError handleGeneric(
             Exception ex,
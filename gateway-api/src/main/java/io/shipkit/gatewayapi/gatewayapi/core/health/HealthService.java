@@ -1,7 +1,9 @@
 package io.shipkit.gatewayapi.gatewayapi.core.health;
 
 import io.shipkit.gatewayapi.gatewayapi.core.security.account.AccountRepository;
+import io.shipkit.gatewayapi.gatewayapi.core.settings.DomainSetupStatus;
 import io.shipkit.gatewayapi.gatewayapi.core.settings.PlatformSettingRepository;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.DockerControlCircuitBreaker;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,11 +14,14 @@ public class HealthService {
     
     private final AccountRepository accountRepository;
     private final PlatformSettingRepository platformSettingRepository;
+    private final DockerControlCircuitBreaker dockerControlCircuitBreaker;
 
     @Transactional(readOnly = true)
     public StatusDTO getStatus() {
         boolean adminInitialized = accountRepository.count() > 0;
-        boolean domainInitialized = platformSettingRepository.count() > 0;
-        return new StatusDTO("healthy", adminInitialized, domainInitialized);
+        boolean domainInitialized = platformSettingRepository.existsBySetupStatusOrSetupStatusIsNull(DomainSetupStatus.SUCCEEDED);
+        DockerControlCircuitBreaker.State dockerControl = dockerControlCircuitBreaker.getState();
+        String status = dockerControl == DockerControlCircuitBreaker.State.CLOSED ? "healthy" : "degraded";
+        return new StatusDTO(status, adminInitialized, domainInitialized, dockerControl.name());
     }
 } 
\ No newline at end of file
@@ -13,4 +13,5 @@ public class StatusDTO {
     private String status;
     private boolean adminInitialized;
     private boolean domainInitialized;
+    private String dockerControl;
 } 
\ No newline at end of file
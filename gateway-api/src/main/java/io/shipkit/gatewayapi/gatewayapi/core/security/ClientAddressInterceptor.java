@@ -0,0 +1,30 @@
+package io.shipkit.gatewayapi.gatewayapi.core.security;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * Makes the client address available to controllers as {@code @ContextValue String clientAddress}. Behind
+ * nginx this is the address from {@code X-Forwarded-For}, see {@code server.forward-headers-strategy}.
+ */
+@Component
+public class ClientAddressInterceptor implements WebGraphQlInterceptor {
+
+    public static final String CONTEXT_KEY = "clientAddress";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress != null) {
+            request.configureExecutionInput((input, builder) ->
+                    builder.graphQLContext(Map.of(CONTEXT_KEY, remoteAddress.getHostString())).build());
+        }
+        return chain.next(request);
+    }
+}
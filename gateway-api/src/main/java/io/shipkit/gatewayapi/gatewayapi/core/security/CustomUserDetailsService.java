@@ -1,20 +1,128 @@
 package io.shipkit.gatewayapi.gatewayapi.core.security;
 
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.Account;
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.AccountChangedEvent;
 import io.shipkit.gatewayapi.gatewayapi.core.security.account.AccountRepository;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads accounts by email and keeps them for {@code security.user-cache.ttl}. Entries are dropped when an
+ * {@link AccountChangedEvent} is published, so logins and authenticated requests only reach the database for
+ * accounts that are not cached yet. Unknown emails are not cached.
+ * <p>
+ * A load can race a change: it may read the row before the changing transaction commits and store it after the
+ * eviction. Every eviction therefore bumps a per-email generation, and a load only caches what it read if the
+ * generation is still the one it started with. Bump and store run under the map lock of the email, so they
+ * cannot interleave.
+ */
 @Service
-@AllArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private record Entry(Account account, Instant loadedAt) {
+    }
+
     private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    /** Evictions per email, only written inside {@code cache.compute} for that email. */
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final Duration ttl;
+
+    public CustomUserDetailsService(AccountRepository accountRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${security.user-cache.max-size:1000}") int maxSize,
+                                    @Value("${security.user-cache.ttl:10m}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return accountRepository.findByEmail(email)
+        Entry entry = cache.get(email);
+        Instant now = Instant.now();
+        if (entry != null && entry.loadedAt().plus(ttl).isAfter(now)) {
+            return copy(entry.account());
+        }
+
+        long generation = generations.getOrDefault(email, 0L);
+        Account account = accountRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Account not found: " + email));
+        if (cache.size() >= maxSize) {
+            cache.values().removeIf(e -> !e.loadedAt().plus(ttl).isAfter(now));
+        }
+        if (cache.size() < maxSize) {
+            Entry loaded = new Entry(copy(account), now);
+            cache.compute(email, (key, current) -> generations.getOrDefault(key, 0L) == generation ? loaded : current);
+        }
+        return account;
+    }
+
+    /**
+     * Called after a successful login whose stored hash was created with a different BCrypt cost, so accounts
+     * move to {@code security.password.bcrypt-strength} without a password change.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Account account = accountRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Account not found: " + user.getUsername()));
+        account.setPassword(newPassword);
+        accountRepository.save(account);
+        eventPublisher.publishEvent(new AccountChangedEvent(account.getEmail()));
+        return copy(account);
+    }
+
+    /**
+     * Evicts the account right away and once more after the publishing transaction commits. A load that started
+     * before either eviction does not cache its result.
+     */
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        evict(event.email());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(event.email());
+                }
+            });
+        }
+    }
+
+    private void evict(String email) {
+        cache.compute(email, (key, current) -> {
+            generations.merge(key, 1L, Long::sum);
+            return null;
+        });
+    }
+
+    /**
+     * Callers get their own detached instance, the cached one is never handed out.
+     */
+    private static Account copy(Account account) {
+        return Account.builder()
+                .id(account.getId())
+                .email(account.getEmail())
+                .password(account.getPassword())
+                .passwordChangedAt(account.getPasswordChangedAt())
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package io.shipkit.gatewayapi.gatewayapi.core.security;
+
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.TooManyRequestsException;
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.dto.LoginRateLimitStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets per client address and per email that are checked before a login reaches the password hash.
+ * A bucket holds {@code capacity} attempts and regains one every {@code refill}; the address limit stops a
+ * single client from trying many accounts, the email limit stops guessing one account from many addresses.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private record Limit(int capacity, long refillNanos) {
+    }
+
+    /**
+     * A token bucket kept as the time at which it is full again, so taking a token is a single compare-and-set.
+     */
+    private static final class Bucket {
+        private final AtomicLong fullAt;
+
+        Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanoseconds until the next one is available
+         */
+        long tryAcquire(Limit limit, long now) {
+            long window = limit.capacity() * limit.refillNanos();
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + limit.refillNanos();
+                if (next - now > window) {
+                    return next - now - window;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+
+    private final Limit addressLimit;
+    private final Limit emailLimit;
+    private final Map<String, Bucket> addressBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> emailBuckets = new ConcurrentHashMap<>();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByAddress = new LongAdder();
+    private final LongAdder rejectedByEmail = new LongAdder();
+
+    public LoginRateLimiter(@Value("${security.login-rate-limit.per-address.capacity:20}") int addressCapacity,
+                            @Value("${security.login-rate-limit.per-address.refill:3s}") Duration addressRefill,
+                            @Value("${security.login-rate-limit.per-email.capacity:5}") int emailCapacity,
+                            @Value("${security.login-rate-limit.per-email.refill:30s}") Duration emailRefill) {
+        this.addressLimit = new Limit(addressCapacity, addressRefill.toNanos());
+        this.emailLimit = new Limit(emailCapacity, emailRefill.toNanos());
+    }
+
+    /**
+     * Takes one attempt from the buckets of the address and the email.
+     *
+     * @param clientAddress may be {@code null} if the address is unknown, then only the email is limited
+     * @throws TooManyRequestsException if either bucket is empty
+     */
+    public void acquire(String clientAddress, String email) {
+        long now = System.nanoTime();
+        if (clientAddress != null) {
+            acquire(addressBuckets, clientAddress, addressLimit, now, rejectedByAddress);
+        }
+        acquire(emailBuckets, email.toLowerCase(Locale.ROOT), emailLimit, now, rejectedByEmail);
+        allowed.increment();
+    }
+
+    public LoginRateLimitStatsDTO getStats() {
+        return new LoginRateLimitStatsDTO(allowed.sum(), rejectedByAddress.sum(), rejectedByEmail.sum(),
+                addressBuckets.size(), emailBuckets.size());
+    }
+
+    /**
+     * Drops buckets that have refilled completely; a new bucket for the same key starts out full anyway. An
+     * attempt racing with the removal may take its token from the dropped bucket, which costs at most that one
+     * attempt.
+     */
+    @Scheduled(fixedDelayString = "${security.login-rate-limit.evict-interval:1m}")
+    public void evictFull() {
+        long now = System.nanoTime();
+        addressBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        emailBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private static void acquire(Map<String, Bucket> buckets, String key, Limit limit, long now, LongAdder rejected) {
+        long waitNanos = buckets.computeIfAbsent(key, k -> new Bucket(now)).tryAcquire(limit, now);
+        if (waitNanos > 0) {
+            rejected.increment();
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new TooManyRequestsException("Too many login attempts, retry in " + seconds + "s");
+        }
+    }
+}
@@ -37,9 +37,15 @@ public class SecurityConfig {
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt with a configurable cost, isolated on its own small pool. Raising the strength is picked up
+     * transparently: {@link CustomUserDetailsService#updatePassword} stores a new hash on the next login.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength,
+                                           @Value("${security.password.threads:2}") int threads,
+                                           @Value("${security.password.queue-capacity:16}") int queueCapacity) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity);
     }
 
     @Bean
@@ -5,6 +5,7 @@ import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.UUID;
@@ -27,6 +28,12 @@ public class Account implements UserDetails {
     @Column(nullable = false)
     private String password;
 
+    /**
+     * When the password was last set by its owner, carried in issued tokens so older tokens can be rejected.
+     * Millisecond precision, like the token claim.
+     */
+    private Instant passwordChangedAt;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return new ArrayList<>();
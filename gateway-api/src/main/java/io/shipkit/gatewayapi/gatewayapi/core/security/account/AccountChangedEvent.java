@@ -0,0 +1,17 @@
+package io.shipkit.gatewayapi.gatewayapi.core.security.account;
+
+import java.time.Instant;
+
+/**
+ * Published when an account is created or its credentials change, so that caches holding account state can
+ * drop it.
+ *
+ * @param passwordChangedAt the new {@link Account#getPasswordChangedAt()} if the password was set, tokens issued
+ *                          before it are no longer valid
+ */
+public record AccountChangedEvent(String email, Instant passwordChangedAt) {
+
+    public AccountChangedEvent(String email) {
+        this(email, null);
+    }
+}
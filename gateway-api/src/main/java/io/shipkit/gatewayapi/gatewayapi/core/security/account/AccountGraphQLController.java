@@ -1,12 +1,17 @@
 package io.shipkit.gatewayapi.gatewayapi.core.security.account;
 
+import io.shipkit.gatewayapi.gatewayapi.core.security.ClientAddressInterceptor;
+import io.shipkit.gatewayapi.gatewayapi.core.security.LoginRateLimiter;
 import io.shipkit.gatewayapi.gatewayapi.core.security.account.dto.AuthPayloadDTO;
 import io.shipkit.gatewayapi.gatewayapi.core.security.account.dto.CreateAccountDTO;
 import io.shipkit.gatewayapi.gatewayapi.core.security.account.dto.ChangePasswordDTO;
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.dto.LoginRateLimitStatsDTO;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -16,6 +21,7 @@ import org.springframework.stereotype.Controller;
 public class AccountGraphQLController {
 
     private final AccountService accountService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @MutationMapping
     @PreAuthorize("permitAll()")
@@ -25,7 +31,9 @@ public class AccountGraphQLController {
 
     @MutationMapping
     @PreAuthorize("permitAll()")
-    public AuthPayloadDTO login(@Argument String email, @Argument String password) {
+    public AuthPayloadDTO login(@Argument String email, @Argument String password,
+                                @ContextValue(name = ClientAddressInterceptor.CONTEXT_KEY, required = false) String clientAddress) {
+        loginRateLimiter.acquire(clientAddress, email);
         return accountService.login(email, password);
     }
     
@@ -35,4 +43,10 @@ public class AccountGraphQLController {
         String email = authentication.getName();
         return accountService.changePassword(email, input.getOldPassword(), input.getNewPassword());
     }
-}
\ No newline at end of file
+
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public LoginRateLimitStatsDTO loginRateLimit() {
+        return loginRateLimiter.getStats();
+    }
+}
@@ -2,9 +2,13 @@ package io.shipkit.gatewayapi.gatewayapi.core.security.account;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface AccountRepository extends JpaRepository<Account, UUID> {
     Optional<Account> findByEmail(String email);
+
+    List<Account> findByPasswordChangedAtAfter(Instant since);
 }
\ No newline at end of file
@@ -1,18 +1,26 @@
 package io.shipkit.gatewayapi.gatewayapi.core.security.account;
 
 import io.shipkit.gatewayapi.gatewayapi.core.exceptions.AlreadyExistsException;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.InternalServerException;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.TooManyRequestsException;
 import io.shipkit.gatewayapi.gatewayapi.core.exceptions.UnauthorizedException;
 import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
+import io.shipkit.gatewayapi.gatewayapi.core.security.CustomUserDetailsService;
 import io.shipkit.gatewayapi.gatewayapi.core.security.account.dto.AuthPayloadDTO;
 import io.shipkit.gatewayapi.gatewayapi.core.security.jwt.JwtService;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Service
 @AllArgsConstructor
@@ -21,26 +29,37 @@ public class AccountService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * Not transactional as a whole: the password is hashed on the hashing pool first, only the checks and the
+     * insert run in a transaction. The checks are repeated there, the first pass only avoids hashing for a
+     * request that is going to be rejected anyway.
+     */
     public AuthPayloadDTO register(String email, String password) {
-        if (accountRepository.count() > 0) {
-            throw new BadRequestException("Registration is disabled. Admin account already exists.");
-        }
-        
-        if (accountRepository.findByEmail(email).isPresent()) {
-            throw new AlreadyExistsException("Email already taken: " + email);
-        }
-        Account newAccount = Account.builder()
-                .email(email)
-                .password(passwordEncoder.encode(password))
-                .build();
-        Account account =  accountRepository.save(newAccount);
+        checkRegistrationOpen(email);
+        String encodedPassword = passwordEncoder.encode(password);
+
+        Account account = transactionTemplate.execute(status -> {
+            checkRegistrationOpen(email);
+            Account created = accountRepository.save(Account.builder()
+                    .email(email)
+                    .password(encodedPassword)
+                    .passwordChangedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS))
+                    .build());
+            eventPublisher.publishEvent(new AccountChangedEvent(email, created.getPasswordChangedAt()));
+            return created;
+        });
+
         String token = jwtService.generateToken(account);
         return new AuthPayloadDTO(token);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Not transactional: the password check runs on the hashing pool and must not hold a connection while it
+     * waits. A hash with an outdated cost is replaced through {@link CustomUserDetailsService#updatePassword}.
+     */
     public AuthPayloadDTO login(String username, String password) {
         try {
             Authentication auth = authenticationManager.authenticate(
@@ -49,29 +68,61 @@ public class AccountService {
             Account account = (Account) auth.getPrincipal();
             String token = jwtService.generateToken(account);
             return new AuthPayloadDTO(token);
+        } catch (InternalAuthenticationServiceException ex) {
+            throw unwrap(ex);
         } catch (AuthenticationException ex) {
             throw new UnauthorizedException("Bad Credentials");
         }
     }
 
-    @Transactional
+    /**
+     * Not transactional as a whole: checking the old password and hashing the new one both wait for the hashing
+     * pool, so only the write that follows runs in a transaction.
+     */
     public AuthPayloadDTO changePassword(String email, String oldPassword, String newPassword) {
         try {
             // Authenticate with old password first
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(email, oldPassword)
             );
+        } catch (InternalAuthenticationServiceException ex) {
+            throw unwrap(ex);
         } catch (AuthenticationException ex) {
             throw new UnauthorizedException("Old password is incorrect");
         }
+        String encodedPassword = passwordEncoder.encode(newPassword);
 
-        Account account = accountRepository.findByEmail(email)
-                .orElseThrow(() -> new UnauthorizedException("Account not found"));
-
-        account.setPassword(passwordEncoder.encode(newPassword));
-        accountRepository.save(account);
+        Account account = transactionTemplate.execute(status -> {
+            Account changed = accountRepository.findByEmail(email)
+                    .orElseThrow(() -> new UnauthorizedException("Account not found"));
+            changed.setPassword(encodedPassword);
+            changed.setPasswordChangedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+            accountRepository.save(changed);
+            eventPublisher.publishEvent(new AccountChangedEvent(email, changed.getPasswordChangedAt()));
+            return changed;
+        });
 
         String token = jwtService.generateToken(account);
         return new AuthPayloadDTO(token);
     }
-}
\ No newline at end of file
+
+    private void checkRegistrationOpen(String email) {
+        if (accountRepository.count() > 0) {
+            throw new BadRequestException("Registration is disabled. Admin account already exists.");
+        }
+        if (accountRepository.findByEmail(email).isPresent()) {
+            throw new AlreadyExistsException("Email already taken: " + email);
+        }
+    }
+
+    /**
+     * The authentication provider wraps every non-authentication failure, including a full hashing queue;
+     * those must not be reported as wrong credentials.
+     */
+    private static RuntimeException unwrap(InternalAuthenticationServiceException ex) {
+        if (ex.getCause() instanceof InternalServerException || ex.getCause() instanceof TooManyRequestsException) {
+            return (RuntimeException) ex.getCause();
+        }
+        return ex;
+    }
+}
@@ -0,0 +1,4 @@
+package io.shipkit.gatewayapi.gatewayapi.core.security.account.dto;
+
+public record LoginRateLimitStatsDTO(long allowed, long rejectedByAddress, long rejectedByEmail,
+                                     int trackedAddresses, int trackedEmails) {}
@@ -5,39 +5,89 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates requests with a bearer token. By default the account is loaded (or taken from
+ * {@link VerifiedTokenCache}) for every token. With {@code jwt.stateless=true} the principal is built from the
+ * signed claims alone and only checked against the in-memory {@link TokenRevocationList}, so authenticated
+ * requests never reach the database.
+ */
 @Component
-@AllArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationList revocationList;
+    private final boolean stateless;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   CustomUserDetailsService userDetailsService,
+                                   VerifiedTokenCache tokenCache,
+                                   TokenRevocationList revocationList,
+                                   @Value("${jwt.stateless:false}") boolean stateless) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.revocationList = revocationList;
+        this.stateless = stateless;
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            String username = jwtService.extractUsername(token);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userDetails = userDetailsService.loadUserByUsername(username);
-                if (jwtService.isTokenValid(token, userDetails)) {
-                    var auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = stateless
+                    ? authenticateStateless(authHeader.substring(7))
+                    : authenticate(authHeader.substring(7));
+            if (userDetails != null) {
+                var auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails authenticateStateless(String rawToken) {
+        JwtToken token = jwtService.parseToken(rawToken);
+        if (token.subject() == null || token.isExpired() || revocationList.isRevoked(token)) {
+            return null;
+        }
+        return User.withUsername(token.subject())
+                .password("")
+                .authorities(token.roles().toArray(String[]::new))
+                .build();
+    }
+
+    private UserDetails authenticate(String rawToken) {
+        UserDetails cached = tokenCache.get(rawToken);
+        if (cached != null) {
+            return cached;
+        }
+        JwtToken token = jwtService.parseToken(rawToken);
+        if (token.subject() == null) {
+            return null;
+        }
+        long generation = tokenCache.generation(token.subject());
+        UserDetails userDetails = userDetailsService.loadUserByUsername(token.subject());
+        if (!jwtService.isTokenValid(token, userDetails)) {
+            return null;
+        }
+        tokenCache.put(rawToken, token, userDetails, generation);
+        return userDetails;
+    }
 }
\ No newline at end of file
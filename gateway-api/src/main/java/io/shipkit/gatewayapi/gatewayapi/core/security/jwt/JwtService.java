@@ -1,27 +1,34 @@
 package io.shipkit.gatewayapi.gatewayapi.core.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.io.DecodingException;
 import io.jsonwebtoken.security.Keys;
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.Account;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class JwtService {
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
     private static final int MIN_SECRET_LENGTH = 32;
+    private static final String ROLES_CLAIM = "roles";
+    private static final String PASSWORD_CHANGED_AT_CLAIM = "pwdChangedAt";
     
     @Value("${jwt.secret}")
     private String secret;
@@ -29,7 +36,14 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long expirationMs;
 
-    @EventListener(ApplicationReadyEvent.class)
+    private SecretKey key;
+    private JwtParser parser;
+
+    /**
+     * Validates the configuration and builds the signing key and parser once; both are immutable and shared
+     * by all requests.
+     */
+    @PostConstruct
     public void validateJwtConfiguration() {
         if (secret == null || secret.trim().isEmpty()) {
             throw new IllegalStateException("JWT secret cannot be null or empty. Please configure 'jwt.secret' property.");
@@ -49,6 +63,10 @@ public class JwtService {
                 throw new IllegalStateException("JWT expiration time must be positive. Please configure 'jwt.expiration' property correctly.");
             }
             
+            key = Keys.hmacShaKeyFor(decodedSecret);
+            parser = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build();
             logger.info("JWT Secret is good");
             
         } catch (IllegalArgumentException | DecodingException e) {
@@ -56,38 +74,44 @@ public class JwtService {
         }
     }
 
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-    }
-
     public String generateToken(UserDetails user) {
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(user.getUsername())
-                .addClaims(Map.of("roles", user.getAuthorities().stream()
-                        .map(GrantedAuthority::getAuthority).toList()))
+                .addClaims(Map.of(ROLES_CLAIM, user.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority).toList()));
+        if (user instanceof Account account && account.getPasswordChangedAt() != null) {
+            builder.claim(PASSWORD_CHANGED_AT_CLAIM, account.getPasswordChangedAt().toEpochMilli());
+        }
+        return builder
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return getClaims(token).getSubject();
-    }
-
-    public boolean isTokenValid(String token, UserDetails user) {
-        return extractUsername(token).equals(user.getUsername()) && !isExpired(token);
+    /**
+     * Verifies signature and expiry with a single parse.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public JwtToken parseToken(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        Number passwordChangedAt = claims.get(PASSWORD_CHANGED_AT_CLAIM, Number.class);
+        return new JwtToken(claims.getSubject(), claims.getExpiration().toInstant(),
+                roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+                passwordChangedAt == null ? null : Instant.ofEpochMilli(passwordChangedAt.longValue()));
     }
 
-    private boolean isExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
+    /**
+     * Checks the token against the current account, rejecting tokens issued before the last password change.
+     */
+    public boolean isTokenValid(JwtToken token, UserDetails user) {
+        return token.subject().equals(user.getUsername()) && !token.isExpired()
+                && !(user instanceof Account account && token.predates(account.getPasswordChangedAt()));
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Duration getExpiration() {
+        return Duration.ofMillis(expirationMs);
     }
 }
\ No newline at end of file
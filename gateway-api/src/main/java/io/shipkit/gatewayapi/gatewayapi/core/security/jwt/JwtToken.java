@@ -0,0 +1,23 @@
+package io.shipkit.gatewayapi.gatewayapi.core.security.jwt;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A token whose signature and expiry have been verified, reduced to the claims the gateway uses.
+ *
+ * @param passwordChangedAt when the subject's password was set at issue time, {@code null} for older tokens
+ */
+public record JwtToken(String subject, Instant expiresAt, List<String> roles, Instant passwordChangedAt) {
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+
+    /**
+     * @return whether the token was issued for a password older than {@code changedAt}
+     */
+    public boolean predates(Instant changedAt) {
+        return changedAt != null && (passwordChangedAt == null || passwordChangedAt.isBefore(changedAt));
+    }
+}
@@ -0,0 +1,62 @@
+package io.shipkit.gatewayapi.gatewayapi.core.security.jwt;
+
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.Account;
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.AccountChangedEvent;
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.AccountRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Password changes that still invalidate unexpired tokens, used by the stateless mode of
+ * {@link JwtAuthenticationFilter} instead of loading the account. Holds at most one instant per account and
+ * forgets it once every token issued before it has expired anyway.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final Map<String, Instant> passwordChanges = new ConcurrentHashMap<>();
+    private final AccountRepository accountRepository;
+    private final JwtService jwtService;
+
+    public TokenRevocationList(AccountRepository accountRepository, JwtService jwtService) {
+        this.accountRepository = accountRepository;
+        this.jwtService = jwtService;
+    }
+
+    public boolean isRevoked(JwtToken token) {
+        return token.predates(passwordChanges.get(token.subject()));
+    }
+
+    /**
+     * Recorded right away rather than after commit so no request can slip through in between; if the change
+     * rolls back, tokens of that account merely have to be renewed.
+     */
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (event.passwordChangedAt() != null) {
+            passwordChanges.merge(event.email(), event.passwordChangedAt(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+    }
+
+    /**
+     * Restores the changes whose tokens may still be in use, so a restart does not revive revoked tokens.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecentChanges() {
+        for (Account account : accountRepository.findByPasswordChangedAtAfter(Instant.now().minus(jwtService.getExpiration()))) {
+            onAccountChanged(new AccountChangedEvent(account.getEmail(), account.getPasswordChangedAt()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.cache.purge-interval:5m}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(jwtService.getExpiration());
+        passwordChanges.values().removeIf(changedAt -> changedAt.isBefore(cutoff));
+    }
+}
@@ -0,0 +1,115 @@
+package io.shipkit.gatewayapi.gatewayapi.core.security.jwt;
+
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.AccountChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens that {@link JwtAuthenticationFilter} already verified, together with the account they belong to.
+ * A hit skips both the signature check and the account lookup until the token expires. Entries are keyed by
+ * the SHA-256 of the token so raw tokens are not kept in memory. When the cache is full, new tokens are simply
+ * verified on every request until expired entries have been purged.
+ * <p>
+ * A request can verify a token against the account as it was before a change and store it after the change
+ * evicted the account. Each eviction bumps a per-account generation; {@link #put} takes the generation read
+ * before the account was loaded and drops its entry again if an eviction happened since.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(UserDetails user, Instant expiresAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public UserDetails get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiresAt().isAfter(Instant.now())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.user();
+    }
+
+    /**
+     * To be read before the account of a token is loaded and passed to {@link #put}.
+     */
+    public long generation(String username) {
+        return generations.getOrDefault(username, 0L);
+    }
+
+    public void put(String token, JwtToken verified, UserDetails user, long generation) {
+        if (entries.size() >= maxSize) {
+            purgeExpired();
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        String key = hash(token);
+        Entry entry = new Entry(user, verified.expiresAt());
+        entries.put(key, entry);
+        // An eviction bumps the generation before it removes entries, so either it removes this entry or this
+        // check sees the new generation
+        if (generation(user.getUsername()) != generation) {
+            entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * Drops all cached tokens of the changed account, now and again once the publishing transaction commits.
+     */
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        evict(event.email());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(event.email());
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.cache.purge-interval:5m}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        entries.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+    }
+
+    private void evict(String username) {
+        generations.merge(username, 1L, Long::sum);
+        entries.values().removeIf(entry -> entry.user().getUsername().equals(username));
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
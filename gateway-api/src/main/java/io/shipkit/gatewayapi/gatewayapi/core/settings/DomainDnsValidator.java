@@ -0,0 +1,151 @@
+package io.shipkit.gatewayapi.gatewayapi.core.settings;
+
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.InitialDirContext;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks that a domain points to this server. The A and AAAA records are queried from DNS in parallel, next to
+ * the system resolver (which also sees {@code /etc/hosts}), and all lookups together are bounded by
+ * {@code dns-validation.timeout}; whatever answered in time counts. A domain is valid if any of its addresses
+ * is one of the server's public addresses, so dual-stack hosts work with either record. Lookup results are
+ * cached for {@code dns-validation.positive-ttl}, domains without any address for the shorter
+ * {@code dns-validation.negative-ttl} so a freshly added record is picked up soon.
+ */
+@Slf4j
+@Component
+public class DomainDnsValidator {
+
+    private record CachedLookup(Set<InetAddress> addresses, Instant expiresAt) {
+    }
+
+    private final Duration timeout;
+    private final Duration positiveTtl;
+    private final Duration negativeTtl;
+    private final Map<String, CachedLookup> cache = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dns-lookup-", 0).factory());
+
+    public DomainDnsValidator(@Value("${dns-validation.timeout:5s}") Duration timeout,
+                              @Value("${dns-validation.positive-ttl:60s}") Duration positiveTtl,
+                              @Value("${dns-validation.negative-ttl:10s}") Duration negativeTtl) {
+        this.timeout = timeout;
+        this.positiveTtl = positiveTtl;
+        this.negativeTtl = negativeTtl;
+    }
+
+    /**
+     * @throws BadRequestException if the domain has no address or none of them belongs to this server
+     */
+    public void validate(String domain, List<InetAddress> publicAddresses) {
+        Set<InetAddress> resolved = resolve(domain);
+        if (resolved.stream().anyMatch(publicAddresses::contains)) {
+            return;
+        }
+        String records = String.join(" or ", publicAddresses.stream()
+                .map(address -> (address.getAddress().length == 4 ? "an A record" : "an AAAA record") + " pointing to " + address.getHostAddress())
+                .toList());
+        String found = resolved.isEmpty() ? "does not resolve" : "resolves to " + resolved.stream().map(InetAddress::getHostAddress).toList();
+        throw new BadRequestException("Domain " + found + ", not to this server's IP. Configure " + records
+                + " for '" + domain + "' or continue anyway.");
+    }
+
+    /**
+     * @return the A and AAAA addresses of {@code domain} that were found within the timeout
+     */
+    public Set<InetAddress> resolve(String domain) {
+        String key = domain.toLowerCase(Locale.ROOT);
+        CachedLookup cached = cache.get(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached.addresses();
+        }
+
+        List<Future<List<InetAddress>>> lookups = List.of(
+                executor.submit(() -> queryDns(domain, "A")),
+                executor.submit(() -> queryDns(domain, "AAAA")),
+                executor.submit(() -> List.of(InetAddress.getAllByName(domain))));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Set<InetAddress> addresses = new LinkedHashSet<>();
+        for (Future<List<InetAddress>> lookup : lookups) {
+            try {
+                addresses.addAll(lookup.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                lookup.cancel(true);
+                log.debug("DNS lookup of {} timed out", domain);
+            } catch (ExecutionException e) {
+                log.debug("DNS lookup of {} failed: {}", domain, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        Set<InetAddress> result = Set.copyOf(addresses);
+        cache.put(key, new CachedLookup(result, Instant.now().plus(result.isEmpty() ? negativeTtl : positiveTtl)));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${dns-validation.purge-interval:5m}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        cache.values().removeIf(lookup -> !lookup.expiresAt().isAfter(now));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queries the configured name servers directly, so the per-query timeout applies instead of the JVM
+     * resolver's.
+     */
+    private List<InetAddress> queryDns(String domain, String recordType) throws NamingException {
+        Hashtable<String, String> env = new Hashtable<>();
+        env.put("java.naming.factory.initial", "com.sun.jndi.dns.DnsContextFactory");
+        // One retry with the doubled timeout, together they fit into the overall deadline
+        env.put("com.sun.jndi.dns.timeout.initial", String.valueOf(Math.max(1, timeout.toMillis() / 3)));
+        env.put("com.sun.jndi.dns.timeout.retries", "1");
+        InitialDirContext context = new InitialDirContext(env);
+        try {
+            Attribute records = context.getAttributes(domain, new String[]{recordType}).get(recordType);
+            List<InetAddress> addresses = new ArrayList<>();
+            if (records != null) {
+                NamingEnumeration<?> values = records.getAll();
+                while (values.hasMore()) {
+                    InetAddress address = PublicIpResolver.parseLiteral(String.valueOf(values.next()));
+                    if (address != null) {
+                        addresses.add(address);
+                    }
+                }
+            }
+            return addresses;
+        } finally {
+            context.close();
+        }
+    }
+}
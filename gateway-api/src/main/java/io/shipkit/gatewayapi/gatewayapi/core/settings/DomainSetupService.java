@@ -1,71 +1,111 @@
 package io.shipkit.gatewayapi.gatewayapi.core.settings;
 
-import freemarker.template.Configuration;
-import freemarker.template.Template;
-import freemarker.template.TemplateException;
 import io.shipkit.gatewayapi.gatewayapi.domain.deployment.DockerControlGrpcClient;
 import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
-
-import java.io.IOException;
-import java.net.InetAddress;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.time.Duration;
-import java.util.Map;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
 import io.shipkit.gatewayapi.gatewayapi.core.exceptions.InternalServerException;
 
+/**
+ * Configures the platform domain. {@link #configureDomain} only records the setup and its steps and returns;
+ * the steps run one after another on a background thread and each is persisted as it starts and finishes, so
+ * progress can be followed through {@code platformSettings} and no transaction is held while a certificate is
+ * issued. Setups left PENDING or RUNNING by a restart are resumed from their first unfinished step.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DomainSetupService {
 
+    private static final List<DomainSetupStatus> ACTIVE = List.of(DomainSetupStatus.PENDING, DomainSetupStatus.RUNNING);
+    private static final String SETUP_IN_PROGRESS = "Another domain setup is still in progress";
+
     private final PlatformSettingRepository repository;
     private final DockerControlGrpcClient dockerClient;
-    private final Configuration freemarkerConfig;
-
-    @Value("${nginx.vhost.output-dir:/nginx}")
-    private String nginxOutputDir;
-
-    @Value("${nginx.reload.container-name:nginx}")
-    private String nginxContainerName;
-
-    private static final String VHOST_TEMPLATE_NAME = "nginx_vhost.ftl";
-
+    private final NginxVhostRenderer vhostRenderer;
+    private final NginxReloadScheduler reloadScheduler;
+    private final PublicIpResolver publicIpResolver;
+    private final DomainDnsValidator dnsValidator;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("domain-setup").factory());
+
+    /**
+     * Whether nginx may not have loaded the files on disk yet. Starts out {@code true} because a reload might
+     * have failed before the last restart; only touched by the setup thread.
+     */
+    private boolean nginxConfigChanged = true;
+
+    /**
+     * Records the setup and schedules it once the transaction commits.
+     *
+     * @throws BadRequestException if the domain is malformed or another setup has not finished yet
+     */
     @Transactional
     public void configureDomain(String domain, boolean skipValidation, boolean sslEnabled, boolean forceSsl) {
-        if (!skipValidation) {
-            validateDomain(domain);
+        // Basic syntax check
+        if (!domain.matches("^[a-zA-Z0-9.-]+$")) {
+            throw new BadRequestException("Invalid domain format");
+        }
+        if (!repository.findBySetupStatusIn(ACTIVE).isEmpty()) {
+            throw new BadRequestException(SETUP_IN_PROGRESS);
         }
 
         PlatformSetting entity = repository.findByFqdn(domain).orElse(new PlatformSetting());
         entity.setFqdn(domain);
         entity.setSslEnabled(sslEnabled);
         entity.setForceSsl(forceSsl);
-        repository.save(entity);
-
-        if (sslEnabled) {
-            issueCertificate(domain);
+        entity.setSkipValidation(skipValidation);
+        entity.setSetupStatus(DomainSetupStatus.PENDING);
+        entity.setSetupError(null);
+        // Truncated to what the column stores, so the value compares equal after a round trip
+        entity.setSetupStartedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        if (entity.getSetupSteps() == null) {
+            entity.setSetupSteps(new ArrayList<>());
+        }
+        entity.getSetupSteps().clear();
+        for (DomainSetupStepType type : DomainSetupStepType.values()) {
+            boolean skipped = (type == DomainSetupStepType.VALIDATE_DNS && skipValidation)
+                    || (type == DomainSetupStepType.ISSUE_CERTIFICATE && !sslEnabled);
+            entity.getSetupSteps().add(DomainSetupStep.builder()
+                    .type(type)
+                    .status(skipped ? DomainSetupStatus.SKIPPED : DomainSetupStatus.PENDING)
+                    .build());
+        }
+        UUID id;
+        try {
+            // Flushed here so that losing the race against a concurrent setup surfaces as a bad request
+            id = repository.saveAndFlush(entity).getId();
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException(SETUP_IN_PROGRESS);
         }
 
-        writeVhostFile(domain, sslEnabled, forceSsl);
-        reloadNginx();
-    }
-
-    private void issueCertificate(String domain) {
-        var result = dockerClient.issueCertificate(domain);
-        if (result.getStatus() != 0) {
-            throw new InternalServerException("Failed to issue certificate for " + domain + ": " + result.getMessage());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(id);
+                }
+            });
+        } else {
+            submit(id);
         }
     }
 
@@ -78,73 +118,137 @@ public class DomainSetupService {
         configureDomain(domain, false, false, false);
     }
 
-    private void validateDomain(String domain) {
-        // Basic syntax check
-        if (!domain.matches("^[a-zA-Z0-9.-]+$")) {
-            throw new BadRequestException("Invalid domain format");
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedSetups() {
+        for (PlatformSetting setting : repository.findBySetupStatusIn(ACTIVE)) {
+            log.info("Resuming domain setup of {}", setting.getFqdn());
+            submit(setting.getId());
         }
+    }
 
-        String expectedIp = fetchPublicIp();
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(UUID id) {
         try {
-            InetAddress resolved = InetAddress.getByName(domain);
-            String resolvedIp = resolved.getHostAddress();
-            if (!expectedIp.equals(resolvedIp)) {
-                throw new BadRequestException("Domain does not resolve to this server's IP. Configure an A record for '" + domain + "' pointing to " + expectedIp + " or continue anyway.");
-            }
-        } catch (IOException e) {
-            throw new InternalServerException("Failed to resolve domain");
+            executor.execute(() -> run(id));
+        } catch (RejectedExecutionException e) {
+            log.debug("Domain setup executor is shut down, not running setup {}", id);
         }
     }
 
-    private String fetchPublicIp() {
+    /**
+     * Runs the unfinished steps. Every transition is saved on its own, outside of any long transaction; the
+     * detached {@code setting} stays the working copy. Whatever goes wrong, including a save, the setup does not
+     * stay active: that would block every further setup until the next restart.
+     */
+    private void run(UUID id) {
+        PlatformSetting setting = repository.findById(id).orElse(null);
+        if (setting == null || !ACTIVE.contains(setting.getSetupStatus())) {
+            return;
+        }
+        if (setting.getSetupStartedAt() == null) {
+            setting.setSetupStartedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        }
+        String error = "Domain setup was interrupted";
         try {
-            HttpClient client = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(5))
-                    .build();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://ipinfo.io/ip"))
-                    .timeout(Duration.ofSeconds(10))
-                    .build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.body().trim();
-        } catch (IOException | InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new InternalServerException("Could not determine public IP");
+            runSteps(setting);
+        } catch (RuntimeException e) {
+            log.warn("Domain setup of {} failed: {}", setting.getFqdn(), e.getMessage());
+            error = e.getMessage();
+        } finally {
+            releaseSetup(setting, error);
         }
     }
 
-    private void writeVhostFile(String domain, boolean sslEnabled, boolean forceSsl) {
-        try {
-            Template template = freemarkerConfig.getTemplate(VHOST_TEMPLATE_NAME);
-            Map<String, Object> model = Map.of(
-                    "domain", domain,
-                    "sslEnabled", sslEnabled,
-                    "forceSsl", forceSsl
-            );
-            String rendered = FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
-            Path outPath = Path.of(nginxOutputDir, domain + ".conf");
-            Files.createDirectories(outPath.getParent());
-            Files.writeString(outPath, rendered);
-            log.info("Wrote nginx vhost to {}", outPath);
-
-            // Overwrite (or create) default.conf so that public IP returns 404 after setup
-            Path defaultConfPath = Path.of(nginxOutputDir, "default.conf");
+    private void runSteps(PlatformSetting setting) {
+        setting.setSetupStatus(DomainSetupStatus.RUNNING);
+        repository.save(setting);
+
+        for (DomainSetupStep step : setting.getSetupSteps()) {
+            if (step.getStatus() == DomainSetupStatus.SUCCEEDED || step.getStatus() == DomainSetupStatus.SKIPPED) {
+                continue;
+            }
             try {
-                String defaultContent = "server {\n    listen 80 default_server;\n    server_name _;\n    return 404;\n}\n";
-                Files.writeString(defaultConfPath, defaultContent);
-                log.info("Replaced default nginx config at {}", defaultConfPath);
-            } catch (IOException ioe) {
-                log.warn("Could not update default nginx config: {}", ioe.getMessage());
+                step.setStatus(DomainSetupStatus.RUNNING);
+                step.setError(null);
+                step.setStartedAt(Instant.now());
+                step.setFinishedAt(null);
+                repository.save(setting);
+                boolean done = execute(step.getType(), setting);
+                step.setStatus(done ? DomainSetupStatus.SUCCEEDED : DomainSetupStatus.SKIPPED);
+                step.setFinishedAt(Instant.now());
+                repository.save(setting);
+            } catch (RuntimeException e) {
+                log.warn("Domain setup of {} failed at {}: {}", setting.getFqdn(), step.getType(), e.getMessage());
+                step.setStatus(DomainSetupStatus.FAILED);
+                step.setError(e.getMessage());
+                step.setFinishedAt(Instant.now());
+                setting.setSetupStatus(DomainSetupStatus.FAILED);
+                setting.setSetupError(e.getMessage());
+                repository.save(setting);
+                return;
             }
-        } catch (IOException | TemplateException e) {
-            throw new InternalServerException("Failed to write NGINX vhost file");
         }
+        setting.setSetupStatus(DomainSetupStatus.SUCCEEDED);
+        repository.save(setting);
+        log.info("Domain setup of {} finished", setting.getFqdn());
     }
 
-    private void reloadNginx() {
-        var result = dockerClient.reloadNginx(nginxContainerName);
+    /**
+     * Marks the setup FAILED unless one of its saves already ended it. A single update that does not depend on
+     * the detached copy, so it also works when saving that copy did not; it only matches this very setup, not one
+     * started again for the same domain in the meantime.
+     */
+    private void releaseSetup(PlatformSetting setting, String error) {
+        try {
+            repository.finishActiveSetup(setting.getId(), setting.getSetupStartedAt(), DomainSetupStatus.FAILED, error);
+        } catch (RuntimeException e) {
+            log.error("Could not release domain setup of {}", setting.getFqdn(), e);
+        }
+    }
+
+    /**
+     * @return {@code false} if the step turned out to have nothing to do
+     */
+    private boolean execute(DomainSetupStepType type, PlatformSetting setting) {
+        switch (type) {
+            case VALIDATE_DNS -> validateDomain(setting.getFqdn());
+            case ISSUE_CERTIFICATE -> issueCertificate(setting.getFqdn());
+            case WRITE_VHOST -> {
+                if (vhostRenderer.write(setting.getFqdn(), setting.isSslEnabled(), setting.isForceSsl())) {
+                    nginxConfigChanged = true;
+                }
+            }
+            case RELOAD_NGINX -> {
+                if (!nginxConfigChanged) {
+                    return false;
+                }
+                reloadNginx();
+                nginxConfigChanged = false;
+            }
+        }
+        return true;
+    }
+
+    private void issueCertificate(String domain) {
+        var result = dockerClient.issueCertificate(domain);
         if (result.getStatus() != 0) {
-            throw new InternalServerException("Failed to reload NGINX: " + result.getMessage());
+            throw new InternalServerException("Failed to issue certificate for " + domain + ": " + result.getMessage());
+        }
+    }
+
+    private void validateDomain(String domain) {
+        dnsValidator.validate(domain, publicIpResolver.getPublicAddresses());
+    }
+
+    private void reloadNginx() {
+        try {
+            reloadScheduler.requestReload().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
         }
     }
 } 
\ No newline at end of file
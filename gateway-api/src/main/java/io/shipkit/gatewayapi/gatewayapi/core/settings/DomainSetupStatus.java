@@ -0,0 +1,10 @@
+package io.shipkit.gatewayapi.gatewayapi.core.settings;
+
+public enum DomainSetupStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    /** Only used for steps that the requested setup does not need. */
+    SKIPPED
+}
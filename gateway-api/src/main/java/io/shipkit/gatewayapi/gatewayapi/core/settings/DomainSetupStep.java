@@ -0,0 +1,30 @@
+package io.shipkit.gatewayapi.gatewayapi.core.settings;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DomainSetupStep {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private DomainSetupStepType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private DomainSetupStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+}
@@ -0,0 +1,11 @@
+package io.shipkit.gatewayapi.gatewayapi.core.settings;
+
+/**
+ * Steps of a domain setup, in the order they run.
+ */
+public enum DomainSetupStepType {
+    VALIDATE_DNS,
+    ISSUE_CERTIFICATE,
+    WRITE_VHOST,
+    RELOAD_NGINX
+}
@@ -0,0 +1,88 @@
+package io.shipkit.gatewayapi.gatewayapi.core.settings;
+
+import docker_control.ActionResult;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.InternalServerException;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.DockerControlGrpcClient;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces nginx reloads. The first request opens a window of {@code nginx.reload.coalesce-window}; every
+ * request until it closes joins the same batch, which then runs {@code nginx -t} and, only if the configuration
+ * is valid, a single reload. All callers of a batch get its outcome. Batches run one at a time, so a request
+ * arriving during a reload starts the next batch and always sees the files as they are after its own change.
+ */
+@Slf4j
+@Component
+public class NginxReloadScheduler {
+
+    private final DockerControlGrpcClient dockerClient;
+    private final String containerName;
+    private final Duration window;
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("nginx-reload").factory());
+    /** The batch that is still collecting requests, guarded by {@code this}. */
+    private CompletableFuture<Void> pending;
+
+    public NginxReloadScheduler(DockerControlGrpcClient dockerClient,
+                                @Value("${nginx.reload.container-name:nginx}") String containerName,
+                                @Value("${nginx.reload.coalesce-window:500ms}") Duration window) {
+        this.dockerClient = dockerClient;
+        this.containerName = containerName;
+        this.window = window;
+    }
+
+    /**
+     * @return completes once nginx runs a configuration that includes every change made before this call;
+     *         fails with {@link InternalServerException} if the test or the reload failed
+     */
+    public synchronized CompletableFuture<Void> requestReload() {
+        if (pending == null) {
+            CompletableFuture<Void> batch = new CompletableFuture<>();
+            try {
+                scheduler.schedule(this::reload, window.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.failedFuture(new InternalServerException("NGINX reload scheduler is shut down"));
+            }
+            pending = batch;
+        }
+        return pending;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void reload() {
+        CompletableFuture<Void> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = null;
+        }
+        try {
+            ActionResult test = dockerClient.testNginxConfig(containerName);
+            if (test.getStatus() != 0) {
+                throw new InternalServerException("NGINX configuration is invalid, not reloading: " + test.getDetails().strip());
+            }
+            ActionResult result = dockerClient.reloadNginx(containerName);
+            if (result.getStatus() != 0) {
+                throw new InternalServerException("Failed to reload NGINX: " + result.getMessage());
+            }
+            log.info("Reloaded NGINX");
+            batch.complete(null);
+        } catch (RuntimeException e) {
+            log.warn("NGINX reload failed: {}", e.getMessage());
+            batch.completeExceptionally(e);
+        }
+    }
+}
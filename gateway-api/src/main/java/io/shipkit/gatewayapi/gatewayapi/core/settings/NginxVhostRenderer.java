@@ -0,0 +1,156 @@
+package io.shipkit.gatewayapi.gatewayapi.core.settings;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.InternalServerException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes the nginx configuration for the platform domain and the routes of deployments. The template is compiled once at startup; each file
+ * is rendered into memory and only written if its SHA-256 differs from the file on disk, through a temp file in
+ * the same directory that is then moved into place, so nginx never reads a partially written file.
+ */
+@Slf4j
+@Component
+public class NginxVhostRenderer {
+
+    private static final String VHOST_TEMPLATE_NAME = "nginx_vhost.ftl";
+    private static final String DEPLOYMENT_TEMPLATE_NAME = "nginx_deployment.ftl";
+    /** Makes requests to the bare IP return 404 once a domain is configured. */
+    private static final String DEFAULT_CONF = "server {\n    listen 80 default_server;\n    server_name _;\n    return 404;\n}\n";
+
+    private final Configuration freemarkerConfig;
+    private final Path outputDir;
+    private Template template;
+    private Template deploymentTemplate;
+
+    public NginxVhostRenderer(Configuration freemarkerConfig,
+                              @Value("${nginx.vhost.output-dir:/nginx}") String outputDir) {
+        this.freemarkerConfig = freemarkerConfig;
+        this.outputDir = Path.of(outputDir);
+    }
+
+    @PostConstruct
+    void compileTemplate() throws IOException {
+        template = freemarkerConfig.getTemplate(VHOST_TEMPLATE_NAME);
+        deploymentTemplate = freemarkerConfig.getTemplate(DEPLOYMENT_TEMPLATE_NAME);
+    }
+
+    /**
+     * Writes {@code <domain>.conf} and {@code default.conf}.
+     *
+     * @return whether any file changed, {@code false} if both already had the rendered content
+     */
+    public boolean write(String domain, boolean sslEnabled, boolean forceSsl) {
+        byte[] vhost = render(template, Map.of(
+                "domain", domain,
+                "sslEnabled", sslEnabled,
+                "forceSsl", forceSsl
+        ));
+        boolean changed;
+        try {
+            Files.createDirectories(outputDir);
+            changed = writeIfChanged(outputDir.resolve(domain + ".conf"), vhost);
+        } catch (IOException e) {
+            throw new InternalServerException("Failed to write NGINX vhost file");
+        }
+        try {
+            changed |= writeIfChanged(outputDir.resolve("default.conf"), DEFAULT_CONF.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.warn("Could not update default nginx config: {}", e.getMessage());
+        }
+        return changed;
+    }
+
+    /**
+     * Writes {@code deployment-<id>.conf}, which serves {@code domain} from {@code upstream} ({@code host:port}).
+     *
+     * @return whether the file changed
+     */
+    public boolean writeDeploymentRoute(UUID deploymentId, String domain, String upstream) {
+        byte[] conf = render(deploymentTemplate, Map.of(
+                "domain", domain,
+                "upstream", upstream
+        ));
+        try {
+            Files.createDirectories(outputDir);
+            return writeIfChanged(deploymentRoutePath(deploymentId), conf);
+        } catch (IOException e) {
+            throw new InternalServerException("Failed to write NGINX route of deployment " + deploymentId);
+        }
+    }
+
+    /**
+     * @return whether there was a file to delete
+     */
+    public boolean deleteDeploymentRoute(UUID deploymentId) {
+        try {
+            return Files.deleteIfExists(deploymentRoutePath(deploymentId));
+        } catch (IOException e) {
+            throw new InternalServerException("Failed to delete NGINX route of deployment " + deploymentId);
+        }
+    }
+
+    private Path deploymentRoutePath(UUID deploymentId) {
+        return outputDir.resolve("deployment-" + deploymentId + ".conf");
+    }
+
+    private byte[] render(Template template, Map<String, Object> model) {
+        StringWriter buffer = new StringWriter();
+        try {
+            template.process(model, buffer);
+        } catch (IOException | TemplateException e) {
+            throw new InternalServerException("Failed to render NGINX vhost file");
+        }
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private boolean writeIfChanged(Path path, byte[] content) throws IOException {
+        if (Files.exists(path) && MessageDigest.isEqual(sha256(Files.readAllBytes(path)), sha256(content))) {
+            log.debug("{} is up to date", path);
+            return false;
+        }
+        Path temp = Files.createTempFile(path.getParent(), "." + path.getFileName(), ".tmp");
+        try {
+            Files.write(temp, content);
+            // Temp files are private, nginx runs as another user
+            if (temp.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-r--r--"));
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.info("Wrote nginx config to {}", path);
+        return true;
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -30,4 +32,44 @@ public class PlatformSetting {
     private boolean sslEnabled;
 
     private boolean forceSsl;
-} 
\ No newline at end of file
+
+    private boolean skipValidation;
+
+    /**
+     * State of the last setup, {@code null} for settings written before setups ran in the background.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private DomainSetupStatus setupStatus;
+
+    @Column(columnDefinition = "TEXT")
+    private String setupError;
+
+    /**
+     * When the last setup was started. A domain that is configured again keeps its row and {@code createdAt}, so
+     * this is what tells the current setup apart from older ones.
+     */
+    private Instant setupStartedAt;
+
+    /**
+     * {@code true} while the setup is PENDING or RUNNING, {@code null} otherwise. The unique constraint admits any
+     * number of nulls but a single {@code true}, so the database rejects a second active setup even when two are
+     * started at the same time.
+     */
+    @Column(unique = true)
+    @Setter(AccessLevel.NONE)
+    private Boolean setupActive;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "platform_setting_setup_step", joinColumns = @JoinColumn(name = "platform_setting_id"))
+    @OrderColumn(name = "position")
+    @Builder.Default
+    private List<DomainSetupStep> setupSteps = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    void updateSetupActive() {
+        boolean active = setupStatus == DomainSetupStatus.PENDING || setupStatus == DomainSetupStatus.RUNNING;
+        setupActive = active ? Boolean.TRUE : null;
+    }
+}
@@ -1,6 +1,7 @@
 package io.shipkit.gatewayapi.gatewayapi.core.settings;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
@@ -24,6 +25,7 @@ public class PlatformSettingGraphQLController {
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
     public PlatformSetting platformSettings() {
-        return repository.findTopByOrderByCreatedAtDesc().orElse(null);
+        // Only one setup can be active, and it is always the one started last
+        return repository.findLatestStarted(Limit.of(1)).stream().findFirst().orElse(null);
     }
 } 
\ No newline at end of file
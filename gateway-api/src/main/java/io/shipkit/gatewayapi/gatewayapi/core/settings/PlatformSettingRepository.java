@@ -1,14 +1,38 @@
 package io.shipkit.gatewayapi.gatewayapi.core.settings;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PlatformSettingRepository extends JpaRepository<PlatformSetting, UUID> {
-    Optional<PlatformSetting> findTopByOrderByCreatedAtDesc();
+
+    /**
+     * Settings by the time their last setup started; settings that never ran one count from their creation.
+     */
+    @Query("select s from PlatformSetting s order by coalesce(s.setupStartedAt, s.createdAt) desc")
+    List<PlatformSetting> findLatestStarted(Limit limit);
     boolean existsByFqdn(String fqdn);
     Optional<PlatformSetting> findByFqdn(String fqdn);
+    boolean existsBySetupStatusOrSetupStatusIsNull(DomainSetupStatus status);
+    List<PlatformSetting> findBySetupStatusIn(Collection<DomainSetupStatus> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("update PlatformSetting s set s.setupStatus = :status, s.setupError = :error, s.setupActive = null "
+            + "where s.id = :id and s.setupStartedAt = :startedAt and s.setupActive = true")
+    int finishActiveSetup(@Param("id") UUID id,
+                          @Param("startedAt") Instant startedAt,
+                          @Param("status") DomainSetupStatus status,
+                          @Param("error") String error);
 } 
\ No newline at end of file
@@ -0,0 +1,256 @@
+package io.shipkit.gatewayapi.gatewayapi.core.settings;
+
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.InternalServerException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Public addresses of this server, looked up from the configured sources in order until one yields an address:
+ * <ul>
+ *     <li>{@code config}: the fixed addresses in {@code public-ip.addresses}</li>
+ *     <li>{@code interface}: globally routable addresses of the local network interfaces</li>
+ *     <li>{@code http}: the plain-text response of each URL in {@code public-ip.urls}</li>
+ * </ul>
+ * The result is refreshed on a thread of its own, one lookup at a time, and kept for {@code public-ip.ttl}. Callers
+ * only read memory: once addresses are known they are returned even while a refresh is running, and only the very
+ * first lookup is waited for. If a refresh fails, the last known addresses stay in use.
+ */
+@Slf4j
+@Component
+public class PublicIpResolver {
+
+    private record Resolved(List<InetAddress> addresses, Instant resolvedAt) {
+    }
+
+    private final List<String> sources;
+    private final List<String> configuredAddresses;
+    private final List<String> urls;
+    private final Duration ttl;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("public-ip").factory());
+    private final AtomicReference<CompletableFuture<Resolved>> inFlight = new AtomicReference<>();
+    private volatile Resolved resolved;
+
+    public PublicIpResolver(@Value("${public-ip.sources:config,interface,http}") List<String> sources,
+                            @Value("${public-ip.addresses:}") List<String> configuredAddresses,
+                            @Value("${public-ip.urls:https://ipinfo.io/ip,https://api.ipify.org}") List<String> urls,
+                            @Value("${public-ip.ttl:10m}") Duration ttl,
+                            @Value("${public-ip.timeout:5s}") Duration timeout) {
+        this.sources = sources;
+        this.configuredAddresses = configuredAddresses;
+        this.urls = urls;
+        this.ttl = ttl;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * @throws InternalServerException if no source yields an address and none is known from earlier
+     */
+    public List<InetAddress> getPublicAddresses() {
+        Resolved current = resolved;
+        if (current == null) {
+            try {
+                current = refreshAsync().join();
+            } catch (CompletionException e) {
+                log.warn("Public IP lookup failed: {}", e.getCause().getMessage());
+            }
+        } else if (!current.resolvedAt().plus(ttl).isAfter(Instant.now())) {
+            refreshAsync();
+        }
+        if (current == null) {
+            throw new InternalServerException("Could not determine public IP");
+        }
+        return current.addresses();
+    }
+
+    /**
+     * Runs once at startup and then periodically, keeping the cache warm. Only starts the lookup, so the scheduler
+     * thread is never held up by a slow source.
+     */
+    @Scheduled(fixedDelayString = "${public-ip.refresh-interval:5m}")
+    public void refresh() {
+        refreshAsync();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a lookup unless one is already running, in which case that one is returned.
+     */
+    private CompletableFuture<Resolved> refreshAsync() {
+        CompletableFuture<Resolved> started = new CompletableFuture<>();
+        CompletableFuture<Resolved> running = inFlight.compareAndExchange(null, started);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    started.complete(refreshNow());
+                } catch (Throwable e) {
+                    started.completeExceptionally(e);
+                } finally {
+                    inFlight.set(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.set(null);
+            started.complete(resolved);
+        }
+        return started;
+    }
+
+    /**
+     * Only runs on {@link #executor}, so lookups never overlap.
+     *
+     * @return the newest known addresses, {@code null} if there are none yet
+     */
+    private Resolved refreshNow() {
+        List<InetAddress> addresses = resolve();
+        if (addresses.isEmpty()) {
+            return resolved;
+        }
+        Resolved updated = new Resolved(addresses, Instant.now());
+        if (resolved == null || !resolved.addresses().equals(addresses)) {
+            log.info("Public IP is {}", addresses.stream().map(InetAddress::getHostAddress).toList());
+        }
+        resolved = updated;
+        return updated;
+    }
+
+    private List<InetAddress> resolve() {
+        for (String source : sources) {
+            List<InetAddress> addresses = switch (source.trim()) {
+                case "config" -> fromConfig();
+                case "interface" -> fromInterfaces();
+                case "http" -> fromHttp();
+                default -> {
+                    log.warn("Unknown public IP source '{}'", source);
+                    yield List.of();
+                }
+            };
+            if (!addresses.isEmpty()) {
+                return addresses;
+            }
+        }
+        return List.of();
+    }
+
+    private List<InetAddress> fromConfig() {
+        List<InetAddress> addresses = new ArrayList<>();
+        for (String address : configuredAddresses) {
+            if (address.isBlank()) {
+                continue;
+            }
+            InetAddress parsed = parseLiteral(address);
+            if (parsed == null) {
+                log.warn("Ignoring invalid public-ip.addresses entry '{}'", address);
+            } else {
+                addresses.add(parsed);
+            }
+        }
+        return addresses;
+    }
+
+    private List<InetAddress> fromInterfaces() {
+        Set<InetAddress> addresses = new LinkedHashSet<>();
+        try {
+            for (NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                if (!networkInterface.isUp() || networkInterface.isLoopback()) {
+                    continue;
+                }
+                networkInterface.inetAddresses().filter(PublicIpResolver::isGlobal).forEach(addresses::add);
+            }
+        } catch (SocketException e) {
+            log.debug("Could not enumerate network interfaces: {}", e.getMessage());
+        }
+        return new ArrayList<>(addresses);
+    }
+
+    private List<InetAddress> fromHttp() {
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            try {
+                HttpRequest request = HttpRequest.newBuilder()
+                        .uri(URI.create(url.trim()))
+                        .timeout(timeout)
+                        .build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                InetAddress address = response.statusCode() == 200 ? parseLiteral(response.body()) : null;
+                if (address != null) {
+                    return List.of(address);
+                }
+                log.debug("Public IP lookup at {} returned {}", url, response.statusCode());
+            } catch (IOException | IllegalArgumentException e) {
+                log.debug("Public IP lookup at {} failed: {}", url, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return List.of();
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Parses an IP literal without ever falling back to a DNS lookup.
+     *
+     * @return {@code null} if {@code value} is not an IPv4 or IPv6 literal
+     */
+    static InetAddress parseLiteral(String value) {
+        String literal = value.trim();
+        // Host names never contain ':', and dotted quads are matched exactly
+        if (!literal.matches("\\d{1,3}(\\.\\d{1,3}){3}") && !(literal.contains(":") && literal.matches("[0-9a-fA-F:.]+"))) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(literal);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static boolean isGlobal(InetAddress address) {
+        return !address.isLoopbackAddress() && !address.isLinkLocalAddress() && !address.isSiteLocalAddress()
+                && !address.isAnyLocalAddress() && !address.isMulticastAddress()
+                // IPv6 unique local addresses (fc00::/7) are not covered by isSiteLocalAddress
+                && !(address.getAddress().length == 16 && (address.getAddress()[0] & 0xfe) == 0xfc)
+                // Carrier-grade NAT (100.64.0.0/10)
+                && !(address.getAddress().length == 4 && (address.getAddress()[0] & 0xff) == 100
+                        && (address.getAddress()[1] & 0xc0) == 64);
+    }
+}
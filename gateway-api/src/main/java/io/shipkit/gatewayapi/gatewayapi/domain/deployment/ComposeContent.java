@@ -0,0 +1,31 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Gzip-compressed compose YAML, stored once per distinct content and addressed by its SHA-256 hash.
+ */
+@Entity
+@Table(name = "compose_content")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ComposeContent {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false, length = 16 * 1024 * 1024)
+    private byte[] data;
+
+    @Column(nullable = false)
+    private int size;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
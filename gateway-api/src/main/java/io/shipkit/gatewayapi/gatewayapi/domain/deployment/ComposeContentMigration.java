@@ -0,0 +1,54 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves compose files of existing installations from the former {@code deployment.compose_yaml} column into
+ * {@link ComposeContent}. Hibernate's schema update adds {@code compose_hash} but never drops the old NOT NULL
+ * column, which would reject every new deployment. No-op once the column is gone.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class ComposeContentMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ComposeContentStore composeStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void migrate() {
+        if (!hasLegacyColumn()) {
+            return;
+        }
+        int migrated = transactionTemplate.execute(tx -> {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "select id, compose_yaml from deployment where compose_hash is null");
+            for (Map<String, Object> row : rows) {
+                String hash = composeStore.store((String) row.get("compose_yaml"));
+                jdbcTemplate.update("update deployment set compose_hash = ? where id = ?", hash, row.get("id"));
+            }
+            jdbcTemplate.execute("alter table deployment drop column compose_yaml");
+            return rows.size();
+        });
+        log.info("Moved {} compose files into compose_content", migrated);
+    }
+
+    private boolean hasLegacyColumn() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData().getColumns(null, null, "deployment", "compose_yaml")) {
+                return columns.next();
+            }
+        }));
+    }
+}
@@ -0,0 +1,6 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ComposeContentRepository extends JpaRepository<ComposeContent, String> {
+}
@@ -0,0 +1,150 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.InternalServerException;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.ResourceNotFoundException;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed storage for compose files. Identical YAML is stored once; deployments only keep the hash,
+ * so loading a {@link Deployment} never pulls the file itself.
+ */
+@Component
+@AllArgsConstructor
+public class ComposeContentStore {
+
+    private final ComposeContentRepository contentRepository;
+
+    /**
+     * Stores {@code yaml} unless identical content already exists.
+     *
+     * @return the SHA-256 hash addressing the content
+     */
+    @Transactional
+    public String store(String yaml) {
+        byte[] raw = yaml.getBytes(StandardCharsets.UTF_8);
+        String hash = hash(raw);
+        if (!contentRepository.existsById(hash)) {
+            contentRepository.save(ComposeContent.builder()
+                    .hash(hash)
+                    .data(gzip(raw))
+                    .size(raw.length)
+                    .createdAt(Instant.now())
+                    .build());
+        }
+        return hash;
+    }
+
+    /**
+     * Stores the file read from {@code in} without materializing it: the stream is hashed and compressed on the
+     * fly, so only the compressed bytes are held in memory.
+     *
+     * @return the SHA-256 hash addressing the content
+     */
+    @Transactional
+    public String store(InputStream in) {
+        MessageDigest digest = sha256();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        long size;
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            size = new DigestInputStream(in, digest).transferTo(out);
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read compose file");
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        if (!contentRepository.existsById(hash)) {
+            contentRepository.save(ComposeContent.builder()
+                    .hash(hash)
+                    .data(buffer.toByteArray())
+                    .size(Math.toIntExact(size))
+                    .createdAt(Instant.now())
+                    .build());
+        }
+        return hash;
+    }
+
+    @Transactional(readOnly = true)
+    public String load(String hash) {
+        return decode(find(hash));
+    }
+
+    @Transactional(readOnly = true)
+    public ComposeContent find(String hash) {
+        return contentRepository.findById(hash)
+                .orElseThrow(() -> new ResourceNotFoundException("Compose content not found: " + hash));
+    }
+
+    @Transactional(readOnly = true)
+    public boolean exists(String hash) {
+        return contentRepository.existsById(hash);
+    }
+
+    /**
+     * Decompressing stream over the content, for callers that pass the file on without holding it as a String.
+     */
+    public InputStream open(ComposeContent content) {
+        try {
+            return new GZIPInputStream(new ByteArrayInputStream(content.getData()));
+        } catch (IOException e) {
+            throw new InternalServerException("Corrupt compose content " + content.getHash());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, String> loadAll(Collection<String> hashes) {
+        Map<String, String> result = new HashMap<>();
+        for (ComposeContent content : contentRepository.findAllById(hashes)) {
+            result.put(content.getHash(), decode(content));
+        }
+        return result;
+    }
+
+    private static String hash(byte[] raw) {
+        return HexFormat.of().formatHex(sha256().digest(raw));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String decode(ComposeContent content) {
+        try (InputStream in = open(content)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new InternalServerException("Corrupt compose content " + content.getHash());
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(raw);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compress compose content", e);
+        }
+        return buffer.toByteArray();
+    }
+}
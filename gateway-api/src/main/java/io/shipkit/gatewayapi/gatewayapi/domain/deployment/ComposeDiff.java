@@ -0,0 +1,150 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Semantic difference between two compose files. Both documents are parsed and canonicalized first, so
+ * whitespace, comments, key order and the list/map spelling of {@code environment} and {@code labels} do not
+ * count as changes.
+ *
+ * @param kind     how far the change reaches
+ * @param services services that were added or changed, only set for {@link Kind#SERVICES}
+ */
+public record ComposeDiff(Kind kind, Set<String> services) {
+
+    public enum Kind {
+        /** Both files describe the same project. */
+        NONE,
+        /** Only top-level keys that do not reach a container changed ({@code version}, {@code name}, {@code x-*}). */
+        METADATA,
+        /** Only entries below {@code services} changed; removed services are cleaned up as orphans. */
+        SERVICES,
+        /** Networks, volumes or other project-wide settings changed, or a file could not be parsed. */
+        FULL
+    }
+
+    private static final Set<String> METADATA_KEYS = Set.of("version", "name");
+
+    public static ComposeDiff between(String previousYaml, String currentYaml) {
+        Map<String, Object> previous;
+        Map<String, Object> current;
+        try {
+            previous = canonicalize(previousYaml);
+            current = canonicalize(currentYaml);
+        } catch (YAMLException | ClassCastException e) {
+            return new ComposeDiff(Kind.FULL, Set.of());
+        }
+        if (previous.equals(current)) {
+            return new ComposeDiff(Kind.NONE, Set.of());
+        }
+
+        Set<String> topLevelKeys = new HashSet<>(previous.keySet());
+        topLevelKeys.addAll(current.keySet());
+        boolean servicesChanged = false;
+        for (String key : topLevelKeys) {
+            if (Objects.equals(previous.get(key), current.get(key)) || isMetadata(key)) {
+                continue;
+            }
+            if (!key.equals("services")) {
+                return new ComposeDiff(Kind.FULL, Set.of());
+            }
+            servicesChanged = true;
+        }
+        if (!servicesChanged) {
+            return new ComposeDiff(Kind.METADATA, Set.of());
+        }
+
+        Map<String, Object> previousServices = section(previous, "services");
+        Map<String, Object> currentServices = section(current, "services");
+        Set<String> changed = new TreeSet<>();
+        currentServices.forEach((name, definition) -> {
+            if (!Objects.equals(definition, previousServices.get(name))) {
+                changed.add(name);
+            }
+        });
+        return new ComposeDiff(Kind.SERVICES, changed);
+    }
+
+    private static boolean isMetadata(String key) {
+        return METADATA_KEYS.contains(key) || key.startsWith("x-");
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> section(Map<String, Object> document, String key) {
+        Object value = document.get(key);
+        return value instanceof Map<?, ?> map ? (Map<String, Object>) map : Map.of();
+    }
+
+    /**
+     * Parses and canonicalizes a compose file.
+     *
+     * @throws YAMLException if the file is not valid YAML
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> canonicalize(String yaml) {
+        LoaderOptions options = new LoaderOptions();
+        Object document = new Yaml(new SafeConstructor(options), new Representer(new DumperOptions()), new DumperOptions(),
+                options, new PlainScalarResolver()).load(yaml);
+        Object canonical = canonicalize(null, document);
+        return canonical == null ? Map.of() : (Map<String, Object>) canonical;
+    }
+
+    /**
+     * Loads plain scalars as strings, the way Compose (YAML 1.2) reads them: without this, YAML 1.1 turns
+     * {@code 3000:30} into a sexagesimal number and {@code on} into a boolean. Merge keys and nulls still resolve.
+     */
+    private static final class PlainScalarResolver extends Resolver {
+        @Override
+        protected void addImplicitResolvers() {
+            addImplicitResolver(Tag.MERGE, MERGE, "<");
+            addImplicitResolver(Tag.NULL, NULL, "~nN\0");
+            addImplicitResolver(Tag.NULL, EMPTY, null);
+        }
+    }
+
+    /**
+     * Sorts mappings by key, renders scalars as strings (so {@code 8080} and {@code "8080"} compare equal) and
+     * turns {@code KEY=value} lists of {@code environment} and {@code labels} into mappings.
+     */
+    private static Object canonicalize(String key, Object node) {
+        if (node instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((k, v) -> sorted.put(String.valueOf(k), canonicalize(String.valueOf(k), v)));
+            return sorted;
+        }
+        if (node instanceof List<?> list) {
+            if ("environment".equals(key) || "labels".equals(key)) {
+                Map<String, Object> entries = new TreeMap<>();
+                for (Object item : list) {
+                    String entry = String.valueOf(item);
+                    int separator = entry.indexOf('=');
+                    entries.put(separator < 0 ? entry : entry.substring(0, separator),
+                            separator < 0 ? null : entry.substring(separator + 1));
+                }
+                return entries;
+            }
+            List<Object> items = new ArrayList<>(list.size());
+            for (Object item : list) {
+                items.add(canonicalize(null, item));
+            }
+            return items;
+        }
+        return node == null ? null : String.valueOf(node);
+    }
+}
@@ -0,0 +1,110 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Attaches the routed service of a compose file to the network nginx runs in, under an alias that is unique per
+ * docker-control project. The file is edited on the YAML node tree and serialized again, so every scalar keeps
+ * the spelling and type it was written with; only the {@code networks} of the service and of the project change.
+ */
+public final class ComposeRouting {
+
+    private ComposeRouting() {
+    }
+
+    /**
+     * Host name nginx uses to reach {@code service} of {@code project}.
+     */
+    public static String alias(String project, String service) {
+        return project + "-" + service;
+    }
+
+    /**
+     * @throws BadRequestException if the service does not exist or does not use bridge networking
+     */
+    public static String withRouteNetwork(String yaml, String project, String service, String network) {
+        MappingNode root;
+        try {
+            if (!(new Yaml(new SafeConstructor(new LoaderOptions())).compose(new StringReader(yaml)) instanceof MappingNode mapping)) {
+                throw new BadRequestException("Compose file must be a mapping");
+            }
+            root = mapping;
+        } catch (YAMLException e) {
+            throw new BadRequestException("Invalid compose YAML: " + e.getMessage());
+        }
+        if (!(get(root, "services") instanceof MappingNode services)
+                || !(get(services, service) instanceof MappingNode definition)) {
+            throw new BadRequestException("Routed service " + service + " is not defined in the compose file");
+        }
+        if (get(definition, "network_mode") != null) {
+            throw new BadRequestException("Routed service " + service + " sets network_mode and cannot join the route network");
+        }
+
+        MappingNode serviceNetworks = switch (get(definition, "networks")) {
+            // Without networks the service is only in the default network, which it has to keep
+            case null -> mapping(new NodeTuple(scalar("default"), mapping()));
+            case SequenceNode names -> mapping(names.getValue().stream()
+                    .map(name -> new NodeTuple(name, mapping()))
+                    .toArray(NodeTuple[]::new));
+            case MappingNode existing -> existing;
+            default -> throw new BadRequestException("networks of service " + service + " must be a list or a mapping");
+        };
+        put(serviceNetworks, network, mapping(new NodeTuple(scalar("aliases"),
+                new SequenceNode(Tag.SEQ, List.of(scalar(alias(project, service))), DumperOptions.FlowStyle.BLOCK))));
+        put(definition, "networks", serviceNetworks);
+
+        MappingNode projectNetworks = get(root, "networks") instanceof MappingNode existing ? existing : mapping();
+        put(projectNetworks, network, mapping(
+                new NodeTuple(scalar("external"), new ScalarNode(Tag.BOOL, "true", null, null, DumperOptions.ScalarStyle.PLAIN)),
+                new NodeTuple(scalar("name"), scalar(network))));
+        put(root, "networks", projectNetworks);
+
+        StringWriter out = new StringWriter();
+        try {
+            new Yaml().serialize(root, out);
+        } catch (YAMLException e) {
+            throw new BadRequestException("Compose file could not be rewritten: " + e.getMessage());
+        }
+        return out.toString();
+    }
+
+    private static Node get(MappingNode mapping, String key) {
+        for (NodeTuple tuple : mapping.getValue()) {
+            if (tuple.getKeyNode() instanceof ScalarNode scalar && scalar.getValue().equals(key)) {
+                return tuple.getValueNode();
+            }
+        }
+        return null;
+    }
+
+    private static void put(MappingNode mapping, String key, Node value) {
+        List<NodeTuple> tuples = new ArrayList<>(mapping.getValue());
+        tuples.removeIf(tuple -> tuple.getKeyNode() instanceof ScalarNode scalar && scalar.getValue().equals(key));
+        tuples.add(new NodeTuple(scalar(key), value));
+        mapping.setValue(tuples);
+    }
+
+    private static MappingNode mapping(NodeTuple... tuples) {
+        return new MappingNode(Tag.MAP, new ArrayList<>(List.of(tuples)), DumperOptions.FlowStyle.BLOCK);
+    }
+
+    private static ScalarNode scalar(String value) {
+        return new ScalarNode(Tag.STR, value, null, null, DumperOptions.ScalarStyle.PLAIN);
+    }
+}
@@ -0,0 +1,40 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.ComposeUploadDTO;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Multipart upload for compose files too large to embed in a GraphQL mutation. The servlet container spools
+ * the part to disk; it is read twice as a stream, once for validation and once to hash and compress it, so the
+ * raw file never sits on the heap. The returned hash is passed as {@code composeHash} to
+ * {@code createDeployment} or {@code updateDeployment}.
+ */
+@RestController
+@AllArgsConstructor
+public class ComposeUploadController {
+
+    private final ComposeContentStore composeStore;
+
+    @PostMapping(path = "/deployments/compose", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ComposeUploadDTO upload(@RequestPart("file") MultipartFile file) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            ComposeValidator.validate(reader);
+        }
+        try (InputStream in = file.getInputStream()) {
+            return new ComposeUploadDTO(composeStore.store(in), file.getSize());
+        }
+    }
+}
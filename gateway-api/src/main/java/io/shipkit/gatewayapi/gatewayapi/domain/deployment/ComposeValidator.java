@@ -0,0 +1,130 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rejects input that is not a compose file before it is stored. The document is checked on the YAML event
+ * stream, so validating a large upload does not build its object tree.
+ */
+public final class ComposeValidator {
+
+    private ComposeValidator() {
+    }
+
+    public static void validate(String yaml) {
+        validate(new StringReader(yaml));
+    }
+
+    /**
+     * @throws BadRequestException if the document is not valid YAML or not a mapping with a {@code services} key
+     */
+    public static void validate(Reader yaml) {
+        int depth = 0;
+        long rootNodes = 0;
+        boolean hasServices = false;
+        try {
+            for (Event event : new Yaml(new SafeConstructor(new LoaderOptions())).parse(yaml)) {
+                if (event instanceof CollectionStartEvent) {
+                    if (depth == 0 && !(event instanceof MappingStartEvent)) {
+                        throw new BadRequestException("Compose file must be a mapping");
+                    }
+                    if (depth == 1) {
+                        rootNodes++;
+                    }
+                    depth++;
+                } else if (event instanceof CollectionEndEvent) {
+                    depth--;
+                } else if (event instanceof ScalarEvent scalar) {
+                    if (depth == 0) {
+                        throw new BadRequestException("Compose file must be a mapping");
+                    }
+                    // Nodes of the root mapping alternate between key and value
+                    if (depth == 1 && rootNodes++ % 2 == 0 && "services".equals(scalar.getValue())) {
+                        hasServices = true;
+                    }
+                } else if (event instanceof AliasEvent && depth == 1) {
+                    rootNodes++;
+                }
+            }
+        } catch (YAMLException e) {
+            throw new BadRequestException("Invalid compose YAML: " + e.getMessage());
+        }
+        if (!hasServices) {
+            throw new BadRequestException("Compose file has no services");
+        }
+    }
+
+    /**
+     * @throws BadRequestException if the file does not define the service a route points to
+     */
+    public static void validateRoute(String yaml, String routedService) {
+        if (!(services(yaml).get(routedService) instanceof Map<?, ?>)) {
+            throw new BadRequestException("Routed service " + routedService + " is not defined in the compose file");
+        }
+    }
+
+    /**
+     * A blue/green update runs the old and the new project at the same time, which fails for services that claim
+     * host-wide resources: published host ports, fixed container names or the host network.
+     *
+     * @throws BadRequestException if the file cannot run twice at the same time
+     */
+    public static void validateBlueGreen(String yaml) {
+        Map<String, Object> services = services(yaml);
+        for (Map.Entry<String, Object> entry : services.entrySet()) {
+            if (!(entry.getValue() instanceof Map<?, ?> service)) {
+                continue;
+            }
+            if (service.containsKey("container_name")) {
+                throw sideBySideConflict("service " + entry.getKey() + " sets container_name");
+            }
+            if ("host".equals(service.get("network_mode"))) {
+                throw sideBySideConflict("service " + entry.getKey() + " uses the host network");
+            }
+            if (service.get("ports") instanceof List<?> ports) {
+                Optional<?> published = ports.stream()
+                        .filter(ComposeValidator::publishesHostPort)
+                        .map(port -> port instanceof Map<?, ?> longSyntax ? longSyntax.get("published") : port)
+                        .findFirst();
+                if (published.isPresent()) {
+                    throw sideBySideConflict("service " + entry.getKey() + " publishes host port " + published.get());
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> services(String yaml) {
+        try {
+            return ComposeDiff.section(ComposeDiff.canonicalize(yaml), "services");
+        } catch (YAMLException | ClassCastException e) {
+            throw new BadRequestException("Invalid compose YAML: the services could not be read");
+        }
+    }
+
+    private static BadRequestException sideBySideConflict(String reason) {
+        return new BadRequestException("The BLUE_GREEN update strategy needs a compose file that can run twice, but " + reason);
+    }
+
+    private static boolean publishesHostPort(Object port) {
+        if (port instanceof Map<?, ?> longSyntax) {
+            return longSyntax.get("published") != null;
+        }
+        return String.valueOf(port).contains(":");
+    }
+}
@@ -18,9 +18,16 @@ public class Deployment {
     @GeneratedValue
     private UUID id;
 
-    @Lob
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String composeYaml;
+    /**
+     * SHA-256 of the compose file in {@link ComposeContent}.
+     */
+    @Column(length = 64)
+    private String composeHash;
+
+    /**
+     * Number of the {@link DeploymentRevision} that {@link #composeHash} belongs to.
+     */
+    private Integer revision;
 
     @Column(nullable = false)
     private String name;
@@ -28,11 +35,48 @@ public class Deployment {
     @Column(nullable = false)
     private Instant createdAt;
 
-    public static Deployment create(String name, String composeYaml) {
-        return Deployment.builder()
-                .name(name)
-                .composeYaml(composeYaml)
-                .createdAt(Instant.now())
-                .build();
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private DeploymentState state;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    /**
+     * What the running job is doing right now, e.g. image pull progress. Cleared on every state change.
+     */
+    private String progress;
+
+    private Instant updatedAt;
+
+    private UUID jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private DeploymentUpdateStrategy updateStrategy;
+
+    /**
+     * Slot that currently serves a {@link DeploymentUpdateStrategy#BLUE_GREEN} deployment, null until its first
+     * switch.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private DeploymentSlot slot;
+
+    @Embedded
+    private DeploymentRoute route;
+
+    /**
+     * Rows written before update strategies existed have no value and keep the old stop-and-start behaviour.
+     */
+    public DeploymentUpdateStrategy getUpdateStrategy() {
+        return updateStrategy != null ? updateStrategy : DeploymentUpdateStrategy.RECREATE;
+    }
+
+    /**
+     * docker-control project that runs the live slot.
+     */
+    public String getProjectName() {
+        return DeploymentSlot.projectName(id, slot);
     }
-} 
\ No newline at end of file
+}
@@ -1,19 +1,27 @@
 package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
 
-import docker_control.AppStatus;
 import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentStatusDTO;
 import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.CreateDeploymentDTO;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentSortDTO;
 import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.UpdateDeploymentDTO;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID; 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @AllArgsConstructor
@@ -35,14 +43,20 @@ public class DeploymentGraphQLController {
     
     @MutationMapping
     @PreAuthorize("isAuthenticated()")
-    public boolean deleteDeployment(@Argument UUID id) {
+    public Deployment rollbackDeployment(@Argument UUID id, @Argument int revision) {
+        return deploymentService.rollbackDeployment(id, revision);
+    }
+
+    @MutationMapping
+    @PreAuthorize("isAuthenticated()")
+    public Boolean deleteDeployment(@Argument UUID id) {
         deploymentService.deleteDeployment(id);
         return true;
     }
 
     @MutationMapping
     @PreAuthorize("isAuthenticated()")
-    public boolean stopDeployment(@Argument UUID id) {
+    public Boolean stopDeployment(@Argument UUID id) {
         deploymentService.stopDeployment(id);
         return true;
     }
@@ -55,14 +69,65 @@ public class DeploymentGraphQLController {
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public DeploymentStatusDTO deploymentStatus(@Argument UUID id) {
-        AppStatus status = deploymentService.getStatus(id);
-        return DeploymentStatusDTO.from(status);
+    public CompletableFuture<DeploymentStatusDTO> deploymentStatus(@Argument UUID id) {
+        return deploymentService.getStatus(id);
+    }
+
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public CompletableFuture<List<DeploymentStatusDTO>> deploymentStatuses(@Argument List<UUID> ids) {
+        return deploymentService.getStatuses(ids);
     }
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public List<Deployment> deployments() {
-        return deploymentService.listDeployments();
+    public Deployment deployment(@Argument UUID id) {
+        return deploymentService.findById(id);
+    }
+
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public Window<Deployment> deployments(ScrollSubrange subrange,
+                                          @Argument String nameContains,
+                                          @Argument DeploymentSortDTO sort) {
+        return deploymentService.listDeployments(subrange, nameContains, sort);
+    }
+
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public DeploymentJob deploymentJob(@Argument UUID id) {
+        return deploymentService.findJob(id);
+    }
+
+    @SubscriptionMapping
+    @PreAuthorize("isAuthenticated()")
+    public Flux<DeploymentStatusDTO> deploymentStatusChanged(@Argument UUID id) {
+        return deploymentService.watchStatus(id);
+    }
+
+    @BatchMapping(typeName = "Deployment", field = "composeYaml")
+    public Map<Deployment, String> composeYaml(List<Deployment> deployments) {
+        return deploymentService.getComposeYamls(deployments);
+    }
+
+    @BatchMapping(typeName = "Deployment", field = "revisions")
+    public Map<Deployment, List<DeploymentRevision>> revisions(List<Deployment> deployments) {
+        return deploymentService.getRevisions(deployments);
+    }
+
+    @BatchMapping(typeName = "DeploymentRevision", field = "composeYaml")
+    public Map<DeploymentRevision, String> revisionComposeYaml(List<DeploymentRevision> revisions) {
+        return deploymentService.getRevisionComposeYamls(revisions);
+    }
+
+    @BatchMapping(typeName = "Deployment", field = "status")
+    public CompletableFuture<Map<Deployment, DeploymentStatusDTO>> status(List<Deployment> deployments) {
+        return deploymentService.getStatusesOf(deployments).thenApply(statuses -> {
+            Map<Deployment, DeploymentStatusDTO> result = new HashMap<>();
+            for (Deployment deployment : deployments) {
+                result.put(deployment, statuses.get(deployment.getId()));
+            }
+            return result;
+        });
     }
 } 
\ No newline at end of file
@@ -0,0 +1,72 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Entity
+@Table(name = "deployment_job", indexes = {
+        @Index(name = "idx_deployment_job_status_created", columnList = "status, createdAt"),
+        @Index(name = "idx_deployment_job_deployment_status", columnList = "deploymentId, status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeploymentJob {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID deploymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private DeploymentJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private DeploymentJobStatus status;
+
+    /**
+     * Comma-separated services an UPDATE recreates in place, empty to reconcile the running project without
+     * recreating anything. {@code null} means a full stop and start.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String services;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    public static DeploymentJob queuedUpdate(UUID deploymentId, Collection<String> services) {
+        DeploymentJob job = queued(deploymentId, DeploymentJobType.UPDATE);
+        job.setServices(String.join(",", services));
+        return job;
+    }
+
+    public List<String> getServiceList() {
+        return services == null || services.isEmpty() ? List.of() : List.of(services.split(","));
+    }
+
+    public static DeploymentJob queued(UUID deploymentId, DeploymentJobType type) {
+        return DeploymentJob.builder()
+                .deploymentId(deploymentId)
+                .type(type)
+                .status(DeploymentJobStatus.QUEUED)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,246 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import docker_control.ActionResult;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Executes a single deployment job on a worker thread. No transaction is held while docker-control runs;
+ * each state change is a single update statement. All docker-control calls address the project of the live
+ * slot, see {@link Deployment#getProjectName()}.
+ */
+@Slf4j
+@Component
+public class DeploymentJobHandler {
+
+    private final DeploymentRepository deploymentRepository;
+    private final DockerControlGrpcClient grpcClient;
+    private final ComposeContentStore composeStore;
+    private final DeploymentStatusCache statusCache;
+    private final DeploymentStatusWatcher statusWatcher;
+    private final DeploymentRouter router;
+    private final Duration blueGreenHealthTimeout;
+    private final DataSize streamThreshold;
+
+    public DeploymentJobHandler(DeploymentRepository deploymentRepository,
+                                DockerControlGrpcClient grpcClient,
+                                ComposeContentStore composeStore,
+                                DeploymentStatusCache statusCache,
+                                DeploymentStatusWatcher statusWatcher,
+                                DeploymentRouter router,
+                                @Value("${deployment.blue-green.health-timeout:5m}") Duration blueGreenHealthTimeout,
+                                @Value("${docker-control.stream-threshold:1MB}") DataSize streamThreshold) {
+        this.deploymentRepository = deploymentRepository;
+        this.grpcClient = grpcClient;
+        this.composeStore = composeStore;
+        this.statusCache = statusCache;
+        this.statusWatcher = statusWatcher;
+        this.router = router;
+        this.blueGreenHealthTimeout = blueGreenHealthTimeout;
+        this.streamThreshold = streamThreshold;
+    }
+
+    public void handle(DeploymentJob job) {
+        UUID id = job.getDeploymentId();
+        Optional<Deployment> deployment = deploymentRepository.findById(id);
+        if (deployment.isEmpty()) {
+            if (job.getType() == DeploymentJobType.DELETE) {
+                return;
+            }
+            throw new ResourceNotFoundException("Deployment not found: " + id);
+        }
+
+        try {
+            switch (job.getType()) {
+                case START -> start(deployment.get());
+                case UPDATE -> update(deployment.get(), job);
+                case STOP -> stop(deployment.get());
+                case DELETE -> delete(deployment.get());
+            }
+        } catch (RuntimeException e) {
+            recordState(id, DeploymentState.FAILED, e.getMessage());
+            throw e;
+        }
+    }
+
+    private void start(Deployment deployment) {
+        recordState(deployment.getId(), DeploymentState.STARTING, null);
+        ActionResult result = startCompose(deployment);
+        if (result.getStatus() != 0) {
+            throw new BadRequestException("Failed to start compose: " + result.getMessage());
+        }
+        if (deployment.getRoute() != null) {
+            router.routeTo(deployment.getId(), deployment.getRoute(), deployment.getProjectName());
+        }
+        recordState(deployment.getId(), DeploymentState.RUNNING, null);
+    }
+
+    private void update(Deployment deployment, DeploymentJob job) {
+        recordState(deployment.getId(), DeploymentState.UPDATING, null);
+        String composeYaml = composeStore.load(deployment.getComposeHash());
+        pullImages(deployment.getId(), composeYaml);
+        if (deployment.getUpdateStrategy() == DeploymentUpdateStrategy.BLUE_GREEN) {
+            switchSlot(deployment, composeYaml);
+            return;
+        }
+        String project = deployment.getProjectName();
+        if (job.getServices() != null) {
+            ActionResult result = grpcClient.updateCompose(project,
+                    router.compose(composeYaml, deployment.getRoute(), project), job.getServiceList());
+            if (result.getStatus() != 0) {
+                throw new BadRequestException("Failed to update deployment: " + result.getMessage());
+            }
+            recordState(deployment.getId(), DeploymentState.RUNNING, null);
+            return;
+        }
+        ActionResult stopResult = grpcClient.stopApp(project);
+        if (stopResult.getStatus() != 0 && !isAppNotFound(stopResult)) {
+            throw new BadRequestException("Failed to stop existing deployment: " + stopResult.getMessage());
+        }
+        ActionResult startResult = startCompose(deployment);
+        if (startResult.getStatus() != 0) {
+            throw new BadRequestException("Failed to start updated deployment: " + startResult.getMessage());
+        }
+        if (deployment.getRoute() != null) {
+            router.routeTo(deployment.getId(), deployment.getRoute(), project);
+        }
+        recordState(deployment.getId(), DeploymentState.RUNNING, null);
+    }
+
+    /**
+     * Blue/green update: starts the file as the idle slot next to the live one and moves the route over once all
+     * of its containers are healthy. Until nginx has reloaded the live slot keeps serving; if the new slot does
+     * not become healthy or nginx rejects the route, the new slot is removed and the live one is untouched. The
+     * old slot is stopped last; failing to do so only leaves a warning, the new slot already serves.
+     */
+    private void switchSlot(Deployment deployment, String composeYaml) {
+        UUID id = deployment.getId();
+        DeploymentRoute route = deployment.getRoute();
+        if (route == null) {
+            throw new BadRequestException("The BLUE_GREEN update strategy needs a route to switch");
+        }
+        String live = deployment.getProjectName();
+        DeploymentSlot nextSlot = DeploymentSlot.next(deployment.getSlot());
+        String next = DeploymentSlot.projectName(id, nextSlot);
+
+        ActionResult result = grpcClient.startHealthy(next, router.compose(composeYaml, route, next), blueGreenHealthTimeout);
+        if (result.getStatus() != 0) {
+            throw new BadRequestException(result.getMessage() + ": " + result.getDetails());
+        }
+        try {
+            router.routeTo(id, route, next);
+        } catch (RuntimeException e) {
+            abandonSlot(id, route, live, next, e);
+            throw e;
+        }
+        deploymentRepository.updateSlot(id, nextSlot);
+        statusCache.switchProject(id, next);
+        statusWatcher.reconnect(id, next);
+
+        ActionResult stopResult = grpcClient.stopApp(live);
+        String warning = null;
+        if (stopResult.getStatus() != 0 && !isAppNotFound(stopResult) && !isAppNotRunning(stopResult)) {
+            warning = "Switched to " + next + " but could not stop " + live + ": " + stopResult.getMessage();
+        }
+        recordState(id, DeploymentState.RUNNING, warning);
+    }
+
+    /**
+     * Points the route back at the live slot and removes the new one after the switch failed.
+     */
+    private void abandonSlot(UUID id, DeploymentRoute route, String live, String next, RuntimeException cause) {
+        try {
+            router.routeTo(id, route, live);
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+        try {
+            grpcClient.stopApp(next);
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Files above {@code docker-control.stream-threshold} are streamed to docker-control straight from the
+     * compressed content instead of being decoded into a String and a single request message. A routed file is
+     * rewritten first and therefore always decoded.
+     */
+    private ActionResult startCompose(Deployment deployment) {
+        String project = deployment.getProjectName();
+        ComposeContent content = composeStore.find(deployment.getComposeHash());
+        if (deployment.getRoute() != null) {
+            String composeYaml = router.compose(composeStore.decode(content), deployment.getRoute(), project);
+            byte[] bytes = composeYaml.getBytes(StandardCharsets.UTF_8);
+            return bytes.length > streamThreshold.toBytes()
+                    ? grpcClient.startComposeStream(project, new ByteArrayInputStream(bytes))
+                    : grpcClient.startCompose(project, composeYaml);
+        }
+        if (content.getSize() > streamThreshold.toBytes()) {
+            return grpcClient.startComposeStream(project, composeStore.open(content));
+        }
+        return grpcClient.startCompose(project, composeStore.decode(content));
+    }
+
+    /**
+     * Downloads the images of the new file while the old containers keep serving, so that the following
+     * restart only costs container start time. A failed pull ends the job before anything is stopped.
+     */
+    private void pullImages(UUID id, String composeYaml) {
+        Map<String, String> failures = grpcClient.pullImages(id.toString(), composeYaml, progress ->
+                deploymentRepository.updateProgress(id, "Pulled " + progress.getPulled() + " of " + progress.getTotal() + " images", Instant.now()));
+        if (!failures.isEmpty()) {
+            throw new BadRequestException("Failed to pull images: " + failures);
+        }
+    }
+
+    private void stop(Deployment deployment) {
+        recordState(deployment.getId(), DeploymentState.STOPPING, null);
+        ActionResult result = grpcClient.stopApp(deployment.getProjectName());
+        if (result.getStatus() != 0) {
+            throw new BadRequestException("Failed to stop compose: " + result.getMessage());
+        }
+        recordState(deployment.getId(), DeploymentState.STOPPED, null);
+    }
+
+    private void delete(Deployment deployment) {
+        recordState(deployment.getId(), DeploymentState.DELETING, null);
+        ActionResult result = grpcClient.stopApp(deployment.getProjectName());
+        if (result.getStatus() != 0 && !isAppNotFound(result)) {
+            throw new BadRequestException("Failed to stop deployment before deletion: " + result.getMessage());
+        }
+        deploymentRepository.deleteWithRevisions(deployment.getId());
+        statusWatcher.end(deployment.getId());
+        if (deployment.getRoute() != null) {
+            try {
+                router.remove(deployment.getId());
+            } catch (RuntimeException e) {
+                log.warn("Could not remove the route of deleted deployment {}: {}", deployment.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void recordState(UUID id, DeploymentState state, String lastError) {
+        deploymentRepository.updateState(id, state, lastError, Instant.now());
+    }
+
+    private static boolean isAppNotFound(ActionResult result) {
+        return result.getMessage().toLowerCase().contains("app not found");
+    }
+
+    private static boolean isAppNotRunning(ActionResult result) {
+        return result.getMessage().toLowerCase().contains("app is not running");
+    }
+}
@@ -0,0 +1,141 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent queue for deployment operations.
+ * <p>
+ * Mutations insert a QUEUED job inside their own transaction; once that commits the dispatcher thread is woken
+ * and hands the job to a bounded pool of virtual-thread workers. Jobs of the same deployment run one after another
+ * in creation order: the dispatcher only picks the oldest queued job of each deployment that has none running, so a
+ * deployment with a long backlog cannot starve the others. Jobs of different deployments run in parallel up to
+ * {@code deployment.jobs.workers}. A periodic poll picks up anything a missed wake-up left behind, and jobs that
+ * were RUNNING when the previous process died are re-queued on startup. Worker slots are tracked in memory, so a
+ * single gateway instance is assumed.
+ */
+@Slf4j
+@Component
+public class DeploymentJobQueue {
+
+    private final DeploymentJobRepository jobRepository;
+    private final DeploymentJobHandler jobHandler;
+    private final DeploymentStatusCache statusCache;
+    private final int workers;
+    private final ExecutorService executor;
+    private final ExecutorService dispatcher;
+    private final Set<UUID> activeDeployments = ConcurrentHashMap.newKeySet();
+
+    public DeploymentJobQueue(DeploymentJobRepository jobRepository,
+                              DeploymentJobHandler jobHandler,
+                              DeploymentStatusCache statusCache,
+                              @Value("${deployment.jobs.workers:4}") int workers) {
+        this.jobRepository = jobRepository;
+        this.jobHandler = jobHandler;
+        this.statusCache = statusCache;
+        this.workers = workers;
+        this.executor = Executors.newFixedThreadPool(workers, Thread.ofVirtual().name("deployment-job-", 0).factory());
+        this.dispatcher = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("deployment-job-dispatcher").factory());
+    }
+
+    @PostConstruct
+    void requeueInterruptedJobs() {
+        int requeued = jobRepository.transitionAll(DeploymentJobStatus.RUNNING, DeploymentJobStatus.QUEUED);
+        if (requeued > 0) {
+            log.info("Re-queued {} deployment jobs interrupted by the last shutdown", requeued);
+        }
+    }
+
+    public DeploymentJob enqueue(DeploymentJob queued) {
+        DeploymentJob job = jobRepository.save(queued);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${deployment.jobs.poll-interval:5s}")
+    public void poll() {
+        wakeUp();
+    }
+
+    private void wakeUp() {
+        try {
+            dispatcher.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+            log.debug("Deployment job dispatcher is shut down, not dispatching");
+        }
+    }
+
+    /**
+     * Only ever runs on the dispatcher thread.
+     */
+    private void dispatch() {
+        int free = workers - activeDeployments.size();
+        if (free <= 0) {
+            return;
+        }
+
+        for (DeploymentJob job : jobRepository.findRunnable(DeploymentJobStatus.QUEUED, DeploymentJobStatus.RUNNING, Limit.of(workers))) {
+            if (free == 0) {
+                break;
+            }
+            // Finished in the database but its worker has not released the deployment yet; the worker wakes us up.
+            if (activeDeployments.contains(job.getDeploymentId())) {
+                continue;
+            }
+            if (jobRepository.transition(job.getId(), DeploymentJobStatus.QUEUED, DeploymentJobStatus.RUNNING, Instant.now()) == 0) {
+                continue;
+            }
+            activeDeployments.add(job.getDeploymentId());
+            free--;
+            executor.execute(() -> run(job));
+        }
+    }
+
+    private void run(DeploymentJob job) {
+        try {
+            jobHandler.handle(job);
+            jobRepository.finish(job.getId(), DeploymentJobStatus.SUCCEEDED, null, Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Deployment job {} ({} of {}) failed: {}", job.getId(), job.getType(), job.getDeploymentId(), e.getMessage());
+            jobRepository.finish(job.getId(), DeploymentJobStatus.FAILED, e.getMessage(), Instant.now());
+        } finally {
+            statusCache.evict(job.getDeploymentId());
+            activeDeployments.remove(job.getDeploymentId());
+            wakeUp();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        dispatcher.shutdownNow();
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
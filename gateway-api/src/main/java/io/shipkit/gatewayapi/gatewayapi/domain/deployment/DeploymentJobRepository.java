@@ -0,0 +1,58 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface DeploymentJobRepository extends JpaRepository<DeploymentJob, UUID> {
+
+    /**
+     * The oldest {@code queued} job of every deployment that has no {@code running} job, oldest first. Deployments with a long
+     * backlog contribute a single row, so they cannot push other deployments out of {@code limit}.
+     */
+    @Query("""
+            select j from DeploymentJob j
+            where j.status = :queued
+              and not exists (
+                select o from DeploymentJob o
+                where o.deploymentId = j.deploymentId
+                  and (o.status = :running
+                       or (o.status = :queued and (o.createdAt < j.createdAt or (o.createdAt = j.createdAt and o.id < j.id)))))
+            order by j.createdAt asc, j.id asc
+            """)
+    List<DeploymentJob> findRunnable(@Param("queued") DeploymentJobStatus queued,
+                                     @Param("running") DeploymentJobStatus running,
+                                     Limit limit);
+
+    /**
+     * Conditional status change; returns 0 when the job is no longer in {@code from}, e.g. because another
+     * dispatcher claimed it first.
+     */
+    @Transactional
+    @Modifying
+    @Query("update DeploymentJob j set j.status = :to, j.startedAt = :startedAt where j.id = :id and j.status = :from")
+    int transition(@Param("id") UUID id,
+                   @Param("from") DeploymentJobStatus from,
+                   @Param("to") DeploymentJobStatus to,
+                   @Param("startedAt") Instant startedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update DeploymentJob j set j.status = :status, j.error = :error, j.finishedAt = :finishedAt where j.id = :id")
+    int finish(@Param("id") UUID id,
+               @Param("status") DeploymentJobStatus status,
+               @Param("error") String error,
+               @Param("finishedAt") Instant finishedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update DeploymentJob j set j.status = :to, j.startedAt = null where j.status = :from")
+    int transitionAll(@Param("from") DeploymentJobStatus from, @Param("to") DeploymentJobStatus to);
+}
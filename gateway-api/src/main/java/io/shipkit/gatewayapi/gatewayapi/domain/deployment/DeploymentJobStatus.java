@@ -0,0 +1,8 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+public enum DeploymentJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
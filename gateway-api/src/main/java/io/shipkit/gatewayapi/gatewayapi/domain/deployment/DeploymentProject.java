@@ -0,0 +1,13 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import java.util.UUID;
+
+/**
+ * The docker-control project that runs a deployment, loaded without the rest of the row.
+ */
+public record DeploymentProject(UUID id, DeploymentSlot slot) {
+
+    public String name() {
+        return DeploymentSlot.projectName(id, slot);
+    }
+}
@@ -1,8 +1,44 @@
 package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
-public interface DeploymentRepository extends JpaRepository<Deployment, UUID> {
-} 
\ No newline at end of file
+public interface DeploymentRepository extends JpaRepository<Deployment, UUID>, DeploymentRepositoryCustom {
+
+    @Query("select new io.shipkit.gatewayapi.gatewayapi.domain.deployment.DeploymentProject(d.id, d.slot) from Deployment d")
+    List<DeploymentProject> findAllProjects();
+
+    @Query("select new io.shipkit.gatewayapi.gatewayapi.domain.deployment.DeploymentProject(d.id, d.slot) from Deployment d where d.id in :ids")
+    List<DeploymentProject> findProjects(@Param("ids") Collection<UUID> ids);
+
+    @Query("select d.id from Deployment d where d.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update Deployment d set d.state = :state, d.lastError = :lastError, d.progress = null, d.updatedAt = :updatedAt where d.id = :id")
+    int updateState(@Param("id") UUID id,
+                    @Param("state") DeploymentState state,
+                    @Param("lastError") String lastError,
+                    @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update Deployment d set d.progress = :progress, d.updatedAt = :updatedAt where d.id = :id")
+    int updateProgress(@Param("id") UUID id,
+                       @Param("progress") String progress,
+                       @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update Deployment d set d.slot = :slot where d.id = :id")
+    int updateSlot(@Param("id") UUID id, @Param("slot") DeploymentSlot slot);
+}
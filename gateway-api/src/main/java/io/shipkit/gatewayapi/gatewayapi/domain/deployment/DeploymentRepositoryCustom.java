@@ -0,0 +1,22 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentSortDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.UUID;
+
+public interface DeploymentRepositoryCustom {
+
+    /**
+     * Keyset-paginated listing ordered by the sort field with the id as tie-breaker.
+     *
+     * @param nameContains case-insensitive name filter, ignored when blank
+     */
+    Window<Deployment> findWindow(String nameContains, DeploymentSortDTO sort, KeysetScrollPosition position, int limit);
+
+    /**
+     * Deletes the deployment and its revision history in one transaction.
+     */
+    void deleteWithRevisions(UUID id);
+}
@@ -0,0 +1,114 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentSortDTO;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentSortField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class DeploymentRepositoryCustomImpl implements DeploymentRepositoryCustom {
+
+    private static final String ID_KEY = "id";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Window<Deployment> findWindow(String nameContains, DeploymentSortDTO sort, KeysetScrollPosition position, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Deployment> query = cb.createQuery(Deployment.class);
+        Root<Deployment> root = query.from(Deployment.class);
+
+        // Scrolling backward walks the reversed order and flips the page afterwards.
+        boolean ascending = sort.direction().isAscending() != position.scrollsBackward();
+        Path<UUID> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (nameContains != null && !nameContains.isBlank()) {
+            predicates.add(cb.like(cb.lower(root.get("name")), "%" + escapeLike(nameContains.toLowerCase()) + "%", '\\'));
+        }
+        if (!position.getKeys().isEmpty()) {
+            UUID lastId = UUID.fromString(key(position, ID_KEY));
+            String lastValue = key(position, keyName(sort.field()));
+            predicates.add(switch (sort.field()) {
+                case CREATED_AT -> after(cb, root.get("createdAt"), Instant.parse(lastValue), id, lastId, ascending);
+                case NAME -> after(cb, root.get("name"), lastValue, id, lastId, ascending);
+            });
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+
+        Path<?> sortKey = root.get(sort.field() == DeploymentSortField.NAME ? "name" : "createdAt");
+        query.orderBy(
+                ascending ? cb.asc(sortKey) : cb.desc(sortKey),
+                ascending ? cb.asc(id) : cb.desc(id));
+
+        List<Deployment> rows = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > limit;
+        List<Deployment> page = new ArrayList<>(rows.subList(0, Math.min(limit, rows.size())));
+        if (position.scrollsBackward()) {
+            Collections.reverse(page);
+        }
+        return Window.from(page, index -> positionOf(page.get(index), sort, position.getDirection()), hasNext);
+    }
+
+    @Override
+    @Transactional
+    public void deleteWithRevisions(UUID id) {
+        entityManager.createQuery("delete from DeploymentRevision r where r.deploymentId = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.createQuery("delete from Deployment d where d.id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb, Path<Y> key, Y value,
+                                                                      Path<UUID> id, UUID lastId, boolean ascending) {
+        if (ascending) {
+            return cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, lastId)));
+        }
+        return cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, lastId)));
+    }
+
+    /**
+     * Keys are stored as strings so cursors survive the JSON round trip of the cursor encoding unchanged.
+     */
+    private static ScrollPosition positionOf(Deployment deployment, DeploymentSortDTO sort, ScrollPosition.Direction direction) {
+        String value = switch (sort.field()) {
+            case CREATED_AT -> deployment.getCreatedAt().toString();
+            case NAME -> deployment.getName();
+        };
+        Map<String, Object> keys = Map.of(keyName(sort.field()), value, ID_KEY, deployment.getId().toString());
+        return ScrollPosition.of(keys, direction);
+    }
+
+    private static String keyName(DeploymentSortField field) {
+        return field == DeploymentSortField.NAME ? "name" : "createdAt";
+    }
+
+    private static String key(KeysetScrollPosition position, String name) {
+        if (!(position.getKeys().get(name) instanceof String value)) {
+            throw new BadRequestException("Cursor does not match the requested sort order");
+        }
+        return value;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
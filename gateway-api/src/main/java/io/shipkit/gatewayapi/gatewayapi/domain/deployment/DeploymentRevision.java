@@ -0,0 +1,37 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One entry of a deployment's compose history. The file itself lives in {@link ComposeContent}, so a revision
+ * row is only a few bytes and identical files share their content.
+ */
+@Entity
+@Table(name = "deployment_revision",
+       uniqueConstraints = @UniqueConstraint(name = "uk_deployment_revision", columnNames = {"deploymentId", "revision"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeploymentRevision {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID deploymentId;
+
+    @Column(nullable = false)
+    private int revision;
+
+    @Column(nullable = false, length = 64)
+    private String composeHash;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,15 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DeploymentRevisionRepository extends JpaRepository<DeploymentRevision, UUID> {
+
+    Optional<DeploymentRevision> findByDeploymentIdAndRevision(UUID deploymentId, int revision);
+
+    List<DeploymentRevision> findByDeploymentIdInOrderByRevisionDesc(Collection<UUID> deploymentIds);
+}
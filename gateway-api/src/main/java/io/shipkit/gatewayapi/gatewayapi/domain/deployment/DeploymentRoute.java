@@ -0,0 +1,15 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Public entry point of a deployment: nginx serves {@code domain} by proxying to {@code port} of the
+ * {@code service} container of the project that is currently live.
+ */
+@Embeddable
+public record DeploymentRoute(
+        @Column(name = "route_domain") String domain,
+        @Column(name = "route_service") String service,
+        @Column(name = "route_port") Integer port
+) {}
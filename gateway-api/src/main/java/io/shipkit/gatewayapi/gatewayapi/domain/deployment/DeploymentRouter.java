@@ -0,0 +1,69 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import io.shipkit.gatewayapi.gatewayapi.core.settings.NginxReloadScheduler;
+import io.shipkit.gatewayapi.gatewayapi.core.settings.NginxVhostRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Points the nginx route of a deployment at one of its docker-control projects. The routed service joins
+ * {@code deployment.routing.network}, the network nginx runs in, under an alias per project, so moving the route
+ * only rewrites the upstream of {@code deployment-<id>.conf} and reloads nginx. A reload lets the old workers
+ * finish their requests, so no connection to the previous project is cut.
+ */
+@Component
+public class DeploymentRouter {
+
+    private final NginxVhostRenderer renderer;
+    private final NginxReloadScheduler reloadScheduler;
+    private final String network;
+
+    public DeploymentRouter(NginxVhostRenderer renderer,
+                            NginxReloadScheduler reloadScheduler,
+                            @Value("${deployment.routing.network:shipkit}") String network) {
+        this.renderer = renderer;
+        this.reloadScheduler = reloadScheduler;
+        this.network = network;
+    }
+
+    /**
+     * The compose file as it is sent to docker-control for {@code project}: unchanged without a route, otherwise
+     * with the routed service attached to the route network.
+     */
+    public String compose(String composeYaml, DeploymentRoute route, String project) {
+        if (route == null) {
+            return composeYaml;
+        }
+        return ComposeRouting.withRouteNetwork(composeYaml, project, route.service(), network);
+    }
+
+    /**
+     * Blocks until nginx serves the route from {@code project}.
+     *
+     * @throws io.shipkit.gatewayapi.gatewayapi.core.exceptions.InternalServerException if nginx rejected the
+     *         configuration or could not be reloaded
+     */
+    public void routeTo(UUID deploymentId, DeploymentRoute route, String project) {
+        String upstream = ComposeRouting.alias(project, route.service()) + ":" + route.port();
+        if (renderer.writeDeploymentRoute(deploymentId, route.domain(), upstream)) {
+            reload();
+        }
+    }
+
+    public void remove(UUID deploymentId) {
+        if (renderer.deleteDeploymentRoute(deploymentId)) {
+            reload();
+        }
+    }
+
+    private void reload() {
+        try {
+            reloadScheduler.requestReload().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -1,105 +1,214 @@
 package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
 
-import docker_control.ActionResult;
-import docker_control.AppStatus;
 import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
 import io.shipkit.gatewayapi.gatewayapi.core.exceptions.ResourceNotFoundException;
 import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.UpdateDeploymentDTO;
 import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.CreateDeploymentDTO;
 import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentMapper;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentSortDTO;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentStatusDTO;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+/**
+ * Deployment lifecycle. Mutations only persist the change together with a {@link DeploymentJob} and return
+ * with the deployment in state PENDING; the docker-control work happens in {@link DeploymentJobQueue}.
+ */
 @Service
 @AllArgsConstructor
 public class DeploymentService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final DeploymentRepository deploymentRepository;
-    private final DockerControlGrpcClient grpcClient;
+    private final DeploymentJobRepository jobRepository;
+    private final DeploymentJobQueue jobQueue;
+    private final DeploymentStatusCache statusCache;
+    private final DeploymentStatusWatcher statusWatcher;
     private final DeploymentMapper deploymentMapper;
+    private final ComposeContentStore composeStore;
+    private final DeploymentRevisionRepository revisionRepository;
 
     @Transactional
     public Deployment createDeployment(CreateDeploymentDTO createDTO) {
+        String composeHash = storeCompose(createDTO.composeYaml(), createDTO.composeHash());
+        if (composeHash == null) {
+            throw new BadRequestException("composeYaml or composeHash is required");
+        }
         Deployment deployment = deploymentMapper.toEntity(createDTO);
+        checkUpdateStrategy(deployment, () -> createDTO.composeYaml() != null ? createDTO.composeYaml() : composeStore.load(composeHash));
+        deployment.setComposeHash(composeHash);
         deployment.setCreatedAt(Instant.now());
-        deployment = deploymentRepository.save(deployment);
-        
-        ActionResult result = grpcClient.startCompose(deployment.getId().toString(), deployment.getComposeYaml());
-        if (result.getStatus() != 0) {
-            throw new BadRequestException("Failed to start deployment: " + result.getMessage());
-        }
-        
-        return deployment;
+        Deployment saved = deploymentRepository.save(deployment);
+        recordRevision(saved);
+        enqueue(saved, DeploymentJobType.START);
+        return saved;
     }
 
     @Transactional
     public Deployment updateDeployment(UUID id, UpdateDeploymentDTO updateDTO) {
-        Deployment deployment = deploymentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Deployment not found: " + id));
+        Deployment existing = findById(id);
+        DeploymentRoute previousRoute = existing.getRoute();
 
-        String originalCompose = deployment.getComposeYaml();
-        
-        deploymentMapper.updateEntity(deployment, updateDTO);
-        
-        boolean composeChanged = updateDTO.composeYaml() != null && 
-                                !updateDTO.composeYaml().equals(originalCompose);
-        
-        if (composeChanged) {
-            ActionResult stopResult = grpcClient.stopApp(id.toString());
-            if (stopResult.getStatus() != 0 && !stopResult.getMessage().toLowerCase().contains("app not found")) {
-                throw new BadRequestException("Failed to stop existing deployment: " + stopResult.getMessage());
-            }
-            
-            ActionResult startResult = grpcClient.startCompose(id.toString(), updateDTO.composeYaml());
-            if (startResult.getStatus() != 0) {
-                throw new BadRequestException("Failed to start updated deployment: " + startResult.getMessage());
+        deploymentMapper.updateEntity(existing, updateDTO);
+        // A new route needs the new network alias on the containers, so it is applied like a full update
+        boolean routeChanged = !Objects.equals(previousRoute, existing.getRoute());
+
+        String composeHash = storeCompose(updateDTO.composeYaml(), updateDTO.composeHash());
+        if (composeHash != null && !composeHash.equals(existing.getComposeHash())) {
+            String composeYaml = updateDTO.composeYaml() != null ? updateDTO.composeYaml() : composeStore.load(composeHash);
+            checkUpdateStrategy(existing, () -> composeYaml);
+            changeCompose(existing, composeHash, composeYaml, routeChanged);
+        } else if (updateDTO.updateStrategy() != null || routeChanged) {
+            checkUpdateStrategy(existing, () -> composeStore.load(existing.getComposeHash()));
+            if (routeChanged) {
+                enqueue(existing, DeploymentJobType.UPDATE);
             }
         }
-        
-        return deploymentRepository.save(deployment);
+        return deploymentRepository.save(existing);
     }
 
+    /**
+     * Switches back to the compose file of an earlier revision. The rollback itself becomes the newest revision,
+     * so history is never rewritten; rolling back to the content that is already deployed is a no-op.
+     */
     @Transactional
-    public void deleteDeployment(UUID id) {
-        if (!deploymentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Deployment not found: " + id);
-        }
-        
-        ActionResult result = grpcClient.stopApp(id.toString());
-        if (result.getStatus() != 0 && !result.getMessage().toLowerCase().contains("app not found")) {
-            throw new BadRequestException("Failed to stop deployment before deletion: " + result.getMessage());
+    public Deployment rollbackDeployment(UUID id, int revision) {
+        Deployment deployment = findById(id);
+        DeploymentRevision target = revisionRepository.findByDeploymentIdAndRevision(id, revision)
+                .orElseThrow(() -> new ResourceNotFoundException("Revision " + revision + " of deployment " + id + " not found"));
+
+        if (!target.getComposeHash().equals(deployment.getComposeHash())) {
+            String composeYaml = composeStore.load(target.getComposeHash());
+            checkUpdateStrategy(deployment, () -> composeYaml);
+            changeCompose(deployment, target.getComposeHash(), composeYaml, false);
         }
-        
-        deploymentRepository.deleteById(id);
+        return deployment;
+    }
+
+    @Transactional
+    public void deleteDeployment(UUID id) {
+        enqueue(findById(id), DeploymentJobType.DELETE);
     }
 
     @Transactional
     public void stopDeployment(UUID id) {
-        if (!deploymentRepository.existsById(id)) {
+        enqueue(findById(id), DeploymentJobType.STOP);
+    }
+
+    @Transactional
+    public Deployment startDeployment(UUID id) {
+        Deployment deployment = findById(id);
+        enqueue(deployment, DeploymentJobType.START);
+        return deployment;
+    }
+
+    public CompletableFuture<DeploymentStatusDTO> getStatus(UUID id) {
+        if (!statusCache.contains(id) && !deploymentRepository.existsById(id)) {
             throw new ResourceNotFoundException("Deployment not found: " + id);
         }
-        ActionResult result = grpcClient.stopApp(id.toString());
-        if (result.getStatus() != 0) {
-            throw new BadRequestException("Failed to stop compose: " + result.getMessage());
+        return statusCache.get(id);
+    }
+
+    public Flux<DeploymentStatusDTO> watchStatus(UUID id) {
+        if (!statusCache.contains(id) && !deploymentRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Deployment not found: " + id);
         }
+        return statusWatcher.watch(id);
+    }
+
+    /**
+     * Statuses in the order of {@code ids}; existence of ids not yet cached is checked with a single query.
+     */
+    public CompletableFuture<List<DeploymentStatusDTO>> getStatuses(List<UUID> ids) {
+        List<UUID> uncached = ids.stream().filter(id -> !statusCache.contains(id)).distinct().toList();
+        if (!uncached.isEmpty()) {
+            Set<UUID> existing = new HashSet<>(deploymentRepository.findExistingIds(uncached));
+            List<UUID> missing = uncached.stream().filter(id -> !existing.contains(id)).toList();
+            if (!missing.isEmpty()) {
+                throw new ResourceNotFoundException("Deployments not found: " + missing);
+            }
+        }
+        return statusCache.getAll(ids).thenApply(statuses -> ids.stream().map(statuses::get).toList());
+    }
+
+    /**
+     * Statuses of already loaded deployments, used by the {@code Deployment.status} batch loader.
+     */
+    public CompletableFuture<Map<UUID, DeploymentStatusDTO>> getStatusesOf(Collection<Deployment> deployments) {
+        return statusCache.getAll(deployments.stream().map(Deployment::getId).toList());
     }
 
     @Transactional(readOnly = true)
-    public AppStatus getStatus(UUID id) {
-        if (!deploymentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Deployment not found: " + id);
+    public Window<Deployment> listDeployments(ScrollSubrange subrange, String nameContains, DeploymentSortDTO sort) {
+        ScrollPosition position = subrange.position().orElse(ScrollPosition.keyset());
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new BadRequestException("Unsupported cursor");
         }
-        return grpcClient.getStatus(id.toString());
+        if (!subrange.forward() && keyset.scrollsForward()) {
+            keyset = keyset.backward();
+        }
+        int limit = Math.min(subrange.count().orElse(DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+        return deploymentRepository.findWindow(nameContains, sort != null ? sort : DeploymentSortDTO.DEFAULT, keyset, limit);
     }
 
+    /**
+     * Revisions of the given deployments, newest first, loaded with one query.
+     */
     @Transactional(readOnly = true)
-    public List<Deployment> listDeployments() {
-        return deploymentRepository.findAll();
+    public Map<Deployment, List<DeploymentRevision>> getRevisions(List<Deployment> deployments) {
+        Map<UUID, List<DeploymentRevision>> byDeployment = revisionRepository
+                .findByDeploymentIdInOrderByRevisionDesc(deployments.stream().map(Deployment::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(DeploymentRevision::getDeploymentId));
+        Map<Deployment, List<DeploymentRevision>> result = new HashMap<>();
+        for (Deployment deployment : deployments) {
+            result.put(deployment, byDeployment.getOrDefault(deployment.getId(), List.of()));
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<DeploymentRevision, String> getRevisionComposeYamls(List<DeploymentRevision> revisions) {
+        Map<String, String> contents = composeStore.loadAll(revisions.stream().map(DeploymentRevision::getComposeHash).collect(Collectors.toSet()));
+        Map<DeploymentRevision, String> result = new HashMap<>();
+        for (DeploymentRevision revision : revisions) {
+            result.put(revision, contents.get(revision.getComposeHash()));
+        }
+        return result;
+    }
+
+    /**
+     * Compose YAML of the given deployments, decompressed from the content table with one query.
+     */
+    @Transactional(readOnly = true)
+    public Map<Deployment, String> getComposeYamls(List<Deployment> deployments) {
+        Map<String, String> contents = composeStore.loadAll(deployments.stream().map(Deployment::getComposeHash).collect(Collectors.toSet()));
+        Map<Deployment, String> result = new HashMap<>();
+        for (Deployment deployment : deployments) {
+            result.put(deployment, contents.get(deployment.getComposeHash()));
+        }
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -108,15 +217,99 @@ public class DeploymentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Deployment not found: " + id));
     }
 
-    @Transactional
-    public Deployment startDeployment(UUID id) {
-        Deployment deployment = deploymentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Deployment not found: " + id));
+    @Transactional(readOnly = true)
+    public DeploymentJob findJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Deployment job not found: " + jobId));
+    }
 
-        ActionResult result = grpcClient.startCompose(id.toString(), deployment.getComposeYaml());
-        if (result.getStatus() != 0) {
-            throw new BadRequestException("Failed to start compose: " + result.getMessage());
+    /**
+     * Stores an inline compose file, or checks that a previously uploaded one exists.
+     *
+     * @return hash of the compose content, {@code null} if neither was given
+     */
+    private String storeCompose(String composeYaml, String composeHash) {
+        if (composeYaml != null && composeHash != null) {
+            throw new BadRequestException("Pass either composeYaml or composeHash, not both");
         }
-        return deployment;
+        if (composeHash != null) {
+            if (!composeStore.exists(composeHash)) {
+                throw new ResourceNotFoundException("Compose content not found: " + composeHash);
+            }
+            return composeHash;
+        }
+        if (composeYaml != null) {
+            ComposeValidator.validate(composeYaml);
+            return composeStore.store(composeYaml);
+        }
+        return null;
+    }
+
+    /**
+     * Rejects a file the route or the selected update strategy cannot work with. The content is only loaded when
+     * there is something to check.
+     */
+    private void checkUpdateStrategy(Deployment deployment, Supplier<String> composeYaml) {
+        boolean blueGreen = deployment.getUpdateStrategy() == DeploymentUpdateStrategy.BLUE_GREEN;
+        if (blueGreen && deployment.getRoute() == null) {
+            throw new BadRequestException("The BLUE_GREEN update strategy needs a route to switch");
+        }
+        if (deployment.getRoute() != null) {
+            String yaml = composeYaml.get();
+            ComposeValidator.validateRoute(yaml, deployment.getRoute().service());
+            if (blueGreen) {
+                ComposeValidator.validateBlueGreen(yaml);
+            }
+        }
+    }
+
+    /**
+     * Records the new file as a revision and schedules only as much work as the semantic diff requires:
+     * nothing for formatting or metadata changes, an in-place update of the changed services of a running
+     * deployment, and a full restart otherwise or when {@code fullUpdate} is set.
+     */
+    private void changeCompose(Deployment deployment, String composeHash, String composeYaml, boolean fullUpdate) {
+        if (deployment.getRevision() == null) {
+            // Deployments created before revisions existed get their current file as the first revision.
+            recordRevision(deployment);
+        }
+        ComposeDiff diff = ComposeDiff.between(composeStore.load(deployment.getComposeHash()), composeYaml);
+        deployment.setComposeHash(composeHash);
+        recordRevision(deployment);
+
+        if (fullUpdate) {
+            enqueue(deployment, DeploymentJobType.UPDATE);
+            return;
+        }
+        switch (diff.kind()) {
+            case NONE, METADATA -> { }
+            case SERVICES -> enqueue(deployment, deployment.getState() == DeploymentState.RUNNING
+                    ? DeploymentJob.queuedUpdate(deployment.getId(), diff.services())
+                    : DeploymentJob.queued(deployment.getId(), DeploymentJobType.UPDATE));
+            case FULL -> enqueue(deployment, DeploymentJobType.UPDATE);
+        }
+    }
+
+    private void recordRevision(Deployment deployment) {
+        int next = deployment.getRevision() == null ? 1 : deployment.getRevision() + 1;
+        revisionRepository.save(DeploymentRevision.builder()
+                .deploymentId(deployment.getId())
+                .revision(next)
+                .composeHash(deployment.getComposeHash())
+                .createdAt(Instant.now())
+                .build());
+        deployment.setRevision(next);
+    }
+
+    private void enqueue(Deployment deployment, DeploymentJobType type) {
+        enqueue(deployment, DeploymentJob.queued(deployment.getId(), type));
+    }
+
+    private void enqueue(Deployment deployment, DeploymentJob queued) {
+        DeploymentJob job = jobQueue.enqueue(queued);
+        deployment.setJobId(job.getId());
+        deployment.setState(DeploymentState.PENDING);
+        deployment.setLastError(null);
+        deployment.setUpdatedAt(Instant.now());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import java.util.UUID;
+
+/**
+ * The two docker-control projects a {@link DeploymentUpdateStrategy#BLUE_GREEN} deployment alternates between.
+ */
+public enum DeploymentSlot {
+    BLUE,
+    GREEN;
+
+    /**
+     * The slot an update starts next to {@code live}. Deployments that never switched run without a slot.
+     */
+    public static DeploymentSlot next(DeploymentSlot live) {
+        return live == BLUE ? GREEN : BLUE;
+    }
+
+    /**
+     * Name of the docker-control project that runs {@code slot} of the deployment, the plain id without a slot.
+     */
+    public static String projectName(UUID deploymentId, DeploymentSlot slot) {
+        return slot == null ? deploymentId.toString() : deploymentId + "-" + slot.name().toLowerCase();
+    }
+}
@@ -0,0 +1,12 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+public enum DeploymentState {
+    PENDING,
+    STARTING,
+    RUNNING,
+    UPDATING,
+    STOPPING,
+    STOPPED,
+    DELETING,
+    FAILED
+}
@@ -0,0 +1,242 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import docker_control.AppStatus;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentStatusDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of docker-control app statuses.
+ * <p>
+ * A single background refresher fetches the status of every deployment with one GetStatuses call per
+ * {@code deployment.status.refresh-interval}, so docker-control load does not depend on how many dashboards
+ * are polling. Reads are answered from memory; an entry older than
+ * {@code deployment.status.ttl} (e.g. because docker-control is unreachable) is still returned but flagged
+ * as stale. Only deployments that have never been fetched cause an RPC on the read path: concurrent single
+ * misses for the same id share one GetStatus call, batch reads fetch all their misses with one GetStatuses.
+ * <p>
+ * The refresher never waits for docker-control on the scheduler thread; a tick is skipped while the previous
+ * fetch is still running. Results of a fetch are dropped for ids evicted while it was running, so a slow
+ * response cannot bring back the status of a deployment that was just changed or deleted.
+ * <p>
+ * Statuses are fetched from the docker-control project of the live slot ({@link Deployment#getProjectName()})
+ * and reported under the deployment id. {@link #switchProject} moves a deployment to another project after a
+ * blue/green switch.
+ */
+@Slf4j
+@Component
+public class DeploymentStatusCache {
+
+    private record Entry(AppStatus status, Instant fetchedAt) {}
+
+    /**
+     * Ids evicted while one fetch was running. Compared by identity, one instance per fetch.
+     */
+    private static final class Evictions {
+        private final Set<UUID> ids = ConcurrentHashMap.newKeySet();
+    }
+
+    private final DeploymentRepository deploymentRepository;
+    private final DockerControlGrpcClient grpcClient;
+    private final Duration ttl;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<UUID, String> projects = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Evictions> runningFetches = ConcurrentHashMap.newKeySet();
+    private volatile CompletableFuture<?> lastRefresh = CompletableFuture.completedFuture(null);
+
+    public DeploymentStatusCache(DeploymentRepository deploymentRepository,
+                                 DockerControlGrpcClient grpcClient,
+                                 @Value("${deployment.status.ttl:15s}") Duration ttl) {
+        this.deploymentRepository = deploymentRepository;
+        this.grpcClient = grpcClient;
+        this.ttl = ttl;
+    }
+
+    public boolean contains(UUID id) {
+        return entries.containsKey(id);
+    }
+
+    public CompletableFuture<DeploymentStatusDTO> get(UUID id) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(toDTO(entry));
+        }
+        return fetch(id).thenApply(this::toDTO);
+    }
+
+    public CompletableFuture<Map<UUID, DeploymentStatusDTO>> getAll(Collection<UUID> ids) {
+        Map<UUID, Entry> found = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                found.put(id, entry);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        CompletableFuture<Map<UUID, Entry>> fetched = missing.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : fetchAll(missing);
+        return fetched.thenApply(loaded -> {
+            Map<UUID, DeploymentStatusDTO> result = new HashMap<>();
+            found.forEach((id, entry) -> result.put(id, toDTO(entry)));
+            loaded.forEach((id, entry) -> result.put(id, toDTO(entry)));
+            return result;
+        });
+    }
+
+    /**
+     * Stores a status pushed by docker-control, e.g. from a WatchStatus stream.
+     */
+    public DeploymentStatusDTO put(UUID id, AppStatus status) {
+        Entry entry = entry(id, status, Instant.now());
+        entries.put(id, entry);
+        return toDTO(entry);
+    }
+
+    public void evict(UUID id) {
+        // Recorded before the removal: a fetch that stores its result after this point sees the id, one that
+        // stored it before has its entry removed below.
+        runningFetches.forEach(evictions -> evictions.ids.add(id));
+        entries.remove(id);
+    }
+
+    /**
+     * docker-control project that currently runs the deployment.
+     */
+    public String projectOf(UUID id) {
+        return projects(List.of(id)).get(id);
+    }
+
+    /**
+     * Reads the status of {@code id} from {@code project} from now on, dropping the status of the previous one.
+     */
+    public void switchProject(UUID id, String project) {
+        projects.put(id, project);
+        evict(id);
+    }
+
+    @Scheduled(fixedDelayString = "${deployment.status.refresh-interval:5s}",
+               initialDelayString = "${deployment.status.refresh-interval:5s}")
+    public void refresh() {
+        if (!lastRefresh.isDone()) {
+            return;
+        }
+        List<DeploymentProject> all = deploymentRepository.findAllProjects();
+        List<UUID> ids = all.stream().map(DeploymentProject::id).toList();
+        entries.keySet().retainAll(new HashSet<>(ids));
+        projects.keySet().retainAll(new HashSet<>(ids));
+        // Known projects are kept: switchProject runs after the slot is committed, a row read before that is stale
+        all.forEach(project -> projects.putIfAbsent(project.id(), project.name()));
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        lastRefresh = fetchAll(ids)
+                .exceptionally(error -> {
+                    log.debug("Status refresh of {} deployments failed: {}", ids.size(), error.getMessage());
+                    return Map.of();
+                });
+    }
+
+    private CompletableFuture<Entry> fetch(UUID id) {
+        CompletableFuture<Entry> future = inFlight.computeIfAbsent(id, key -> {
+            Evictions evictions = track();
+            try {
+                return grpcClient.getStatusAsync(projectOf(key))
+                        .thenApply(status -> store(evictions, key, entry(key, status, Instant.now())))
+                        .whenComplete((entry, error) -> runningFetches.remove(evictions));
+            } catch (RuntimeException e) {
+                runningFetches.remove(evictions);
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+        return future.whenComplete((entry, error) -> inFlight.remove(id, future));
+    }
+
+    private CompletableFuture<Map<UUID, Entry>> fetchAll(List<UUID> ids) {
+        Evictions evictions = track();
+        CompletableFuture<List<AppStatus>> rpc;
+        try {
+            Map<UUID, String> names = projects(ids);
+            rpc = grpcClient.getStatusesAsync(ids.stream().map(names::get).toList());
+        } catch (RuntimeException e) {
+            runningFetches.remove(evictions);
+            return CompletableFuture.failedFuture(e);
+        }
+        return rpc.thenApply(statuses -> {
+            Instant now = Instant.now();
+            Map<UUID, Entry> fetched = new HashMap<>();
+            for (int i = 0; i < ids.size() && i < statuses.size(); i++) {
+                fetched.put(ids.get(i), store(evictions, ids.get(i), entry(ids.get(i), statuses.get(i), now)));
+            }
+            return fetched;
+        }).whenComplete((fetched, error) -> runningFetches.remove(evictions));
+    }
+
+    /**
+     * Projects of {@code ids}; those not known yet are loaded with one query.
+     */
+    private Map<UUID, String> projects(Collection<UUID> ids) {
+        List<UUID> unknown = ids.stream().filter(id -> !projects.containsKey(id)).toList();
+        if (!unknown.isEmpty()) {
+            Map<UUID, String> loaded = new HashMap<>();
+            deploymentRepository.findProjects(unknown).forEach(project -> loaded.put(project.id(), project.name()));
+            unknown.forEach(id -> projects.putIfAbsent(id, loaded.getOrDefault(id, id.toString())));
+        }
+        Map<UUID, String> result = new HashMap<>();
+        ids.forEach(id -> result.put(id, projects.getOrDefault(id, id.toString())));
+        return result;
+    }
+
+    /**
+     * docker-control reports the project name; readers get the deployment id.
+     */
+    private static Entry entry(UUID id, AppStatus status, Instant fetchedAt) {
+        String uuid = id.toString();
+        return new Entry(uuid.equals(status.getUuid()) ? status : status.toBuilder().setUuid(uuid).build(), fetchedAt);
+    }
+
+    private Evictions track() {
+        Evictions evictions = new Evictions();
+        runningFetches.add(evictions);
+        return evictions;
+    }
+
+    /**
+     * Caches {@code entry} unless {@code id} was evicted since the fetch started. The entry is returned either
+     * way, it is still the answer to the read that caused the fetch.
+     */
+    private Entry store(Evictions evictions, UUID id, Entry entry) {
+        entries.put(id, entry);
+        if (evictions.ids.contains(id)) {
+            entries.remove(id, entry);
+        }
+        return entry;
+    }
+
+    private DeploymentStatusDTO toDTO(Entry entry) {
+        boolean stale = entry.fetchedAt().plus(ttl).isBefore(Instant.now());
+        return DeploymentStatusDTO.from(entry.status(), entry.fetchedAt(), stale);
+    }
+}
@@ -0,0 +1,123 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import docker_control.AppStatus;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto.DeploymentStatusDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fans docker-control WatchStatus streams out to GraphQL subscribers.
+ * <p>
+ * All subscribers of one deployment share a single upstream stream, which is opened with the first subscriber
+ * and cancelled with the last. Late subscribers get the latest status immediately. Every pushed status also
+ * refreshes {@link DeploymentStatusCache}. A broken stream is re-opened with exponential backoff unless
+ * docker-control answers NOT_FOUND or the deployment no longer exists; the stream then completes, as it does
+ * when the deployment is deleted while it is being watched. After a blue/green switch {@link #reconnect} moves
+ * the upstream stream to the project of the new slot without ending the subscription.
+ */
+@Slf4j
+@Component
+public class DeploymentStatusWatcher {
+
+    private record Watch(Flux<DeploymentStatusDTO> statuses, Sinks.Many<String> projects, Sinks.Empty<Void> ended) {}
+
+    private final DockerControlGrpcClient grpcClient;
+    private final DeploymentStatusCache statusCache;
+    private final DeploymentRepository deploymentRepository;
+    private final Duration maxReconnectBackoff;
+
+    private final Map<UUID, Watch> watches = new ConcurrentHashMap<>();
+
+    public DeploymentStatusWatcher(DockerControlGrpcClient grpcClient,
+                                   DeploymentStatusCache statusCache,
+                                   DeploymentRepository deploymentRepository,
+                                   @Value("${deployment.status.watch.max-reconnect-backoff:30s}") Duration maxReconnectBackoff) {
+        this.grpcClient = grpcClient;
+        this.statusCache = statusCache;
+        this.deploymentRepository = deploymentRepository;
+        this.maxReconnectBackoff = maxReconnectBackoff;
+    }
+
+    public Flux<DeploymentStatusDTO> watch(UUID id) {
+        return watches.computeIfAbsent(id, this::openWatch).statuses();
+    }
+
+    /**
+     * Completes the stream of a deleted deployment for all of its subscribers.
+     */
+    public void end(UUID id) {
+        Watch watch = watches.get(id);
+        if (watch != null) {
+            watch.ended().tryEmitEmpty();
+        }
+    }
+
+    /**
+     * Switches the subscribers of the deployment over to the stream of {@code project}.
+     */
+    public void reconnect(UUID id, String project) {
+        Watch watch = watches.get(id);
+        if (watch != null) {
+            watch.projects().tryEmitNext(project);
+        }
+    }
+
+    private Watch openWatch(UUID id) {
+        Sinks.Empty<Void> ended = Sinks.empty();
+        Sinks.Many<String> projects = Sinks.many().replay().latest();
+        projects.tryEmitNext(statusCache.projectOf(id));
+        AtomicReference<Watch> self = new AtomicReference<>();
+        Flux<DeploymentStatusDTO> statuses = projects.asFlux()
+                .distinctUntilChanged()
+                // Cancels the stream of the previous project; only the end of the current one ends the watch
+                .switchMap(project -> watchProject(id, project).doOnComplete(ended::tryEmitEmpty))
+                .takeUntilOther(ended.asMono())
+                .map(status -> statusCache.put(id, status))
+                .doFinally(signal -> watches.remove(id, self.get()))
+                .replay(1)
+                .refCount();
+        self.set(new Watch(statuses, projects, ended));
+        return self.get();
+    }
+
+    private Flux<AppStatus> watchProject(UUID id, String project) {
+        return Flux.<AppStatus>create(sink -> {
+                    Runnable cancel = grpcClient.watchStatus(project, new StreamObserver<>() {
+                        @Override
+                        public void onNext(AppStatus status) {
+                            sink.next(status);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            sink.error(t);
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            sink.complete();
+                        }
+                    });
+                    sink.onDispose(cancel::run);
+                })
+                .doOnError(error -> log.debug("Status watch of deployment {} broke: {}", id, error.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(maxReconnectBackoff)
+                        .filter(error -> Status.fromThrowable(error).getCode() != Status.Code.NOT_FOUND
+                                && deploymentRepository.existsById(id)))
+                // The retry never gives up, so an error only gets here once the deployment is gone
+                .onErrorComplete();
+    }
+}
@@ -0,0 +1,17 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+/**
+ * How an UPDATE job is applied.
+ */
+public enum DeploymentUpdateStrategy {
+    /** Stop the project, then start it with the new compose file. */
+    RECREATE,
+    /**
+     * Start the new compose file as the idle {@link DeploymentSlot} next to the live one, wait until all of its
+     * containers are healthy, point the nginx route of the deployment at it and only then stop the old slot.
+     * A revision that does not become healthy never receives traffic. Needs a {@link DeploymentRoute}, and
+     * files that cannot run twice at the same time (fixed host ports, container names, host network) are
+     * rejected.
+     */
+    BLUE_GREEN
+}
@@ -0,0 +1,140 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Fails docker-control calls fast once the daemon looks unhealthy.
+ * <p>
+ * After {@code failureThreshold} consecutive transport-level failures (unavailable, deadline exceeded, ...)
+ * the breaker opens and rejects calls for {@code openDuration} with a {@link ServiceUnavailableException}, which
+ * clients see as 503. It then lets a single trial call through; success closes the breaker again, failure re-opens
+ * it. Application-level errors reported inside an {@code ActionResult} do not count as failures.
+ */
+@Slf4j
+@Component
+public class DockerControlCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final Set<Status.Code> FAILURE_CODES = EnumSet.of(
+            Status.Code.UNAVAILABLE,
+            Status.Code.DEADLINE_EXCEEDED,
+            Status.Code.INTERNAL,
+            Status.Code.UNKNOWN
+    );
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile Instant openedAt = Instant.EPOCH;
+
+    public DockerControlCircuitBreaker(
+            @Value("${docker-control.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${docker-control.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    public State getState() {
+        if (state.get() == State.OPEN && openExpired()) {
+            return State.HALF_OPEN;
+        }
+        return state.get();
+    }
+
+    public <T> T call(Supplier<T> rpc) {
+        acquirePermission();
+        try {
+            T result = rpc.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            onError(e);
+            throw e;
+        }
+    }
+
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> rpc) {
+        try {
+            acquirePermission();
+        } catch (ServiceUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> future;
+        try {
+            future = rpc.get();
+        } catch (RuntimeException e) {
+            onError(e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            if (error == null) {
+                onSuccess();
+            } else {
+                onError(error);
+            }
+        });
+    }
+
+    private void acquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return;
+        }
+        if (current == State.OPEN && openExpired() && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            log.info("docker-control circuit half-open, sending trial call");
+            return;
+        }
+        throw new ServiceUnavailableException("docker-control is unavailable, please retry later");
+    }
+
+    private boolean openExpired() {
+        return !Instant.now().isBefore(openedAt.plus(openDuration));
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("docker-control circuit closed");
+        }
+    }
+
+    private void onError(Throwable error) {
+        if (!isFailure(error)) {
+            onSuccess();
+            return;
+        }
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && failures >= failureThreshold)) {
+            openedAt = Instant.now();
+            state.set(State.OPEN);
+            log.warn("docker-control circuit opened after {} consecutive failures", failures);
+        }
+    }
+
+    private static boolean isFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof StatusRuntimeException sre) {
+            return FAILURE_CODES.contains(sre.getStatus().getCode());
+        }
+        return false;
+    }
+}
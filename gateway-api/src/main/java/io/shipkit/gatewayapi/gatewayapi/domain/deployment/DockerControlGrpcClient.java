@@ -1,64 +1,432 @@
 package io.shipkit.gatewayapi.gatewayapi.domain.deployment;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
 import docker_control.*;
+import io.grpc.Context;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.AbstractStub;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.InternalServerException;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Slf4j
 @Component
 public class DockerControlGrpcClient {
 
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+
     private final ManagedChannel channel;
     private final DockerControlServiceGrpc.DockerControlServiceBlockingStub blockingStub;
+    private final DockerControlServiceGrpc.DockerControlServiceFutureStub futureStub;
+    private final DockerControlServiceGrpc.DockerControlServiceStub asyncStub;
+    private final DockerControlCircuitBreaker circuitBreaker;
+
+    @Value("${docker-control.max-compose-size:16MB}")
+    private DataSize maxComposeSize;
+
+    @Value("${docker-control.deadline.start-compose:10m}")
+    private Duration startComposeDeadline;
+
+    @Value("${docker-control.deadline.update-compose:10m}")
+    private Duration updateComposeDeadline;
+
+    @Value("${docker-control.deadline.start-healthy:20m}")
+    private Duration startHealthyDeadline;
+
+    @Value("${docker-control.deadline.pull-images:15m}")
+    private Duration pullImagesDeadline;
+
+    @Value("${docker-control.deadline.stop-app:5m}")
+    private Duration stopAppDeadline;
+
+    @Value("${docker-control.deadline.get-status:10s}")
+    private Duration getStatusDeadline;
+
+    @Value("${docker-control.deadline.get-statuses:30s}")
+    private Duration getStatusesDeadline;
+
+    @Value("${docker-control.deadline.reload-nginx:30s}")
+    private Duration reloadNginxDeadline;
+
+    @Value("${docker-control.deadline.issue-certificate:5m}")
+    private Duration issueCertificateDeadline;
 
     public DockerControlGrpcClient(
             @Value("${docker-control.host:localhost}") String host,
-            @Value("${docker-control.port:50051}") int port) {
+            @Value("${docker-control.port:50051}") int port,
+            @Value("${docker-control.retry.max-attempts:3}") int retryMaxAttempts,
+            DockerControlCircuitBreaker circuitBreaker) {
         this.channel = ManagedChannelBuilder.forAddress(host, port)
                 .usePlaintext()
+                .defaultServiceConfig(serviceConfig(retryMaxAttempts))
+                .enableRetry()
                 .build();
         this.blockingStub = DockerControlServiceGrpc.newBlockingStub(channel);
+        this.futureStub = DockerControlServiceGrpc.newFutureStub(channel);
+        this.asyncStub = DockerControlServiceGrpc.newStub(channel);
+        this.circuitBreaker = circuitBreaker;
         log.info("DockerControlGrpcClient connected to {}:{}", host, port);
     }
 
+    /**
+     * Only idempotent calls are retried: GetStatus(es) is read-only and StopApp on an already
+     * stopped project is reported as "App not found", which callers already tolerate.
+     */
+    private static Map<String, Object> serviceConfig(int retryMaxAttempts) {
+        Map<String, Object> retryPolicy = Map.of(
+                "maxAttempts", (double) retryMaxAttempts,
+                "initialBackoff", "0.5s",
+                "maxBackoff", "5s",
+                "backoffMultiplier", 2.0,
+                "retryableStatusCodes", List.of("UNAVAILABLE")
+        );
+        Map<String, Object> methodConfig = Map.of(
+                "name", List.of(
+                        Map.of("service", DockerControlServiceGrpc.SERVICE_NAME, "method", "GetStatus"),
+                        Map.of("service", DockerControlServiceGrpc.SERVICE_NAME, "method", "GetStatuses"),
+                        Map.of("service", DockerControlServiceGrpc.SERVICE_NAME, "method", "StopApp")
+                ),
+                "retryPolicy", retryPolicy
+        );
+        return Map.of("methodConfig", List.of(methodConfig));
+    }
+
     public ActionResult startCompose(String uuid, String composeYaml) {
         StartComposeRequest req = StartComposeRequest.newBuilder()
                 .setUuid(uuid)
                 .setComposeYaml(composeYaml)
                 .build();
-        return blockingStub.startCompose(req);
+        return circuitBreaker.call(() -> withDeadline(blockingStub, startComposeDeadline).startCompose(req));
+    }
+
+    /**
+     * StartCompose for large files: the content is read from {@code composeYaml} and sent in chunks, honouring
+     * gRPC flow control, so at most a few chunks are buffered regardless of the file size.
+     */
+    public ActionResult startComposeStream(String uuid, InputStream composeYaml) {
+        return upload(observer -> withDeadline(asyncStub, startComposeDeadline).startComposeStream(observer), composeYaml,
+                (data, first) -> {
+                    ComposeChunk.Builder chunk = ComposeChunk.newBuilder().setData(data);
+                    if (first) {
+                        chunk.setUuid(uuid);
+                    }
+                    return chunk.build();
+                });
+    }
+
+    /**
+     * Applies {@code composeYaml} to the running project and recreates only {@code services}; an empty list
+     * reconciles the whole project. Not retried, like StartCompose.
+     */
+    public ActionResult updateCompose(String uuid, String composeYaml, List<String> services) {
+        return upload(observer -> withDeadline(asyncStub, updateComposeDeadline).updateCompose(observer), utf8(composeYaml),
+                (data, first) -> {
+                    UpdateComposeRequest.Builder req = UpdateComposeRequest.newBuilder().setComposeChunk(data);
+                    if (first) {
+                        req.setUuid(uuid).addAllServices(services);
+                    }
+                    return req.build();
+                });
+    }
+
+    /**
+     * Starts {@code composeYaml} as project {@code uuid} and waits until all of its containers are healthy. A
+     * project that does not get there within {@code healthTimeout} is removed again. Not retried.
+     */
+    public ActionResult startHealthy(String uuid, String composeYaml, Duration healthTimeout) {
+        return upload(observer -> withDeadline(asyncStub, startHealthyDeadline).startHealthy(observer), utf8(composeYaml),
+                (data, first) -> {
+                    StartHealthyRequest.Builder req = StartHealthyRequest.newBuilder().setComposeChunk(data);
+                    if (first) {
+                        req.setUuid(uuid).setHealthTimeoutSeconds((int) healthTimeout.toSeconds());
+                    }
+                    return req.build();
+                });
+    }
+
+    /**
+     * Pulls all images of {@code composeYaml}, blocking until every pull has finished.
+     *
+     * @param onProgress called with the initial image count and then once per finished image
+     * @return images that could not be pulled, mapped to the error
+     */
+    public Map<String, String> pullImages(String uuid, String composeYaml, Consumer<PullImagesProgress> onProgress) {
+        return circuitBreaker.call(() -> {
+            Map<String, String> failures = new LinkedHashMap<>();
+            ChunkUpload<PullImagesRequest, PullImagesProgress> upload = new ChunkUpload<>(progress -> {
+                if (!progress.getError().isEmpty()) {
+                    failures.put(progress.getImage(), progress.getError());
+                }
+                onProgress.accept(progress);
+            });
+            withDeadline(asyncStub, pullImagesDeadline).pullImages(upload);
+            sendChunks(upload, utf8(composeYaml), (data, first) -> {
+                PullImagesRequest.Builder req = PullImagesRequest.newBuilder().setComposeChunk(data);
+                if (first) {
+                    req.setUuid(uuid);
+                }
+                return req.build();
+            });
+            upload.await();
+            return failures;
+        });
     }
 
     public ActionResult stopApp(String uuid) {
         StopAppRequest req = StopAppRequest.newBuilder()
                 .setUuid(uuid)
                 .build();
-        return blockingStub.stopApp(req);
+        return circuitBreaker.call(() -> withDeadline(blockingStub, stopAppDeadline).stopApp(req));
     }
 
     public AppStatus getStatus(String uuid) {
         GetStatusRequest req = GetStatusRequest.newBuilder()
                 .setUuid(uuid)
                 .build();
-        return blockingStub.getStatus(req);
+        return circuitBreaker.call(() -> withDeadline(blockingStub, getStatusDeadline).getStatus(req));
+    }
+
+    public ActionResult testNginxConfig(String containerName) {
+        TestNginxConfigRequest req = TestNginxConfigRequest.newBuilder()
+                .setContainerName(containerName)
+                .build();
+        return circuitBreaker.call(() -> withDeadline(blockingStub, reloadNginxDeadline).testNginxConfig(req));
     }
 
     public ActionResult reloadNginx(String containerName) {
         ReloadNginxRequest req = ReloadNginxRequest.newBuilder()
                 .setContainerName(containerName)
                 .build();
-        return blockingStub.reloadNginx(req);
+        return circuitBreaker.call(() -> withDeadline(blockingStub, reloadNginxDeadline).reloadNginx(req));
     }
 
     public ActionResult issueCertificate(String domain) {
         IssueCertificateRequest req = IssueCertificateRequest.newBuilder()
                 .setDomain(domain)
                 .build();
-        return blockingStub.issueCertificate(req);
+        return circuitBreaker.call(() -> withDeadline(blockingStub, issueCertificateDeadline).issueCertificate(req));
+    }
+
+    /*
+     * Non-blocking variants for the status cache. The returned futures complete on a gRPC executor thread.
+     */
+
+    public CompletableFuture<AppStatus> getStatusAsync(String uuid) {
+        GetStatusRequest req = GetStatusRequest.newBuilder()
+                .setUuid(uuid)
+                .build();
+        return circuitBreaker.callAsync(() -> toCompletableFuture(withDeadline(futureStub, getStatusDeadline).getStatus(req)));
+    }
+
+    /**
+     * Statuses of several apps in one round trip, in the order of {@code uuids}.
+     */
+    public CompletableFuture<List<AppStatus>> getStatusesAsync(List<String> uuids) {
+        GetStatusesRequest req = GetStatusesRequest.newBuilder()
+                .addAllUuids(uuids)
+                .build();
+        return circuitBreaker.callAsync(() -> toCompletableFuture(withDeadline(futureStub, getStatusesDeadline).getStatuses(req)))
+                .thenApply(GetStatusesResponse::getStatusesList);
+    }
+
+    /**
+     * Opens a WatchStatus stream. docker-control sends the current status first and then one message per change.
+     * The stream has no deadline and is not guarded by the circuit breaker; it ends when the returned handle is
+     * run, when the server closes it, or with an error on {@code observer}.
+     *
+     * @return handle that cancels the stream
+     */
+    public Runnable watchStatus(String uuid, StreamObserver<AppStatus> observer) {
+        WatchStatusRequest req = WatchStatusRequest.newBuilder()
+                .setUuid(uuid)
+                .build();
+        Context.CancellableContext context = Context.current().withCancellation();
+        context.run(() -> asyncStub.watchStatus(req, observer));
+        return () -> context.cancel(null);
+    }
+
+    /**
+     * Runs a call that takes the compose file in chunks and answers with a single {@link ActionResult}.
+     */
+    private <T> ActionResult upload(Function<StreamObserver<ActionResult>, StreamObserver<T>> call, InputStream composeYaml,
+                                    BiFunction<ByteString, Boolean, T> chunk) {
+        return circuitBreaker.call(() -> {
+            AtomicReference<ActionResult> result = new AtomicReference<>();
+            ChunkUpload<T, ActionResult> upload = new ChunkUpload<>(result::set);
+            call.apply(upload);
+            sendChunks(upload, composeYaml, chunk);
+            upload.await();
+            return result.get();
+        });
+    }
+
+    /**
+     * Sends {@code composeYaml} through {@code upload} and half-closes the stream. {@code chunk} builds the request
+     * message for a piece of the file; its second argument is true for the first message, which has to carry the
+     * remaining request fields. Files above {@code docker-control.max-compose-size} are rejected without sending
+     * the rest, docker-control enforces the same limit.
+     */
+    private <T> void sendChunks(ChunkUpload<T, ?> upload, InputStream composeYaml, BiFunction<ByteString, Boolean, T> chunk) {
+        try (composeYaml) {
+            byte[] buffer = new byte[STREAM_CHUNK_SIZE];
+            long sent = 0;
+            boolean first = true;
+            for (int read; (read = composeYaml.readNBytes(buffer, 0, buffer.length)) > 0; first = false) {
+                sent += read;
+                if (sent > maxComposeSize.toBytes()) {
+                    upload.cancel(null);
+                    throw new BadRequestException("Compose file exceeds the maximum size of " + maxComposeSize.toMegabytes() + "MB");
+                }
+                upload.send(chunk.apply(ByteString.copyFrom(buffer, 0, read), first));
+            }
+            upload.complete();
+        } catch (IOException e) {
+            upload.cancel(e);
+            throw new InternalServerException("Failed to read compose content");
+        }
+    }
+
+    private static InputStream utf8(String composeYaml) {
+        return new ByteArrayInputStream(composeYaml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Client side of the calls that take the compose file in chunks. {@link #send} blocks while the transport is
+     * not ready for more data; responses are handed to {@code onResponse} as they arrive.
+     */
+    private static final class ChunkUpload<T, R> implements ClientResponseObserver<T, R> {
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final Consumer<R> onResponse;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private ClientCallStreamObserver<T> requests;
+
+        ChunkUpload(Consumer<R> onResponse) {
+            this.onResponse = onResponse;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<T> requests) {
+            this.requests = requests;
+            requests.setOnReadyHandler(() -> {
+                lock.lock();
+                try {
+                    ready.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            });
+        }
+
+        void send(T chunk) {
+            lock.lock();
+            try {
+                while (!requests.isReady() && !done.isDone()) {
+                    ready.await(100, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(e);
+                throw new InternalServerException("Interrupted while sending compose content");
+            } finally {
+                lock.unlock();
+            }
+            if (!done.isDone()) {
+                requests.onNext(chunk);
+            }
+        }
+
+        void complete() {
+            if (!done.isDone()) {
+                requests.onCompleted();
+            }
+        }
+
+        void cancel(Throwable cause) {
+            requests.cancel("Upload aborted", cause);
+        }
+
+        /**
+         * Blocks until docker-control has closed the call.
+         */
+        void await() {
+            try {
+                done.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        @Override
+        public void onNext(R value) {
+            onResponse.accept(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            done.complete(null);
+        }
+    }
+
+    private static <S extends AbstractStub<S>> S withDeadline(S stub, Duration deadline) {
+        return stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> listenable) {
+        CompletableFuture<T> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                listenable.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        Futures.addCallback(listenable, new FutureCallback<>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
     }
 
     @PreDestroy
@@ -67,4 +435,4 @@ public class DockerControlGrpcClient {
             channel.shutdownNow();
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,6 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto;
+
+public record ComposeUploadDTO(
+        String composeHash,
+        long size
+) {}
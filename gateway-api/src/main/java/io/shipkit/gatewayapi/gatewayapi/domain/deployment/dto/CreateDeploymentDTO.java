@@ -1,8 +1,13 @@
 package io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto;
 
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.DeploymentUpdateStrategy;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 
 public record CreateDeploymentDTO(
         @NotBlank String name,
-        @NotBlank String composeYaml
+        String composeYaml,
+        String composeHash,
+        DeploymentUpdateStrategy updateStrategy,
+        @Valid DeploymentRouteDTO route
 ) {} 
\ No newline at end of file
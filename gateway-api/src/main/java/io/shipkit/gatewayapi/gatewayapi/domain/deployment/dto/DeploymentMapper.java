@@ -1,6 +1,7 @@
 package io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto;
 
 import io.shipkit.gatewayapi.gatewayapi.domain.deployment.Deployment;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.DeploymentRoute;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -11,11 +12,30 @@ public interface DeploymentMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "state", ignore = true)
+    @Mapping(target = "lastError", ignore = true)
+    @Mapping(target = "progress", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "jobId", ignore = true)
+    @Mapping(target = "composeHash", ignore = true)
+    @Mapping(target = "revision", ignore = true)
+    @Mapping(target = "slot", ignore = true)
     Deployment toEntity(CreateDeploymentDTO dto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "state", ignore = true)
+    @Mapping(target = "lastError", ignore = true)
+    @Mapping(target = "progress", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "jobId", ignore = true)
+    @Mapping(target = "composeHash", ignore = true)
+    @Mapping(target = "revision", ignore = true)
+    @Mapping(target = "slot", ignore = true)
     @Mapping(target = "name", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
-    @Mapping(target = "composeYaml", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "updateStrategy", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "route", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntity(@MappingTarget Deployment entity, UpdateDeploymentDTO dto);
-} 
\ No newline at end of file
+
+    DeploymentRoute toRoute(DeploymentRouteDTO dto);
+}
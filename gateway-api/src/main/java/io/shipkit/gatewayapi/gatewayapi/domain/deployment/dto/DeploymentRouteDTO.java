@@ -0,0 +1,13 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+public record DeploymentRouteDTO(
+        @NotBlank @Pattern(regexp = "^[a-zA-Z0-9.-]+$") String domain,
+        @NotBlank @Pattern(regexp = "^[a-zA-Z0-9._-]+$") String service,
+        @NotNull @Min(1) @Max(65535) Integer port
+) {}
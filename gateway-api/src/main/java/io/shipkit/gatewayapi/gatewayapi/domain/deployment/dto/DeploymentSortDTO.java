@@ -0,0 +1,19 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto;
+
+import org.springframework.data.domain.Sort;
+
+public record DeploymentSortDTO(
+        DeploymentSortField field,
+        Sort.Direction direction
+) {
+    public static final DeploymentSortDTO DEFAULT = new DeploymentSortDTO(DeploymentSortField.CREATED_AT, Sort.Direction.ASC);
+
+    public DeploymentSortDTO {
+        if (field == null) {
+            field = DeploymentSortField.CREATED_AT;
+        }
+        if (direction == null) {
+            direction = Sort.Direction.ASC;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto;
+
+public enum DeploymentSortField {
+    CREATED_AT,
+    NAME
+}
@@ -3,6 +3,7 @@ package io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto;
 import docker_control.AppStatus;
 import docker_control.ContainerStatus;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -10,9 +11,11 @@ public record DeploymentStatusDTO(String uuid,
                                   String state,
                                   String message,
                                   int status,
-                                  List<ContainerStatusDTO> containers) {
+                                  List<ContainerStatusDTO> containers,
+                                  Instant fetchedAt,
+                                  boolean stale) {
 
-    public static DeploymentStatusDTO from(AppStatus appStatus) {
+    public static DeploymentStatusDTO from(AppStatus appStatus, Instant fetchedAt, boolean stale) {
         List<ContainerStatusDTO> containers = appStatus.getContainersList().stream()
                 .map(DeploymentStatusDTO::mapContainer)
                 .collect(Collectors.toList());
@@ -21,7 +24,9 @@ public record DeploymentStatusDTO(String uuid,
                 appStatus.getState().name(),
                 appStatus.getMessage(),
                 appStatus.getStatus(),
-                containers);
+                containers,
+                fetchedAt,
+                stale);
     }
 
     private static ContainerStatusDTO mapContainer(ContainerStatus cs) {
@@ -1,6 +1,12 @@
 package io.shipkit.gatewayapi.gatewayapi.domain.deployment.dto;
 
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.DeploymentUpdateStrategy;
+import jakarta.validation.Valid;
+
 public record UpdateDeploymentDTO(
         String name,
-        String composeYaml
+        String composeYaml,
+        String composeHash,
+        DeploymentUpdateStrategy updateStrategy,
+        @Valid DeploymentRouteDTO route
 ) {} 
\ No newline at end of file
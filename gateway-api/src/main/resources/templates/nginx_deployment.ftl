@@ -0,0 +1,21 @@
+server {
+    listen 80;
+    server_name ${domain};
+
+    # Resolved per request through Docker's DNS, so nginx starts and reloads while the upstream is down
+    resolver 127.0.0.11 valid=10s ipv6=off;
+    set $upstream http://${upstream};
+
+    location / {
+        proxy_pass $upstream;
+        include /etc/nginx/snippets/proxy-headers.conf;
+
+        proxy_http_version 1.1;
+        proxy_set_header Upgrade $http_upgrade;
+        proxy_set_header Connection 'upgrade';
+
+        proxy_connect_timeout 50s;
+        proxy_send_timeout 50s;
+        proxy_read_timeout 50s;
+    }
+}
@@ -10,6 +10,8 @@ server {
         proxy_pass http://gateway-api:8080/;
         include /etc/nginx/snippets/proxy-headers.conf;
         include /etc/nginx/snippets/cors.conf;
+        # GraphQL subscriptions are streamed as server-sent events
+        proxy_buffering off;
     }
 
     location / {
@@ -82,6 +84,8 @@ server {
         proxy_pass http://gateway-api:8080/;
         include /etc/nginx/snippets/proxy-headers.conf;
         include /etc/nginx/snippets/cors.conf;
+        # GraphQL subscriptions are streamed as server-sent events
+        proxy_buffering off;
     }
 }
 </#if> 
\ No newline at end of file
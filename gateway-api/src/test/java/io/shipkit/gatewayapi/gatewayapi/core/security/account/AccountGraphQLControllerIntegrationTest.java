@@ -1,5 +1,7 @@
 package io.shipkit.gatewayapi.gatewayapi.core.security.account;
 
+import io.shipkit.gatewayapi.gatewayapi.core.security.CustomUserDetailsService;
+import io.shipkit.gatewayapi.gatewayapi.core.security.jwt.VerifiedTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -7,8 +9,10 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.graphql.test.tester.GraphQlTester;
 import org.springframework.graphql.test.tester.HttpGraphQlTester;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,8 +30,11 @@ class AccountGraphQLControllerIntegrationTest {
 
     @Autowired MockMvc mockMvc;
     @Autowired AccountRepository accountRepository;
+    @Autowired VerifiedTokenCache tokenCache;
+    @Autowired CustomUserDetailsService userDetailsService;
+    @Autowired ApplicationEventPublisher eventPublisher;
 
-    private GraphQlTester graphQlTester;
+    private HttpGraphQlTester graphQlTester;
 
     @BeforeEach
     void setUp() {
@@ -44,7 +51,8 @@ class AccountGraphQLControllerIntegrationTest {
         graphQlTester.documentName("status")
                 .execute()
                 .path("status.status").entity(String.class).isEqualTo("healthy")
-                .path("status.adminInitialized").entity(Boolean.class).isEqualTo(false);
+                .path("status.adminInitialized").entity(Boolean.class).isEqualTo(false)
+                .path("status.dockerControl").entity(String.class).isEqualTo("CLOSED");
     }
 
     @Test
@@ -206,6 +214,107 @@ class AccountGraphQLControllerIntegrationTest {
                 .errors().satisfy(err -> assertFalse(err.isEmpty()));
     }
 
+    @Test
+    void shouldServeAccountsFromCacheUntilChanged() {
+        graphQlTester.documentName("register")
+                .variable("input", Map.of(
+                        "email", "cached@example.com",
+                        "password", "password123"))
+                .execute();
+        String passwordHash = userDetailsService.loadUserByUsername("cached@example.com").getPassword();
+
+        // A change that bypasses AccountService is not seen until the account is invalidated
+        accountRepository.findByEmail("cached@example.com").orElseThrow().setPassword("changed");
+        assertEquals(passwordHash, userDetailsService.loadUserByUsername("cached@example.com").getPassword());
+
+        eventPublisher.publishEvent(new AccountChangedEvent("cached@example.com"));
+        assertEquals("changed", userDetailsService.loadUserByUsername("cached@example.com").getPassword());
+    }
+
+    @Test
+    void shouldRehashPasswordWithOutdatedCostOnLogin() {
+        accountRepository.save(Account.builder()
+                .email("legacy@example.com")
+                .password(new BCryptPasswordEncoder(4).encode("password123"))
+                .build());
+
+        graphQlTester.documentName("login")
+                .variable("email", "legacy@example.com")
+                .variable("password", "password123")
+                .execute()
+                .path("login.token").entity(String.class).satisfies(token -> assertFalse(token.isEmpty()));
+
+        String rehashed = accountRepository.findByEmail("legacy@example.com").orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("$2a$10$"));
+        assertTrue(new BCryptPasswordEncoder().matches("password123", rehashed));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com")
+    void shouldThrottleRepeatedLoginsForOneEmail() {
+        for (int i = 0; i < 5; i++) {
+            graphQlTester.documentName("login")
+                    .variable("email", "throttled@example.com")
+                    .variable("password", "wrongpassword")
+                    .execute()
+                    .errors().satisfy(errors -> assertEquals("Bad Credentials", errors.get(0).getMessage()));
+        }
+
+        // Rejected before the password is checked, also with the right one
+        graphQlTester.documentName("login")
+                .variable("email", "Throttled@example.com")
+                .variable("password", "password123")
+                .execute()
+                .errors().satisfy(errors -> assertTrue(errors.get(0).getMessage().startsWith("Too many login attempts")));
+
+        graphQlTester.documentName("loginRateLimit")
+                .execute()
+                .path("loginRateLimit.rejectedByEmail").entity(Integer.class).satisfies(rejected -> assertTrue(rejected >= 1))
+                .path("loginRateLimit.trackedAddresses").entity(Integer.class).satisfies(tracked -> assertTrue(tracked >= 1));
+    }
+
+    @Test
+    void shouldAuthenticateWithIssuedToken() {
+        String token = graphQlTester.documentName("register")
+                .variable("input", Map.of(
+                        "email", "bearer@example.com",
+                        "password", "oldpassword123"))
+                .execute()
+                .path("register.token")
+                .entity(String.class)
+                .get();
+
+        HttpGraphQlTester authenticated = graphQlTester.mutate()
+                .header("Authorization", "Bearer " + token)
+                .build();
+        authenticated.documentName("status")
+                .execute()
+                .path("status.adminInitialized").entity(Boolean.class).isEqualTo(true);
+
+        // Further requests are served from the verified-token cache until the password change evicts it
+        assertNotNull(tokenCache.get(token));
+        String newToken = authenticated.documentName("changePassword")
+                .variable("input", Map.of(
+                        "oldPassword", "oldpassword123",
+                        "newPassword", "newpassword456"))
+                .execute()
+                .path("changePassword.token")
+                .entity(String.class)
+                .get();
+        assertNull(tokenCache.get(token));
+
+        // Tokens issued for the old password are rejected, the new one is accepted
+        authenticated.documentName("loginRateLimit")
+                .execute()
+                .errors().satisfy(errors -> assertFalse(errors.isEmpty()));
+        graphQlTester.mutate()
+                .header("Authorization", "Bearer " + newToken)
+                .build()
+                .documentName("loginRateLimit")
+                .execute()
+                .path("loginRateLimit.allowed").hasValue();
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void shouldChangePasswordWithValidCredentials() {
@@ -0,0 +1,62 @@
+package io.shipkit.gatewayapi.gatewayapi.core.security.jwt;
+
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.Account;
+import io.shipkit.gatewayapi.gatewayapi.core.security.account.AccountChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.graphql.test.tester.HttpGraphQlTester;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = "jwt.stateless=true")
+@AutoConfigureMockMvc
+class StatelessJwtIntegrationTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired JwtService jwtService;
+    @Autowired ApplicationEventPublisher eventPublisher;
+
+    private HttpGraphQlTester graphQlTester;
+
+    @BeforeEach
+    void setUp() {
+        WebTestClient client = MockMvcWebTestClient
+                .bindTo(mockMvc)
+                .baseUrl("/graphql")
+                .build();
+        graphQlTester = HttpGraphQlTester.create(client);
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsUntilPasswordChanges() {
+        Instant passwordChangedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        // The account does not exist in the database, the token alone authenticates
+        String token = jwtService.generateToken(Account.builder()
+                .email("stateless@example.com")
+                .password("unused")
+                .passwordChangedAt(passwordChangedAt)
+                .build());
+        HttpGraphQlTester authenticated = graphQlTester.mutate()
+                .header("Authorization", "Bearer " + token)
+                .build();
+
+        authenticated.documentName("loginRateLimit")
+                .execute()
+                .path("loginRateLimit.allowed").hasValue();
+
+        eventPublisher.publishEvent(new AccountChangedEvent("stateless@example.com", passwordChangedAt.plusSeconds(1)));
+        authenticated.documentName("loginRateLimit")
+                .execute()
+                .errors().satisfy(errors -> assertFalse(errors.isEmpty()));
+    }
+}
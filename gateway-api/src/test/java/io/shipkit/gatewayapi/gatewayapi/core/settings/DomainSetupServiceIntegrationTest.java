@@ -0,0 +1,222 @@
+package io.shipkit.gatewayapi.gatewayapi.core.settings;
+
+import docker_control.ActionResult;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.BadRequestException;
+import io.shipkit.gatewayapi.gatewayapi.domain.deployment.DockerControlGrpcClient;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "nginx.vhost.output-dir=${java.io.tmpdir}/shipkit-test-nginx",
+        "public-ip.sources=http",
+        "dns-validation.timeout=1s",
+        "nginx.reload.coalesce-window=100ms"
+})
+class DomainSetupServiceIntegrationTest {
+
+    /** Stands in for the public IP service and counts how often it is asked. */
+    private static final AtomicInteger publicIpRequests = new AtomicInteger();
+    private static HttpServer publicIpStub;
+
+    @BeforeAll
+    static void startPublicIpStub() throws IOException {
+        publicIpStub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        publicIpStub.createContext("/ip", exchange -> {
+            publicIpRequests.incrementAndGet();
+            byte[] body = "127.0.0.1\n".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        publicIpStub.start();
+    }
+
+    @AfterAll
+    static void stopPublicIpStub() {
+        publicIpStub.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void publicIpProperties(DynamicPropertyRegistry registry) {
+        registry.add("public-ip.urls", () -> "http://127.0.0.1:" + publicIpStub.getAddress().getPort() + "/ip");
+    }
+
+    @MockitoBean DockerControlGrpcClient dockerClient;
+    @Autowired DomainSetupService domainSetupService;
+    @Autowired PlatformSettingRepository repository;
+    @Autowired DomainDnsValidator dnsValidator;
+    @Autowired NginxReloadScheduler reloadScheduler;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository.deleteAll();
+        // Written vhosts would otherwise survive between runs and make the reload step look unnecessary
+        Path nginxDir = Path.of(System.getProperty("java.io.tmpdir"), "shipkit-test-nginx");
+        if (Files.isDirectory(nginxDir)) {
+            try (Stream<Path> files = Files.list(nginxDir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldRunSetupStepsInBackground() {
+        when(dockerClient.testNginxConfig(anyString())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+        when(dockerClient.reloadNginx(anyString())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+
+        domainSetupService.configureDomain("pipeline.example.com", true, false, false);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> repository.findByFqdn("pipeline.example.com")
+                .orElseThrow().getSetupStatus() == DomainSetupStatus.SUCCEEDED);
+        PlatformSetting setting = repository.findByFqdn("pipeline.example.com").orElseThrow();
+        assertEquals(DomainSetupStatus.SKIPPED, setting.getSetupSteps().get(0).getStatus());
+        assertEquals(DomainSetupStatus.SKIPPED, setting.getSetupSteps().get(1).getStatus());
+        assertEquals(DomainSetupStatus.SUCCEEDED, setting.getSetupSteps().get(2).getStatus());
+        assertEquals(DomainSetupStatus.SUCCEEDED, setting.getSetupSteps().get(3).getStatus());
+        assertTrue(Files.exists(Path.of(System.getProperty("java.io.tmpdir"), "shipkit-test-nginx", "pipeline.example.com.conf")));
+        assertNull(setting.getSetupActive());
+        verify(dockerClient, never()).issueCertificate(any());
+    }
+
+    @Test
+    void shouldAllowOnlyOneActiveSetup() {
+        repository.save(PlatformSetting.builder().fqdn("first.example.com").setupStatus(DomainSetupStatus.RUNNING).build());
+
+        // Saved directly, as a setup that passed the check in configureDomain concurrently would be
+        assertThrows(DataIntegrityViolationException.class, () -> repository.save(
+                PlatformSetting.builder().fqdn("second.example.com").setupStatus(DomainSetupStatus.PENDING).build()));
+        BadRequestException error = assertThrows(BadRequestException.class,
+                () -> domainSetupService.configureDomain("second.example.com", true, false, false));
+        assertEquals("Another domain setup is still in progress", error.getMessage());
+    }
+
+    @Test
+    void shouldStopAtFailedStep() {
+        when(dockerClient.issueCertificate("failing.example.com"))
+                .thenReturn(ActionResult.newBuilder().setStatus(1).setMessage("rate limited").build());
+
+        domainSetupService.configureDomain("failing.example.com", true, true, true);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> repository.findByFqdn("failing.example.com")
+                .orElseThrow().getSetupStatus() == DomainSetupStatus.FAILED);
+        PlatformSetting setting = repository.findByFqdn("failing.example.com").orElseThrow();
+        DomainSetupStep certificate = setting.getSetupSteps().get(1);
+        assertEquals(DomainSetupStatus.FAILED, certificate.getStatus());
+        assertTrue(certificate.getError().contains("rate limited"));
+        assertEquals(DomainSetupStatus.PENDING, setting.getSetupSteps().get(2).getStatus());
+        verify(dockerClient, never()).reloadNginx(anyString());
+    }
+
+    @Test
+    void shouldValidateAgainstCachedPublicIp() {
+        when(dockerClient.testNginxConfig(anyString())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+        when(dockerClient.reloadNginx(anyString())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+
+        domainSetupService.configureDomain("localhost", false, false, false);
+        await().atMost(Duration.ofSeconds(5)).until(() -> repository.findByFqdn("localhost")
+                .orElseThrow().getSetupStatus() == DomainSetupStatus.SUCCEEDED);
+        int requests = publicIpRequests.get();
+        assertTrue(requests >= 1);
+
+        domainSetupService.configureDomain("localhost", false, false, false);
+        await().atMost(Duration.ofSeconds(5)).until(() -> repository.findByFqdn("localhost")
+                .orElseThrow().getSetupStatus() == DomainSetupStatus.SUCCEEDED);
+        assertEquals(requests, publicIpRequests.get());
+    }
+
+    @Test
+    void shouldSkipReloadWhenVhostIsUnchanged() {
+        when(dockerClient.testNginxConfig(anyString())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+        when(dockerClient.reloadNginx(anyString())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+
+        domainSetupService.configureDomain("unchanged.example.com", true, false, false);
+        await().atMost(Duration.ofSeconds(5)).until(() -> repository.findByFqdn("unchanged.example.com")
+                .orElseThrow().getSetupStatus() == DomainSetupStatus.SUCCEEDED);
+        assertEquals(DomainSetupStatus.SUCCEEDED, repository.findByFqdn("unchanged.example.com").orElseThrow()
+                .getSetupSteps().get(3).getStatus());
+
+        domainSetupService.configureDomain("unchanged.example.com", true, false, false);
+        await().atMost(Duration.ofSeconds(5)).until(() -> repository.findByFqdn("unchanged.example.com")
+                .orElseThrow().getSetupStatus() == DomainSetupStatus.SUCCEEDED);
+        assertEquals(DomainSetupStatus.SKIPPED, repository.findByFqdn("unchanged.example.com").orElseThrow()
+                .getSetupSteps().get(3).getStatus());
+        verify(dockerClient, times(1)).reloadNginx(anyString());
+    }
+
+    @Test
+    void shouldCoalesceReloadRequests() {
+        when(dockerClient.testNginxConfig(anyString())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+        when(dockerClient.reloadNginx(anyString())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+
+        CompletableFuture<Void> first = reloadScheduler.requestReload();
+        CompletableFuture<Void> second = reloadScheduler.requestReload();
+        CompletableFuture<Void> third = reloadScheduler.requestReload();
+        CompletableFuture.allOf(first, second, third).join();
+
+        verify(dockerClient, times(1)).testNginxConfig(anyString());
+        verify(dockerClient, times(1)).reloadNginx(anyString());
+    }
+
+    @Test
+    void shouldNotReloadInvalidConfiguration() {
+        when(dockerClient.testNginxConfig(anyString())).thenReturn(ActionResult.newBuilder().setStatus(1)
+                .setMessage("NGINX configuration test failed")
+                .setDetails("nginx: [emerg] unknown directive \"serer\"").build());
+
+        CompletableFuture<Void> first = reloadScheduler.requestReload();
+        CompletableFuture<Void> second = reloadScheduler.requestReload();
+
+        CompletionException error = assertThrows(CompletionException.class, second::join);
+        assertTrue(error.getCause().getMessage().contains("unknown directive"));
+        assertTrue(first.isCompletedExceptionally());
+        verify(dockerClient, never()).reloadNginx(anyString());
+    }
+
+    @Test
+    void shouldRejectDomainPointingElsewhere() {
+        InetAddress other = PublicIpResolver.parseLiteral("203.0.113.7");
+        assertFalse(dnsValidator.resolve("localhost").isEmpty());
+
+        BadRequestException error = assertThrows(BadRequestException.class,
+                () -> dnsValidator.validate("localhost", List.of(other)));
+        assertTrue(error.getMessage().contains("an A record pointing to 203.0.113.7"));
+    }
+
+    @Test
+    void shouldRejectMalformedDomain() {
+        assertThrows(RuntimeException.class, () -> domainSetupService.configureDomain("not a domain", true, false, false));
+    }
+}
@@ -14,6 +14,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -56,4 +61,50 @@ class PlatformSettingGraphQLControllerIntegrationTest {
 
         verify(domainSetupService).configureDomain(eq(domain), eq(false), eq(sslEnabled), eq(forceSsl));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void shouldReportSetupProgress() {
+        repository.save(PlatformSetting.builder()
+                .fqdn("progress.example.com")
+                .sslEnabled(true)
+                .setupStatus(DomainSetupStatus.FAILED)
+                .setupError("Failed to issue certificate")
+                .setupSteps(new ArrayList<>(List.of(
+                        DomainSetupStep.builder().type(DomainSetupStepType.VALIDATE_DNS).status(DomainSetupStatus.SKIPPED).build(),
+                        DomainSetupStep.builder().type(DomainSetupStepType.ISSUE_CERTIFICATE).status(DomainSetupStatus.FAILED)
+                                .error("Failed to issue certificate").build(),
+                        DomainSetupStep.builder().type(DomainSetupStepType.WRITE_VHOST).status(DomainSetupStatus.PENDING).build(),
+                        DomainSetupStep.builder().type(DomainSetupStepType.RELOAD_NGINX).status(DomainSetupStatus.PENDING).build())))
+                .build());
+
+        graphQlTester.documentName("platformSettings")
+                .execute()
+                .path("platformSettings.setupStatus").entity(String.class).isEqualTo("FAILED")
+                .path("platformSettings.setupSteps[*].type").entityList(String.class)
+                .containsExactly("VALIDATE_DNS", "ISSUE_CERTIFICATE", "WRITE_VHOST", "RELOAD_NGINX")
+                .path("platformSettings.setupSteps[1].status").entity(String.class).isEqualTo("FAILED")
+                .path("platformSettings.setupSteps[1].error").entity(String.class).isEqualTo("Failed to issue certificate");
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReportMostRecentlyStartedSetup() {
+        // The domain configured again keeps its older row, so it was created first but started last
+        repository.saveAndFlush(PlatformSetting.builder()
+                .fqdn("again.example.com")
+                .setupStatus(DomainSetupStatus.RUNNING)
+                .setupStartedAt(Instant.now())
+                .build());
+        repository.saveAndFlush(PlatformSetting.builder()
+                .fqdn("other.example.com")
+                .setupStatus(DomainSetupStatus.SUCCEEDED)
+                .setupStartedAt(Instant.now().minus(1, ChronoUnit.HOURS))
+                .build());
+
+        graphQlTester.documentName("platformSettings")
+                .execute()
+                .path("platformSettings.fqdn").entity(String.class).isEqualTo("again.example.com")
+                .path("platformSettings.setupStatus").entity(String.class).isEqualTo("RUNNING");
+    }
+}
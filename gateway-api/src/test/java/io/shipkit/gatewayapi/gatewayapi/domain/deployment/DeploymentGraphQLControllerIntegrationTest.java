@@ -4,40 +4,77 @@ import docker_control.ActionResult;
 import docker_control.AppStatus;
 import docker_control.AppState;
 import docker_control.ContainerStatus;
+import docker_control.PullImagesProgress;
+import io.shipkit.gatewayapi.gatewayapi.core.exceptions.ServiceUnavailableException;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
 import org.springframework.graphql.test.tester.GraphQlTester;
 import org.springframework.graphql.test.tester.HttpGraphQlTester;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
-
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @SpringBootTest
 @AutoConfigureMockMvc
-@Transactional
 class DeploymentGraphQLControllerIntegrationTest {
 
     @Autowired MockMvc mockMvc;
+    @Autowired ExecutionGraphQlService graphQlService;
     @Autowired DeploymentRepository deploymentRepository;
+    @Autowired DeploymentJobRepository jobRepository;
+    @Autowired ComposeContentRepository contentRepository;
+    @Autowired ComposeContentStore composeStore;
+    @Autowired DeploymentRevisionRepository revisionRepository;
+    @Autowired DeploymentStatusCache statusCache;
     @MockitoBean DockerControlGrpcClient grpcClient;
+    @Value("${nginx.vhost.output-dir}") String nginxDir;
 
     private GraphQlTester graphQlTester;
 
     @BeforeEach
     void setUp() {
+        jobRepository.deleteAll();
+        revisionRepository.deleteAll();
         deploymentRepository.deleteAll();
         WebTestClient client = MockMvcWebTestClient
                 .bindTo(mockMvc)
@@ -59,31 +96,146 @@ class DeploymentGraphQLControllerIntegrationTest {
                 .variable("input", Map.of("name", name, "composeYaml", composeYaml))
                 .execute();
 
-        response.path("createDeployment.id").hasValue();
+        String deploymentId = response.path("createDeployment.id").entity(String.class).get();
+        response.path("createDeployment.state").entity(String.class).isEqualTo("PENDING");
+        String jobId = response.path("createDeployment.jobId").entity(String.class).get();
 
         assertEquals(1, deploymentRepository.count());
+        verify(grpcClient, timeout(5000)).startCompose(deploymentId, composeYaml);
+        awaitJob(jobId, DeploymentJobStatus.SUCCEEDED);
+        assertEquals(DeploymentState.RUNNING, deploymentRepository.findById(UUID.fromString(deploymentId)).orElseThrow().getState());
     }
 
     @Test
     @WithMockUser
-    void shouldUpdateDeployment() {
+    void shouldStoreIdenticalComposeFilesOnceAndCompressed() {
         when(grpcClient.startCompose(any(), any()))
                 .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
-        when(grpcClient.stopApp(any()))
-                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("stopped").build());
+        String composeYaml = "services:\n" + "  app:\n    image: nginx\n    environment:\n      - A=1\n".repeat(50);
+
+        for (String name : List.of("web-1", "web-2")) {
+            graphQlTester.documentName("createDeployment")
+                    .variable("input", Map.of("name", name, "composeYaml", composeYaml))
+                    .execute()
+                    .path("createDeployment.composeYaml")
+                    .entity(String.class)
+                    .isEqualTo(composeYaml);
+        }
+
+        String hash = deploymentRepository.findAll().get(0).getComposeHash();
+        ComposeContent content = contentRepository.findById(hash).orElseThrow();
+        assertEquals(2, deploymentRepository.count());
+        assertEquals(hash, deploymentRepository.findAll().get(1).getComposeHash());
+        assertEquals(composeYaml.length(), content.getSize());
+        assertTrue(content.getData().length < content.getSize());
+    }
 
-        String originalName = "app";
-        String originalYaml = "version: '3'\nservices:\n  app:\n    image: nginx";
-        String updatedYaml = "version: '3'\nservices:\n  app:\n    image: httpd";
-        String updatedName = "app2";
+    @Test
+    @WithMockUser
+    void shouldCreateDeploymentFromUploadedComposeFile() throws Exception {
+        when(grpcClient.startComposeStream(any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
 
-        String deploymentId = graphQlTester.documentName("createDeployment")
-                .variable("input", Map.of("name", originalName, "composeYaml", originalYaml))
+        // Larger than docker-control.stream-threshold in the test properties
+        String composeYaml = "services:\n  app:\n    image: nginx\n    environment:\n" + "      KEY: value\n".repeat(200);
+        MockMultipartFile file = new MockMultipartFile("file", "compose.yaml", "application/yaml", composeYaml.getBytes(StandardCharsets.UTF_8));
+        String upload = mockMvc.perform(multipart("/deployments/compose").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String composeHash = new ObjectMapper().readTree(upload).get("composeHash").asText();
+        assertEquals(composeStore.store(composeYaml), composeHash);
+
+        GraphQlTester.Response response = graphQlTester.documentName("createDeployment")
+                .variable("input", Map.of("name", "big", "composeHash", composeHash))
+                .execute();
+        response.path("createDeployment.composeYaml").entity(String.class).isEqualTo(composeYaml);
+        String deploymentId = response.path("createDeployment.id").entity(String.class).get();
+
+        awaitJob(response.path("createDeployment.jobId").entity(String.class).get(), DeploymentJobStatus.SUCCEEDED);
+        verify(grpcClient).startComposeStream(eq(deploymentId), any());
+        verify(grpcClient, never()).startCompose(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldRejectInvalidComposeFiles() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "compose.yaml", "application/yaml", "- not\n- a mapping".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(multipart("/deployments/compose").file(file))
+                .andExpect(status().isBadRequest());
+
+        graphQlTester.documentName("createDeployment")
+                .variable("input", Map.of("name", "broken", "composeYaml", "image: nginx"))
                 .execute()
-                .path("createDeployment.id")
+                .errors()
+                .expect(error -> error.getMessage() != null && error.getMessage().contains("no services"))
+                .verify();
+        assertEquals(0, deploymentRepository.count());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldRecordFailedDeploymentJob() {
+        when(grpcClient.startCompose(any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(1).setMessage("invalid compose file").build());
+
+        GraphQlTester.Response response = graphQlTester.documentName("createDeployment")
+                .variable("input", Map.of("name", "web", "composeYaml", "services: {}"))
+                .execute();
+
+        String deploymentId = response.path("createDeployment.id").entity(String.class).get();
+        String jobId = response.path("createDeployment.jobId").entity(String.class).get();
+
+        awaitJob(jobId, DeploymentJobStatus.FAILED);
+        graphQlTester.documentName("deploymentJob")
+                .variable("id", jobId)
+                .execute()
+                .path("deploymentJob.error")
+                .entity(String.class)
+                .isEqualTo("Failed to start compose: invalid compose file");
+
+        Deployment deployment = deploymentRepository.findById(UUID.fromString(deploymentId)).orElseThrow();
+        assertEquals(DeploymentState.FAILED, deployment.getState());
+        assertEquals("Failed to start compose: invalid compose file", deployment.getLastError());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldNotStarveDeploymentsBehindALongBacklog() {
+        UUID busy = UUID.randomUUID();
+        DeploymentJob running = DeploymentJob.queued(busy, DeploymentJobType.UPDATE);
+        running.setStatus(DeploymentJobStatus.RUNNING);
+        jobRepository.save(running);
+        for (int i = 0; i < 150; i++) {
+            jobRepository.save(DeploymentJob.queued(busy, DeploymentJobType.UPDATE));
+        }
+        when(grpcClient.startCompose(any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
+
+        String jobId = graphQlTester.documentName("createDeployment")
+                .variable("input", Map.of("name", "web", "composeYaml", "services: {}"))
+                .execute()
+                .path("createDeployment.jobId")
                 .entity(String.class)
                 .get();
 
+        awaitJob(jobId, DeploymentJobStatus.SUCCEEDED);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldUpdateDeployment() {
+        when(grpcClient.startCompose(any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
+        when(grpcClient.updateCompose(any(), any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("updated").build());
+
+        String originalName = "app";
+        String originalYaml = "version: '3'\nservices:\n  app:\n    image: nginx\n  db:\n    image: postgres";
+        String updatedYaml = "version: '3'\nservices:\n  app:\n    image: httpd\n  db:\n    image: postgres";
+        String updatedName = "app2";
+
+        String deploymentId = createRunningDeployment(originalName, originalYaml);
+
         GraphQlTester.Response updateResponse = graphQlTester.documentName("updateDeployment")
                 .variable("id", deploymentId)
                 .variable("input", Map.of("name", updatedName, "composeYaml", updatedYaml))
@@ -92,10 +244,219 @@ class DeploymentGraphQLControllerIntegrationTest {
         updateResponse.path("updateDeployment.id").entity(String.class).isEqualTo(deploymentId);
         updateResponse.path("updateDeployment.composeYaml").entity(String.class).isEqualTo(updatedYaml);
         updateResponse.path("updateDeployment.name").entity(String.class).isEqualTo(updatedName);
+        updateResponse.path("updateDeployment.revision").entity(Integer.class).isEqualTo(2);
+
+        assertEquals(1, deploymentRepository.count());
+        verify(grpcClient, timeout(5000)).updateCompose(deploymentId, updatedYaml, List.of("app"));
+        verify(grpcClient, never()).stopApp(any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldRestartDeploymentWhenProjectWideSettingsChange() {
+        when(grpcClient.startCompose(any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
+        when(grpcClient.stopApp(any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("stopped").build());
+
+        String deploymentId = createRunningDeployment("app", "services:\n  app:\n    image: nginx");
+        String updatedYaml = "services:\n  app:\n    image: nginx\nnetworks:\n  backend: {}";
+
+        graphQlTester.documentName("updateDeployment")
+                .variable("id", deploymentId)
+                .variable("input", Map.of("composeYaml", updatedYaml))
+                .execute()
+                .path("updateDeployment.revision").entity(Integer.class).isEqualTo(2);
+
+        verify(grpcClient, timeout(5000)).startCompose(deploymentId, updatedYaml);
+        InOrder inOrder = inOrder(grpcClient);
+        inOrder.verify(grpcClient).pullImages(eq(deploymentId), eq(updatedYaml), any());
+        inOrder.verify(grpcClient).stopApp(deploymentId);
+        inOrder.verify(grpcClient).startCompose(deploymentId, updatedYaml);
+        verify(grpcClient, never()).updateCompose(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldKeepOldDeploymentRunningWhenImagePullFails() {
+        when(grpcClient.startCompose(any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
+        when(grpcClient.pullImages(any(), any(), any())).thenAnswer(invocation -> {
+            Consumer<PullImagesProgress> onProgress = invocation.getArgument(2);
+            onProgress.accept(PullImagesProgress.newBuilder().setTotal(1).build());
+            onProgress.accept(PullImagesProgress.newBuilder().setImage("nginx:missing").setPulled(1).setTotal(1)
+                    .setError("manifest unknown").build());
+            return Map.of("nginx:missing", "manifest unknown");
+        });
+
+        String deploymentId = createRunningDeployment("app", "services:\n  app:\n    image: nginx");
+        String jobId = graphQlTester.documentName("updateDeployment")
+                .variable("id", deploymentId)
+                .variable("input", Map.of("composeYaml", "services:\n  app:\n    image: nginx:missing\nvolumes:\n  data: {}"))
+                .execute()
+                .path("updateDeployment.jobId").entity(String.class).get();
+
+        awaitJob(jobId, DeploymentJobStatus.FAILED);
+        Deployment deployment = deploymentRepository.findById(UUID.fromString(deploymentId)).orElseThrow();
+        assertEquals(DeploymentState.FAILED, deployment.getState());
+        assertTrue(deployment.getLastError().contains("manifest unknown"));
+        assertNull(deployment.getProgress());
+        verify(grpcClient, never()).stopApp(any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldSwitchBlueGreenDeploymentToHealthySlot() throws Exception {
+        when(grpcClient.startCompose(any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
+        when(grpcClient.startHealthy(any(), any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("healthy").build());
+        when(grpcClient.stopApp(any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("stopped").build());
+        when(grpcClient.testNginxConfig(any())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+        when(grpcClient.reloadNginx(any())).thenReturn(ActionResult.newBuilder().setStatus(0).build());
+        Map<String, Object> route = Map.of("domain", "app.example.com", "service", "app", "port", 8080);
 
+        GraphQlTester.Response response = graphQlTester.documentName("createDeployment")
+                .variable("input", Map.of("name", "app", "updateStrategy", "BLUE_GREEN", "route", route,
+                        "composeYaml", "services:\n  app:\n    image: nginx\n    ports:\n      - \"8080\""))
+                .execute();
+        awaitJob(response.path("createDeployment.jobId").entity(String.class).get(), DeploymentJobStatus.SUCCEEDED);
+        String deploymentId = response.path("createDeployment.id").entity(String.class).get();
+        verify(grpcClient).startCompose(eq(deploymentId), argThat(yaml ->
+                yaml.contains("- " + deploymentId + "-app") && yaml.contains("external: true") && yaml.contains("- \"8080\"")));
+        Path routeConf = Path.of(nginxDir, "deployment-" + deploymentId + ".conf");
+        assertTrue(Files.readString(routeConf).contains("set $upstream http://" + deploymentId + "-app:8080;"));
+
+        String updatedYaml = "services:\n  app:\n    image: httpd\n    ports:\n      - \"8080\"";
+        awaitJob(graphQlTester.documentName("updateDeployment")
+                .variable("id", deploymentId)
+                .variable("input", Map.of("composeYaml", updatedYaml))
+                .execute()
+                .path("updateDeployment.jobId").entity(String.class).get(), DeploymentJobStatus.SUCCEEDED);
+        String blue = deploymentId + "-blue";
+        InOrder switchOrder = inOrder(grpcClient);
+        switchOrder.verify(grpcClient).startHealthy(eq(blue), argThat(yaml -> yaml.contains("image: httpd") && yaml.contains("- " + blue + "-app")), any());
+        switchOrder.verify(grpcClient).reloadNginx(any());
+        switchOrder.verify(grpcClient).stopApp(deploymentId);
+        assertTrue(Files.readString(routeConf).contains("http://" + blue + "-app:8080;"));
+        Deployment switched = deploymentRepository.findById(UUID.fromString(deploymentId)).orElseThrow();
+        assertEquals(DeploymentSlot.BLUE, switched.getSlot());
+        assertEquals(DeploymentState.RUNNING, switched.getState());
+        assertEquals(blue, statusCache.projectOf(UUID.fromString(deploymentId)));
+
+        // A slot that does not become healthy is never routed to, the live slot keeps serving
+        when(grpcClient.startHealthy(any(), any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(1).setMessage("Project did not become healthy")
+                        .setDetails("container reported unhealthy: app").build());
+        awaitJob(graphQlTester.documentName("updateDeployment")
+                .variable("id", deploymentId)
+                .variable("input", Map.of("composeYaml", updatedYaml + "\n    command: [\"false\"]"))
+                .execute()
+                .path("updateDeployment.jobId").entity(String.class).get(), DeploymentJobStatus.FAILED);
+        verify(grpcClient).startHealthy(eq(deploymentId + "-green"), any(), any());
+        verify(grpcClient, never()).stopApp(blue);
+        assertTrue(Files.readString(routeConf).contains("http://" + blue + "-app:8080;"));
+        Deployment failed = deploymentRepository.findById(UUID.fromString(deploymentId)).orElseThrow();
+        assertEquals(DeploymentSlot.BLUE, failed.getSlot());
+        assertTrue(failed.getLastError().contains("container reported unhealthy"));
+
+        // A published host port cannot be bound by two slots at once, so the file is rejected up front
+        String pinnedYaml = "services:\n  app:\n    image: httpd\n    ports:\n      - \"3000:30\"";
+        graphQlTester.documentName("updateDeployment")
+                .variable("id", deploymentId)
+                .variable("input", Map.of("composeYaml", pinnedYaml))
+                .execute()
+                .errors()
+                .expect(error -> error.getMessage() != null && error.getMessage().contains("publishes host port 3000:30"))
+                .verify();
+        graphQlTester.documentName("createDeployment")
+                .variable("input", Map.of("name", "pinned", "updateStrategy", "BLUE_GREEN", "route", route,
+                        "composeYaml", "services:\n  app:\n    image: nginx\n    container_name: web"))
+                .execute()
+                .errors()
+                .expect(error -> error.getMessage() != null && error.getMessage().contains("sets container_name"))
+                .verify();
+        graphQlTester.documentName("createDeployment")
+                .variable("input", Map.of("name", "unrouted", "updateStrategy", "BLUE_GREEN",
+                        "composeYaml", "services:\n  app:\n    image: nginx"))
+                .execute()
+                .errors()
+                .expect(error -> error.getMessage() != null && error.getMessage().contains("needs a route"))
+                .verify();
         assertEquals(1, deploymentRepository.count());
-        verify(grpcClient).stopApp(deploymentId);
-        verify(grpcClient).startCompose(deploymentId, updatedYaml);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldNotRestartDeploymentForFormattingChanges() {
+        when(grpcClient.startCompose(any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
+
+        String deploymentId = createRunningDeployment("app",
+                "version: '3'\nservices:\n  app:\n    image: nginx\n    environment:\n      - MODE=prod\n    ports:\n      - 8080:80");
+        String reformattedYaml = "# production\nversion: \"3.8\"\nservices:\n  app:\n    ports: [\"8080:80\"]\n"
+                + "    environment:\n      MODE: prod\n    image: nginx";
+
+        graphQlTester.documentName("updateDeployment")
+                .variable("id", deploymentId)
+                .variable("input", Map.of("composeYaml", reformattedYaml))
+                .execute()
+                .path("updateDeployment.composeYaml").entity(String.class).isEqualTo(reformattedYaml)
+                .path("updateDeployment.revision").entity(Integer.class).isEqualTo(2);
+
+        assertEquals(1, jobRepository.count());
+        verify(grpcClient, never()).stopApp(any());
+        verify(grpcClient, never()).updateCompose(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldRollbackToEarlierRevision() {
+        when(grpcClient.startCompose(any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
+        when(grpcClient.updateCompose(any(), any(), any()))
+                .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("updated").build());
+
+        String originalYaml = "version: '3'\nservices:\n  app:\n    image: nginx";
+        String updatedYaml = "version: '3'\nservices:\n  app:\n    image: httpd";
+
+        String deploymentId = createRunningDeployment("app", originalYaml);
+        graphQlTester.documentName("updateDeployment")
+                .variable("id", deploymentId)
+                .variable("input", Map.of("composeYaml", updatedYaml))
+                .execute()
+                .path("updateDeployment.revision").entity(Integer.class).isEqualTo(2);
+        // Pushing the same file again is not a change and must not grow the history
+        graphQlTester.documentName("updateDeployment")
+                .variable("id", deploymentId)
+                .variable("input", Map.of("composeYaml", updatedYaml))
+                .execute()
+                .path("updateDeployment.revision").entity(Integer.class).isEqualTo(2);
+        verify(grpcClient, timeout(5000)).updateCompose(deploymentId, updatedYaml, List.of("app"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> deploymentRepository.findById(UUID.fromString(deploymentId))
+                .orElseThrow().getState() == DeploymentState.RUNNING);
+
+        GraphQlTester.Response rollbackResponse = graphQlTester.documentName("rollbackDeployment")
+                .variable("id", deploymentId)
+                .variable("revision", 1)
+                .execute();
+
+        rollbackResponse.path("rollbackDeployment.revision").entity(Integer.class).isEqualTo(3);
+        rollbackResponse.path("rollbackDeployment.composeYaml").entity(String.class).isEqualTo(originalYaml);
+        rollbackResponse.path("rollbackDeployment.revisions[*].revision").entityList(Integer.class).containsExactly(3, 2, 1);
+        rollbackResponse.path("rollbackDeployment.revisions[0].composeYaml").entity(String.class).isEqualTo(originalYaml);
+        List<String> hashes = rollbackResponse.path("rollbackDeployment.revisions[*].composeHash").entityList(String.class).get();
+        assertEquals(hashes.get(2), hashes.get(0));
+        verify(grpcClient, timeout(5000)).updateCompose(deploymentId, originalYaml, List.of("app"));
+
+        graphQlTester.documentName("rollbackDeployment")
+                .variable("id", deploymentId)
+                .variable("revision", 42)
+                .execute()
+                .errors()
+                .expect(error -> error.getMessage() != null && error.getMessage().contains("Revision 42"))
+                .verify();
     }
 
     @Test
@@ -124,8 +485,8 @@ class DeploymentGraphQLControllerIntegrationTest {
 
         deleteResponse.path("deleteDeployment").entity(Boolean.class).isEqualTo(true);
 
-        assertEquals(0, deploymentRepository.count());
-        verify(grpcClient).stopApp(deploymentId);
+        verify(grpcClient, timeout(5000)).stopApp(deploymentId);
+        await().atMost(Duration.ofSeconds(5)).until(() -> deploymentRepository.count() == 0);
     }
 
     @Test
@@ -148,6 +509,7 @@ class DeploymentGraphQLControllerIntegrationTest {
                 .path("createDeployment.id")
                 .entity(String.class)
                 .get();
+        await().atMost(Duration.ofSeconds(5)).until(() -> uuidRef.get() != null);
 
         AppStatus appStatus = AppStatus.newBuilder()
                 .setUuid(uuidRef.get())
@@ -161,7 +523,7 @@ class DeploymentGraphQLControllerIntegrationTest {
                         .addPorts("80:80")
                         .build())
                 .build();
-        when(grpcClient.getStatus(uuidRef.get())).thenReturn(appStatus);
+        when(grpcClient.getStatusAsync(uuidRef.get())).thenReturn(CompletableFuture.completedFuture(appStatus));
 
         graphQlTester.documentName("deploymentStatus")
                 .variable("id", deploymentId)
@@ -171,6 +533,205 @@ class DeploymentGraphQLControllerIntegrationTest {
                 .isEqualTo(uuidRef.get());
     }
 
+    @Test
+    @WithMockUser
+    void shouldReportUnavailableDockerControlAsServiceUnavailable() {
+        String deploymentId = saveDeployment("web", "services: {}").getId().toString();
+        when(grpcClient.getStatusAsync(deploymentId)).thenReturn(CompletableFuture.failedFuture(
+                new ServiceUnavailableException("docker-control is unavailable, please retry later")));
+
+        graphQlTester.documentName("deploymentStatus")
+                .variable("id", deploymentId)
+                .execute()
+                .errors()
+                .satisfy(errors -> {
+                    assertEquals(1, errors.size());
+                    assertEquals(ErrorType.INTERNAL_ERROR, errors.get(0).getErrorType());
+                    Map<?, ?> error = (Map<?, ?>) errors.get(0).getExtensions().get("error");
+                    assertEquals(503, error.get("statusCode"));
+                });
+    }
+
+    @Test
+    @WithMockUser
+    void shouldServeRepeatedStatusReadsFromCache() {
+        Deployment deployment = saveDeployment("web", "services: {}");
+        String deploymentId = deployment.getId().toString();
+        AppStatus appStatus = AppStatus.newBuilder()
+                .setUuid(deploymentId)
+                .setState(AppState.RUNNING)
+                .setStatus(0)
+                .build();
+        when(grpcClient.getStatusAsync(deploymentId)).thenReturn(CompletableFuture.completedFuture(appStatus));
+
+        for (int i = 0; i < 3; i++) {
+            GraphQlTester.Response response = graphQlTester.documentName("deploymentStatus")
+                    .variable("id", deploymentId)
+                    .execute();
+            response.path("deploymentStatus.state").entity(String.class).isEqualTo("RUNNING");
+            response.path("deploymentStatus.stale").entity(Boolean.class).isEqualTo(false);
+        }
+
+        verify(grpcClient, times(1)).getStatusAsync(deploymentId);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturnStatusesOfSeveralDeploymentsWithOneRpc() {
+        String first = saveDeployment("web", "services: {}").getId().toString();
+        String second = saveDeployment("db", "services: {}").getId().toString();
+        when(grpcClient.getStatusesAsync(any())).thenAnswer(invocation -> {
+            List<String> uuids = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(uuids.stream()
+                    .map(uuid -> AppStatus.newBuilder().setUuid(uuid).setState(AppState.RUNNING).build())
+                    .toList());
+        });
+
+        GraphQlTester.Response response = graphQlTester.documentName("deploymentStatuses")
+                .variable("ids", List.of(second, first))
+                .execute();
+
+        response.path("deploymentStatuses[0].uuid").entity(String.class).isEqualTo(second);
+        response.path("deploymentStatuses[1].uuid").entity(String.class).isEqualTo(first);
+        verify(grpcClient, times(1)).getStatusesAsync(any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldResolveDeploymentStatusFieldInOneBatch() {
+        saveDeployment("web", "services: {}");
+        saveDeployment("db", "services: {}");
+        saveDeployment("cache", "services: {}");
+        stubStatuses(AppState.STOPPED);
+
+        GraphQlTester.Response response = graphQlTester.documentName("deployments").execute();
+
+        response.path("deployments.edges").entityList(Object.class).hasSize(3);
+        response.path("deployments.edges[*].node.status.state").entityList(String.class)
+                .containsExactly("STOPPED", "STOPPED", "STOPPED");
+        verify(grpcClient, times(1)).getStatusesAsync(any());
+    }
+
+    @Test
+    void shouldNotCacheStatusEvictedWhileRefreshIsRunning() {
+        UUID deploymentId = saveDeployment("web", "services: {}").getId();
+        CompletableFuture<List<AppStatus>> response = new CompletableFuture<>();
+        when(grpcClient.getStatusesAsync(any())).thenReturn(response);
+
+        // Returns without waiting for docker-control
+        statusCache.refresh();
+        statusCache.evict(deploymentId);
+        response.complete(List.of(AppStatus.newBuilder().setUuid(deploymentId.toString()).setState(AppState.RUNNING).build()));
+
+        assertFalse(statusCache.contains(deploymentId));
+        verify(grpcClient, times(1)).getStatusesAsync(any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldPaginateDeploymentsWithCursor() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            deploymentRepository.save(deployment("app-" + i, "services:\n  app" + i + ": {}", now.plusSeconds(i)));
+        }
+        stubStatuses(AppState.RUNNING);
+
+        GraphQlTester.Response firstPage = graphQlTester.documentName("deployments")
+                .variable("first", 2)
+                .variable("sort", Map.of("field", "CREATED_AT", "direction", "DESC"))
+                .execute();
+        firstPage.path("deployments.edges[*].node.name").entityList(String.class).containsExactly("app-4", "app-3");
+        firstPage.path("deployments.edges[0].node.composeYaml").entity(String.class).isEqualTo("services:\n  app4: {}");
+        firstPage.path("deployments.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(true);
+        String endCursor = firstPage.path("deployments.pageInfo.endCursor").entity(String.class).get();
+
+        GraphQlTester.Response secondPage = graphQlTester.documentName("deployments")
+                .variable("first", 3)
+                .variable("after", endCursor)
+                .variable("sort", Map.of("field", "CREATED_AT", "direction", "DESC"))
+                .execute();
+        secondPage.path("deployments.edges[*].node.name").entityList(String.class).containsExactly("app-2", "app-1", "app-0");
+        secondPage.path("deployments.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false);
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturnSingleDeploymentWithComposeFile() {
+        String deploymentId = saveDeployment("web", "services:\n  web: {}").getId().toString();
+
+        graphQlTester.documentName("deployment")
+                .variable("id", deploymentId)
+                .execute()
+                .path("deployment.name").entity(String.class).isEqualTo("web")
+                .path("deployment.composeYaml").entity(String.class).isEqualTo("services:\n  web: {}");
+
+        graphQlTester.documentName("deployment")
+                .variable("id", UUID.randomUUID().toString())
+                .execute()
+                .errors()
+                .expect(error -> error.getMessage() != null && error.getMessage().contains("Deployment not found"))
+                .verify();
+    }
+
+    @Test
+    @WithMockUser
+    void shouldFilterDeploymentsByName() {
+        saveDeployment("Frontend", "services: {}");
+        saveDeployment("backend-api", "services: {}");
+        saveDeployment("postgres", "services: {}");
+        stubStatuses(AppState.RUNNING);
+
+        graphQlTester.documentName("deployments")
+                .variable("nameContains", "END")
+                .variable("sort", Map.of("field", "NAME", "direction", "ASC"))
+                .execute()
+                .path("deployments.edges[*].node.name")
+                .entityList(String.class)
+                .containsExactly("Frontend", "backend-api");
+    }
+
+    @Test
+    @WithMockUser
+    void shouldStreamStatusChangesToSubscribers() {
+        String deploymentId = saveDeployment("web", "services: {}").getId().toString();
+        when(grpcClient.watchStatus(eq(deploymentId), any())).thenAnswer(invocation -> {
+            StreamObserver<AppStatus> observer = invocation.getArgument(1);
+            observer.onNext(AppStatus.newBuilder().setUuid(deploymentId).setState(AppState.STARTING).build());
+            observer.onNext(AppStatus.newBuilder().setUuid(deploymentId).setState(AppState.RUNNING).build());
+            return (Runnable) () -> { };
+        });
+
+        Flux<String> states = ExecutionGraphQlServiceTester.create(graphQlService)
+                .documentName("deploymentStatusChanged")
+                .variable("id", deploymentId)
+                .executeSubscription()
+                .toFlux("deploymentStatusChanged.state", String.class);
+
+        assertEquals(List.of("STARTING", "RUNNING"), states.take(2).collectList().block(Duration.ofSeconds(5)));
+        verify(grpcClient, times(1)).watchStatus(eq(deploymentId), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldEndStatusSubscriptionWhenDockerControlDoesNotKnowTheApp() {
+        String deploymentId = saveDeployment("web", "services: {}").getId().toString();
+        when(grpcClient.watchStatus(eq(deploymentId), any())).thenAnswer(invocation -> {
+            StreamObserver<AppStatus> observer = invocation.getArgument(1);
+            observer.onNext(AppStatus.newBuilder().setUuid(deploymentId).setState(AppState.RUNNING).build());
+            observer.onError(Status.NOT_FOUND.asRuntimeException());
+            return (Runnable) () -> { };
+        });
+
+        Flux<String> states = ExecutionGraphQlServiceTester.create(graphQlService)
+                .documentName("deploymentStatusChanged")
+                .variable("id", deploymentId)
+                .executeSubscription()
+                .toFlux("deploymentStatusChanged.state", String.class);
+
+        assertEquals(List.of("RUNNING"), states.collectList().block(Duration.ofSeconds(5)));
+        verify(grpcClient, times(1)).watchStatus(eq(deploymentId), any());
+    }
+
     @Test
     @WithMockUser
     void shouldStartExistingDeployment() {
@@ -178,13 +739,47 @@ class DeploymentGraphQLControllerIntegrationTest {
                 .thenReturn(ActionResult.newBuilder().setStatus(0).setMessage("started").build());
         String name = "web";
         String composeYaml = "version: '3'\nservices:\n  app:\n    image: nginx";
-        Deployment deployment = deploymentRepository.save(Deployment.create(name, composeYaml));
+        Deployment deployment = saveDeployment(name, composeYaml);
 
         GraphQlTester.Response response = graphQlTester.documentName("startDeployment")
                 .variable("id", deployment.getId().toString())
                 .execute();
 
         response.path("startDeployment.id").entity(String.class).isEqualTo(deployment.getId().toString());
-        verify(grpcClient).startCompose(deployment.getId().toString(), composeYaml);
+        verify(grpcClient, timeout(5000)).startCompose(deployment.getId().toString(), composeYaml);
+    }
+
+    private Deployment saveDeployment(String name, String composeYaml) {
+        return deploymentRepository.save(deployment(name, composeYaml, Instant.now()));
+    }
+
+    private Deployment deployment(String name, String composeYaml, Instant createdAt) {
+        return Deployment.builder()
+                .name(name)
+                .composeHash(composeStore.store(composeYaml))
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private void stubStatuses(AppState state) {
+        when(grpcClient.getStatusesAsync(any())).thenAnswer(invocation -> {
+            List<String> uuids = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(uuids.stream()
+                    .map(uuid -> AppStatus.newBuilder().setUuid(uuid).setState(state).build())
+                    .toList());
+        });
+    }
+
+    private String createRunningDeployment(String name, String composeYaml) {
+        GraphQlTester.Response response = graphQlTester.documentName("createDeployment")
+                .variable("input", Map.of("name", name, "composeYaml", composeYaml))
+                .execute();
+        awaitJob(response.path("createDeployment.jobId").entity(String.class).get(), DeploymentJobStatus.SUCCEEDED);
+        return response.path("createDeployment.id").entity(String.class).get();
+    }
+
+    private void awaitJob(String jobId, DeploymentJobStatus status) {
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> jobRepository.findById(UUID.fromString(jobId)).orElseThrow().getStatus() == status);
     }
 } 
\ No newline at end of file